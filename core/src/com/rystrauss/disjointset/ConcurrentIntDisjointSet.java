@@ -0,0 +1,160 @@
+package com.rystrauss.disjointset;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free disjoint-set data structure (a.k.a union-find) over the integers {@code 0} to {@code n - 1}, which
+ * any number of threads may use at once.
+ * <p>
+ * This is the concurrent union-find of Jayanti and Tarjan (Concurrent Disjoint Set Union, 2016). The parent of
+ * every element is an entry of an {@link AtomicIntegerArray}, and every change to it is a compare-and-set:
+ * <ul>
+ * <li>{@code find} performs path splitting, pointing each element it passes to its grandparent. A failed
+ * compare-and-set only means another thread has already shortened the path, so it is not retried.</li>
+ * <li>{@code union} links one root beneath the other with a compare-and-set that succeeds only if the root is
+ * still a root, and retries from the new roots otherwise. Roots are always linked in the same fixed order of
+ * their indices, so concurrent links cannot form a cycle.</li>
+ * </ul>
+ * To keep trees shallow on any input, the linking order is a pseudo-random permutation of the indices rather than
+ * the indices themselves, which gives the expected O(log n) bound of randomized linking by index.
+ *
+ * @author Ryan Strauss
+ * @see IntDisjointSet
+ */
+public class ConcurrentIntDisjointSet {
+
+    private final AtomicIntegerArray parent;
+    private final LongAdder links;
+
+    /**
+     * Makes a new disjoint-set forest containing the elements {@code 0} to {@code n - 1}. Initially, all elements
+     * are disjoint.
+     *
+     * @param n the number of elements
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public ConcurrentIntDisjointSet(int n) throws IllegalArgumentException {
+        if (n < 0)
+            throw new IllegalArgumentException("The number of elements cannot be negative.");
+
+        this.parent = new AtomicIntegerArray(n);
+        this.links = new LongAdder();
+
+        for (int i = 0; i < n; i++)
+            this.parent.set(i, i);
+    }
+
+    /**
+     * Finds the representative element for the provided element's subset. If other threads are merging subsets
+     * concurrently, the result is a representative at some point during the call.
+     *
+     * @param element the element whose representative will be returned
+     * @return the representative for {@code element}'s subset
+     * @throws IndexOutOfBoundsException if {@code element} is not between {@code 0} and {@code n - 1}
+     */
+    public int find(int element) {
+        while (true) {
+            int p = parent.get(element);
+            if (p == element)
+                return element;
+
+            int grandparent = parent.get(p);
+            if (grandparent != p)
+                parent.compareAndSet(element, p, grandparent);
+            element = p;
+        }
+    }
+
+    /**
+     * Merges the subsets of the supplied elements, which need not be representatives.
+     *
+     * @param element1 the first element to be merged
+     * @param element2 the second element to be merged
+     * @return true iff this call merged two different subsets
+     * @throws IndexOutOfBoundsException if either element is not between {@code 0} and {@code n - 1}
+     */
+    public boolean union(int element1, int element2) {
+        while (true) {
+            int r1 = find(element1), r2 = find(element2);
+            if (r1 == r2)
+                return false;
+
+            if (precedes(r2, r1)) {
+                int swap = r1;
+                r1 = r2;
+                r2 = swap;
+            }
+
+            // The link fails if r1 has been linked elsewhere since it was found, in which case start again from it.
+            if (parent.compareAndSet(r1, r1, r2)) {
+                links.increment();
+                return true;
+            }
+            element1 = r1;
+            element2 = r2;
+        }
+    }
+
+    /**
+     * Determines whether or not two elements are in the same subset. If other threads are merging subsets
+     * concurrently, the result was correct at some point during the call.
+     *
+     * @param element1 the first element
+     * @param element2 the second element
+     * @return true iff the elements are in the same subset
+     * @throws IndexOutOfBoundsException if either element is not between {@code 0} and {@code n - 1}
+     */
+    public boolean connected(int element1, int element2) {
+        while (true) {
+            int r1 = find(element1), r2 = find(element2);
+            if (r1 == r2)
+                return true;
+            // If r1 is still a root, it was one at the same time as r2 was.
+            if (parent.get(r1) == r1)
+                return false;
+            element1 = r1;
+            element2 = r2;
+        }
+    }
+
+    /**
+     * Gets the number of elements in the disjoint set.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return parent.length();
+    }
+
+    /**
+     * Gets the number of subsets in the disjoint set. The result is exact only when no unions are in progress.
+     *
+     * @return the number of subsets
+     */
+    public int getNumSubsets() {
+        return parent.length() - (int) links.sum();
+    }
+
+    /**
+     * Determines whether one root is linked beneath another, according to a fixed pseudo-random order of the
+     * indices.
+     */
+    private static boolean precedes(int a, int b) {
+        int ha = mix(a), hb = mix(b);
+        return ha != hb ? ha < hb : a < b;
+    }
+
+    /**
+     * Scrambles the bits of an index (the finalizer of MurmurHash3).
+     */
+    private static int mix(int x) {
+        x ^= x >>> 16;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        x *= 0xc2b2ae35;
+        x ^= x >>> 16;
+        return x;
+    }
+
+}
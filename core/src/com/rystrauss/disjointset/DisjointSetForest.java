@@ -9,29 +9,28 @@ import java.util.*;
  * near-constant-time operations to add new sets, to merge existing sets, and to determine whether elements
  * are in the same set.
  * <p>
- * This implementation uses two heuristics: union by rank and path compression.
+ * Each element is given an integer id, and the forest itself is an {@link IntDisjointSet} over those ids, which
+ * uses union by rank and path halving. The members of each subset are also kept in a circular linked list, and two
+ * lists are spliced together in constant time when their subsets are merged, so a subset can be listed without
+ * examining any other element.
  *
  * @param <E> the elements stored in the data structure
  * @author Ryan Strauss
  */
 public class DisjointSetForest<E extends Comparable<E>> {
 
-    private int numSubsets;
-    private Map<E, Node> elementMap;
-
-    private class Node {
-
-        Node parent;
-        E data;
-        int size, rank;
-
-        Node(E data) {
-            this.data = data;
-            this.parent = null;
-            this.size = 1;
-            this.rank = 0;
-        }
+    private final Map<E, Integer> ids;
+    private final List<E> elements;
+    private final IntDisjointSet forest;
+    // The size of each subset, indexed by the id of its representative (zero for other ids), and the id of the
+    // next member of each element's subset.
+    private int[] sizes, next;
 
+    /**
+     * Makes a new, empty disjoint-set forest.
+     */
+    public DisjointSetForest() {
+        this(Collections.emptyList());
     }
 
     /**
@@ -43,11 +42,40 @@ public class DisjointSetForest<E extends Comparable<E>> {
      * @param elements a list of elements to be put into the forest
      */
     public DisjointSetForest(List<E> elements) {
-        this.numSubsets = elements.size();
-        this.elementMap = new HashMap<>();
+        this.ids = new HashMap<>();
+        this.elements = new ArrayList<>(elements.size());
+        this.forest = new IntDisjointSet(0);
+        this.sizes = new int[elements.size()];
+        this.next = new int[elements.size()];
 
         for (E e : elements)
-            this.elementMap.put(e, new Node(e));
+            add(e);
+    }
+
+    /**
+     * Adds an element to the forest, in a subset of its own.
+     *
+     * @param element the element to be added
+     * @return true iff the element was not already in the forest
+     */
+    public boolean add(E element) {
+        if (element == null)
+            throw new NullPointerException("Trying to add null pointer to disjoint set.");
+        if (this.ids.containsKey(element))
+            return false;
+
+        int id = this.forest.add();
+        if (id == this.sizes.length) {
+            int capacity = Math.max(8, id + (id >> 1));
+            this.sizes = Arrays.copyOf(this.sizes, capacity);
+            this.next = Arrays.copyOf(this.next, capacity);
+        }
+
+        this.ids.put(element, id);
+        this.elements.add(element);
+        this.sizes[id] = 1;
+        this.next[id] = id;
+        return true;
     }
 
     /**
@@ -57,53 +85,86 @@ public class DisjointSetForest<E extends Comparable<E>> {
      * @return the representative for {@code element}'s subset
      */
     public E find(E element) {
-        List<Node> path = new LinkedList<>();
-        Node current = this.elementMap.get(element);
+        return this.elements.get(this.forest.find(id(element)));
+    }
 
-        if (current == null)
-            throw new IllegalStateException("Provided element does not exist in the disjoint set.");
+    /**
+     * Merges the subsets of the supplied elements. The elements need not be the representatives of their subsets.
+     *
+     * @param element1 the first element to be merged
+     * @param element2 the second element to be merged
+     * @return true iff the elements were in different subsets
+     */
+    public boolean union(E element1, E element2) {
+        int r1 = this.forest.find(id(element1));
+        int r2 = this.forest.find(id(element2));
 
-        while (current.parent != null) {
-            path.add(current);
-            current = current.parent;
-        }
+        if (!this.forest.union(r1, r2))
+            return false;
 
-        for (Node n : path)
-            n.parent = current;
+        int root = this.forest.isRepresentative(r1) ? r1 : r2, child = root == r1 ? r2 : r1;
+        this.sizes[root] += this.sizes[child];
+        this.sizes[child] = 0;
 
-        return current.data;
+        // Swapping the successors of one member of each circular list joins them into a single circle.
+        int swap = this.next[r1];
+        this.next[r1] = this.next[r2];
+        this.next[r2] = swap;
+
+        return true;
     }
 
     /**
-     * Merges the subsets of the supplied elements.
-     * <p>
-     * This method assumes that the provided elements are the representatives of their subsets (representatives
-     * can be found with the {@code find} method.
+     * Determines whether or not two elements are in the same subset.
      *
-     * @param element1 the first element to be merged
-     * @param element2 the second element to be merged
+     * @param element1 the first element
+     * @param element2 the second element
+     * @return true iff the elements are in the same subset
      */
-    public void union(E element1, E element2) {
-        Node n1 = this.elementMap.get(element1);
-        Node n2 = this.elementMap.get(element2);
-
-        if (n1 == null || n2 == null)
-            throw new IllegalStateException("Provided elements cannot be found in the disjoint set.");
-
-        if (n1.parent != null || n2.parent != null)
-            throw new IllegalStateException("Both elements must be the representatives for their subsets.");
-
-        if (n1.rank >= n2.rank) {
-            n2.parent = n1;
-            n1.size += n2.size;
-            if (n1.rank == n2.rank)
-                n1.rank++;
-        } else {
-            n1.parent = n2;
-            n2.size += n1.size;
-        }
+    public boolean connected(E element1, E element2) {
+        return this.forest.connected(id(element1), id(element2));
+    }
+
+    /**
+     * Gets the number of elements in the provided element's subset.
+     *
+     * @param element an element of the subset
+     * @return the number of elements in {@code element}'s subset
+     */
+    public int sizeOf(E element) {
+        return this.sizes[this.forest.find(id(element))];
+    }
 
-        this.numSubsets--;
+    /**
+     * Returns the elements of the provided element's subset, in time proportional to the size of the subset. The
+     * forest must not be modified while the result is being iterated over.
+     *
+     * @param element an element of the subset
+     * @return the elements of {@code element}'s subset, starting with {@code element}
+     */
+    public Iterable<E> subsetOf(E element) {
+        int start = id(element);
+
+        return () -> new Iterator<E>() {
+            private int current = start;
+            private boolean started = false;
+
+            @Override
+            public boolean hasNext() {
+                return !started || current != start;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                started = true;
+                E e = elements.get(current);
+                current = DisjointSetForest.this.next[current];
+                return e;
+            }
+        };
     }
 
     /**
@@ -114,23 +175,50 @@ public class DisjointSetForest<E extends Comparable<E>> {
     public Map<E, List<E>> getSubsets() {
         Map<E, List<E>> segments = new HashMap<>();
 
-        for (E e : this.elementMap.keySet()) {
-            E rep = find(e);
-            if (!segments.containsKey(rep))
-                segments.put(rep, new LinkedList<>());
-            segments.get(rep).add(e);
+        for (int id = 0; id < this.elements.size(); id++) {
+            if (this.sizes[id] == 0)
+                continue;
+
+            List<E> segment = new ArrayList<>(this.sizes[id]);
+            int member = id;
+            do {
+                segment.add(this.elements.get(member));
+                member = this.next[member];
+            } while (member != id);
+            segments.put(this.elements.get(id), segment);
         }
 
         return segments;
     }
 
+    /**
+     * Gets the number of elements in the disjoint set.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.elements.size();
+    }
+
     /**
      * Gets the number of subsets in the disjoint set.
      *
      * @return the number of subsets
      */
     public int getNumSubsets() {
-        return this.numSubsets;
+        return this.forest.getNumSubsets();
+    }
+
+    /**
+     * Looks up the id of an element.
+     */
+    private int id(E element) {
+        Integer id = this.ids.get(element);
+
+        if (id == null)
+            throw new IllegalStateException("Provided element does not exist in the disjoint set.");
+
+        return id;
     }
 
 }
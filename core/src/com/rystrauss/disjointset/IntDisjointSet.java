@@ -0,0 +1,159 @@
+package com.rystrauss.disjointset;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set data structure (a.k.a union-find) over the integers {@code 0} to {@code n - 1}.
+ * <p>
+ * The forest is stored in two arrays, so each element costs five bytes and no objects are allocated except when
+ * the arrays grow to make room for new elements. This implementation uses union by rank and path halving: every
+ * step of a {@code find} makes the current element point to its grandparent, which shortens the path as much as
+ * full path compression in the long run without a second pass or a stack.
+ *
+ * @author Ryan Strauss
+ * @see DisjointSetForest
+ */
+public class IntDisjointSet {
+
+    private int[] parent;
+    // Ranks never exceed log2(n) < 32, so a byte is enough.
+    private byte[] rank;
+    private int size, numSubsets;
+
+    /**
+     * Makes a new disjoint-set forest containing the elements {@code 0} to {@code n - 1}. Initially, all elements
+     * are disjoint.
+     *
+     * @param n the number of elements
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public IntDisjointSet(int n) throws IllegalArgumentException {
+        if (n < 0)
+            throw new IllegalArgumentException("The number of elements cannot be negative.");
+
+        this.parent = new int[n];
+        this.rank = new byte[n];
+        this.size = n;
+        this.numSubsets = n;
+
+        for (int i = 0; i < n; i++)
+            this.parent[i] = i;
+    }
+
+    /**
+     * Adds a new element, in a subset of its own.
+     *
+     * @return the new element, which is the number of elements before it was added
+     */
+    public int add() {
+        if (size == parent.length) {
+            int capacity = Math.max(8, parent.length + (parent.length >> 1));
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+        }
+
+        parent[size] = size;
+        rank[size] = 0;
+        numSubsets++;
+        return size++;
+    }
+
+    /**
+     * Finds the representative element for the provided element's subset.
+     *
+     * @param element the element whose representative will be returned
+     * @return the representative for {@code element}'s subset
+     * @throws IndexOutOfBoundsException if {@code element} is not between {@code 0} and {@code n - 1}
+     */
+    public int find(int element) {
+        checkElement(element);
+        return root(element);
+    }
+
+    /**
+     * Finds the root of an element's tree, halving the path to it.
+     */
+    private int root(int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the subsets of the supplied elements, which need not be representatives.
+     *
+     * @param element1 the first element to be merged
+     * @param element2 the second element to be merged
+     * @return true iff the elements were in different subsets
+     * @throws IndexOutOfBoundsException if either element is not between {@code 0} and {@code n - 1}
+     */
+    public boolean union(int element1, int element2) {
+        checkElement(element1);
+        checkElement(element2);
+
+        int r1 = root(element1), r2 = root(element2);
+        if (r1 == r2)
+            return false;
+
+        if (rank[r1] < rank[r2]) {
+            parent[r1] = r2;
+        } else {
+            parent[r2] = r1;
+            if (rank[r1] == rank[r2])
+                rank[r1]++;
+        }
+
+        numSubsets--;
+        return true;
+    }
+
+    /**
+     * Determines whether or not two elements are in the same subset.
+     *
+     * @param element1 the first element
+     * @param element2 the second element
+     * @return true iff the elements are in the same subset
+     * @throws IndexOutOfBoundsException if either element is not between {@code 0} and {@code n - 1}
+     */
+    public boolean connected(int element1, int element2) {
+        return find(element1) == find(element2);
+    }
+
+    /**
+     * Determines whether or not an element is the representative of its subset, without searching for it.
+     *
+     * @param element the element to check
+     * @return true iff {@code element} is the representative for its subset
+     * @throws IndexOutOfBoundsException if {@code element} is not between {@code 0} and {@code n - 1}
+     */
+    public boolean isRepresentative(int element) {
+        checkElement(element);
+        return parent[element] == element;
+    }
+
+    /**
+     * Gets the number of elements in the disjoint set.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of subsets in the disjoint set.
+     *
+     * @return the number of subsets
+     */
+    public int getNumSubsets() {
+        return numSubsets;
+    }
+
+    private void checkElement(int element) {
+        if (element < 0 || element >= size)
+            throw new IndexOutOfBoundsException("Element " + element + " is not in the disjoint set.");
+    }
+
+}
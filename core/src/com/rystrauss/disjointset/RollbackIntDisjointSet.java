@@ -0,0 +1,164 @@
+package com.rystrauss.disjointset;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set data structure (a.k.a union-find) over the integers {@code 0} to {@code n - 1} whose unions can be
+ * undone.
+ * <p>
+ * This implementation uses union by rank but no path compression, so a {@code find} never changes the forest and
+ * every union changes exactly one parent (and at most one rank). Each union is recorded on a stack, and undoing it
+ * restores that one parent in constant time. Without path compression a {@code find} takes O(log n) time, which
+ * is the price of being able to undo.
+ * <p>
+ * {@link #checkpoint()} marks the current state, and {@link #rollback(int)} undoes every union made since, which
+ * is what divide-and-conquer algorithms over time need.
+ *
+ * @author Ryan Strauss
+ * @see IntDisjointSet
+ */
+public class RollbackIntDisjointSet {
+
+    private final int[] parent;
+    // Ranks never exceed log2(n) < 32, so a byte is enough.
+    private final byte[] rank;
+    // The root linked beneath another by each union, or its complement if the other root's rank was increased.
+    private int[] history;
+    private int historySize, numSubsets;
+
+    /**
+     * Makes a new disjoint-set forest containing the elements {@code 0} to {@code n - 1}. Initially, all elements
+     * are disjoint.
+     *
+     * @param n the number of elements
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public RollbackIntDisjointSet(int n) throws IllegalArgumentException {
+        if (n < 0)
+            throw new IllegalArgumentException("The number of elements cannot be negative.");
+
+        this.parent = new int[n];
+        this.rank = new byte[n];
+        this.history = new int[16];
+        this.numSubsets = n;
+
+        for (int i = 0; i < n; i++)
+            this.parent[i] = i;
+    }
+
+    /**
+     * Finds the representative element for the provided element's subset, without modifying the forest.
+     *
+     * @param element the element whose representative will be returned
+     * @return the representative for {@code element}'s subset
+     * @throws ArrayIndexOutOfBoundsException if {@code element} is not between {@code 0} and {@code n - 1}
+     */
+    public int find(int element) {
+        while (parent[element] != element)
+            element = parent[element];
+        return element;
+    }
+
+    /**
+     * Merges the subsets of the supplied elements, which need not be representatives.
+     *
+     * @param element1 the first element to be merged
+     * @param element2 the second element to be merged
+     * @return true iff the elements were in different subsets, in which case the union can be undone
+     * @throws ArrayIndexOutOfBoundsException if either element is not between {@code 0} and {@code n - 1}
+     */
+    public boolean union(int element1, int element2) {
+        int r1 = find(element1), r2 = find(element2);
+        if (r1 == r2)
+            return false;
+
+        if (rank[r1] < rank[r2]) {
+            int swap = r1;
+            r1 = r2;
+            r2 = swap;
+        }
+
+        parent[r2] = r1;
+        boolean increased = rank[r1] == rank[r2];
+        if (increased)
+            rank[r1]++;
+
+        if (historySize == history.length)
+            history = Arrays.copyOf(history, 2 * history.length);
+        history[historySize++] = increased ? ~r2 : r2;
+        numSubsets--;
+
+        return true;
+    }
+
+    /**
+     * Determines whether or not two elements are in the same subset.
+     *
+     * @param element1 the first element
+     * @param element2 the second element
+     * @return true iff the elements are in the same subset
+     * @throws ArrayIndexOutOfBoundsException if either element is not between {@code 0} and {@code n - 1}
+     */
+    public boolean connected(int element1, int element2) {
+        return find(element1) == find(element2);
+    }
+
+    /**
+     * Undoes the most recent union that has not already been undone.
+     *
+     * @throws IllegalStateException if there is no union to undo
+     */
+    public void undo() throws IllegalStateException {
+        if (historySize == 0)
+            throw new IllegalStateException("There is no union to undo.");
+
+        int entry = history[--historySize];
+        int child = entry < 0 ? ~entry : entry, root = parent[child];
+        if (entry < 0)
+            rank[root]--;
+        parent[child] = child;
+        numSubsets++;
+    }
+
+    /**
+     * Marks the current state of the forest, so that it can be restored later.
+     *
+     * @return a checkpoint to be passed to {@link #rollback(int)}
+     */
+    public int checkpoint() {
+        return historySize;
+    }
+
+    /**
+     * Undoes every union made since a checkpoint was taken. Checkpoints taken after that one become invalid.
+     *
+     * @param checkpoint a checkpoint returned by {@link #checkpoint()}
+     * @throws IllegalArgumentException if the checkpoint is not valid
+     */
+    public void rollback(int checkpoint) throws IllegalArgumentException {
+        if (checkpoint < 0 || checkpoint > historySize)
+            throw new IllegalArgumentException("The checkpoint is not valid.");
+
+        while (historySize > checkpoint)
+            undo();
+    }
+
+    /**
+     * Gets the number of elements in the disjoint set.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * Gets the number of subsets in the disjoint set.
+     *
+     * @return the number of subsets
+     */
+    public int getNumSubsets() {
+        return numSubsets;
+    }
+
+}
@@ -11,6 +11,8 @@ import java.util.*;
 public abstract class AbstractGraph<V> implements Graph<V> {
 
     Map<V, Set<Edge>> incoming, outgoing;
+    private int numEdges;
+    private final Set<Edge> edgeView;
 
     /**
      * Constructs an empty graph.
@@ -18,6 +20,8 @@ public abstract class AbstractGraph<V> implements Graph<V> {
     public AbstractGraph() {
         this.incoming = new HashMap<>();
         this.outgoing = new HashMap<>();
+        this.numEdges = 0;
+        this.edgeView = new EdgeView();
     }
 
     @Override
@@ -30,9 +34,125 @@ public abstract class AbstractGraph<V> implements Graph<V> {
         return true;
     }
 
+    @Override
+    public boolean addEdges(Collection<? extends Edge> edges) throws IllegalArgumentException {
+        // Validate the whole batch first, so that a bad edge leaves the graph unchanged.
+        for (Edge e : edges) {
+            @SuppressWarnings("unchecked")
+            V source = (V) e.getSource(), target = (V) e.getTarget();
+            if (!(containsVertex(source) && containsVertex(target))) {
+                throw new IllegalArgumentException("Both the source and target vertices must exist in the graph " +
+                        "in order to add an edge between them.");
+            }
+        }
+
+        boolean changed = false;
+        for (Edge e : edges)
+            changed |= insert(e);
+
+        return changed;
+    }
+
+    @Override
+    public boolean removeEdge(V source, V target) {
+        if (!(containsVertex(source) && containsVertex(target)))
+            return false;
+
+        Set<Edge> edges = outgoing.get(source);
+
+        boolean changed = false;
+        for (Iterator<Edge> it = edges.iterator(); it.hasNext(); ) {
+            Edge e = it.next();
+            if (e.getTarget().equals(target)) {
+                it.remove();
+                incoming.get(target).remove(e);
+                edgesChanged(-1);
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    @Override
+    public boolean removeEdge(Edge edge) {
+        return delete(edge);
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        if (!containsVertex(v))
+            return false;
+        Set<Edge> in = incoming.remove(v);
+        Set<Edge> out = outgoing.remove(v);
+
+        for (Edge e : in) {
+            if (!e.getSource().equals(v))
+                outgoing.get(e.getSource()).remove(e);
+        }
+        for (Edge e : out) {
+            if (!e.getTarget().equals(v)) {
+                incoming.get(e.getTarget()).remove(e);
+                edgesChanged(-1);
+            }
+        }
+        edgesChanged(-in.size());
+
+        return true;
+    }
+
+    /**
+     * Adds an edge to the incoming and outgoing sets of its endpoints, which must exist in the graph.
+     *
+     * @param edge the edge to be added
+     * @return true iff the graph did not already contain the edge
+     */
+    boolean insert(Edge edge) {
+        if (!outgoing.get(edge.getSource()).add(edge))
+            return false;
+
+        incoming.get(edge.getTarget()).add(edge);
+        edgesChanged(1);
+        return true;
+    }
+
+    /**
+     * Removes an edge from the incoming and outgoing sets of its endpoints.
+     *
+     * @param edge the edge to be removed
+     * @return true iff the graph contained the edge
+     */
+    boolean delete(Edge edge) {
+        Set<Edge> edges = edge.getSource() == null ? null : outgoing.get(edge.getSource());
+        if (edges == null || !edges.remove(edge))
+            return false;
+
+        incoming.get(edge.getTarget()).remove(edge);
+        edgesChanged(-1);
+        return true;
+    }
+
+    /**
+     * Records a change in the number of edges in the graph.
+     *
+     * @param delta the number of edges added (or, if negative, removed)
+     */
+    void edgesChanged(int delta) {
+        numEdges += delta;
+    }
+
+    /**
+     * Returns the number of edges in the graph, counting an undirected edge once in each direction.
+     *
+     * @return the number of edges in the graph
+     */
+    int edgeCount() {
+        return numEdges;
+    }
+
     @Override
     public Edge getEdge(V source, V target) {
-        if (!(incoming.containsKey(source) && incoming.containsKey(target)))
+        if (!(containsVertex(source) && containsVertex(target)))
             return null;
 
         Set<Edge> edges = outgoing.get(source);
@@ -40,7 +160,7 @@ public abstract class AbstractGraph<V> implements Graph<V> {
             return null;
 
         for (Edge e : edges) {
-            if (e.getTarget() == target)
+            if (e.getTarget().equals(target))
                 return e;
         }
 
@@ -59,17 +179,35 @@ public abstract class AbstractGraph<V> implements Graph<V> {
 
     @Override
     public boolean containsVertex(V v) {
-        return incoming.containsKey(v);
+        return v != null && incoming.containsKey(v);
     }
 
     @Override
     public Set<Edge> edgeSet() {
-        Set<Edge> allEdges = new HashSet<>();
+        return edgeView;
+    }
+
+    @Override
+    public Set<V> vertexSet() {
+        return Collections.unmodifiableSet(incoming.keySet());
+    }
 
-        for (Set<Edge> s : incoming.values())
-            allEdges.addAll(s);
+    @Override
+    public Set<Edge> outgoingEdgesOf(V v) throws IllegalArgumentException {
+        Set<Edge> edges = v == null ? null : outgoing.get(v);
+        if (edges == null)
+            throw new IllegalArgumentException("The vertex must exist in the graph.");
+
+        return Collections.unmodifiableSet(edges);
+    }
 
-        return allEdges;
+    @Override
+    public Set<Edge> incomingEdgesOf(V v) throws IllegalArgumentException {
+        Set<Edge> edges = v == null ? null : incoming.get(v);
+        if (edges == null)
+            throw new IllegalArgumentException("The vertex must exist in the graph.");
+
+        return Collections.unmodifiableSet(edges);
     }
 
     @Override
@@ -84,7 +222,7 @@ public abstract class AbstractGraph<V> implements Graph<V> {
 
     @Override
     public Map<V, Double> shortestPaths(V source) throws IllegalArgumentException {
-        if (!incoming.containsKey(source))
+        if (!containsVertex(source))
             throw new IllegalArgumentException("The source vertex must exist in the graph.");
 
         Map<V, Double> dist = new HashMap<>();
@@ -93,7 +231,7 @@ public abstract class AbstractGraph<V> implements Graph<V> {
         dist.put(source, 0.0);
 
         for (V v : this) {
-            if (v != source)
+            if (!v.equals(source))
                 dist.put(v, Double.MAX_VALUE);
 
             q.add(new LabeledVertex(v, dist.get(v)));
@@ -106,9 +244,13 @@ public abstract class AbstractGraph<V> implements Graph<V> {
                 continue;
 
             for (Edge e : neighbors) {
+                checkWeight(e);
+
+                @SuppressWarnings("unchecked")
                 V v = (V) e.getTarget();
+                Double current = dist.get(v);
                 double alt = dist.get(u.data) + e.getWeight();
-                if (alt < dist.get(v)) {
+                if (current != null && alt < current) {
                     dist.put(v, alt);
                     LabeledVertex updatedVertex = new LabeledVertex(v, alt);
                     q.remove(updatedVertex);
@@ -120,6 +262,171 @@ public abstract class AbstractGraph<V> implements Graph<V> {
         return dist;
     }
 
+    @Override
+    public double shortestDistance(V source, V target) throws IllegalArgumentException {
+        if (!(containsVertex(source) && containsVertex(target)))
+            throw new IllegalArgumentException("Both the source and target vertices must exist in the graph.");
+
+        if (source.equals(target))
+            return 0.0;
+
+        Map<V, Double> forwardDist = new HashMap<>(), backwardDist = new HashMap<>();
+        PriorityQueue<LabeledVertex> forward = new PriorityQueue<>(), backward = new PriorityQueue<>();
+
+        forwardDist.put(source, 0.0);
+        backwardDist.put(target, 0.0);
+        forward.add(new LabeledVertex(source, 0.0));
+        backward.add(new LabeledVertex(target, 0.0));
+
+        // The length of the shortest path found so far through a vertex reached by both searches.
+        double best = Double.MAX_VALUE;
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            // Once the two frontiers together are at least as long as the best path, no shorter path can exist.
+            if (forward.peek().distance + backward.peek().distance >= best)
+                break;
+
+            if (forward.size() <= backward.size())
+                best = expand(forward, forwardDist, backwardDist, best, true);
+            else
+                best = expand(backward, backwardDist, forwardDist, best, false);
+        }
+
+        return best;
+    }
+
+    /**
+     * Settles the next vertex of one side of a bidirectional search.
+     *
+     * @param q         the priority queue of the side being expanded
+     * @param dist      the tentative distances of the side being expanded
+     * @param otherDist the tentative distances of the other side
+     * @param best      the length of the shortest path found so far
+     * @param forward   true if expanding outgoing edges, false if expanding incoming edges
+     * @return the length of the shortest path found so far, after this step
+     */
+    private double expand(PriorityQueue<LabeledVertex> q, Map<V, Double> dist, Map<V, Double> otherDist,
+                          double best, boolean forward) {
+        LabeledVertex u = q.poll();
+        if (u.distance > dist.get(u.data))
+            return best;
+
+        for (Edge e : (forward ? outgoing : incoming).getOrDefault(u.data, Collections.emptySet())) {
+            checkWeight(e);
+
+            @SuppressWarnings("unchecked")
+            V v = (V) (forward ? e.getTarget() : e.getSource());
+            double alt = u.distance + e.getWeight();
+            Double current = dist.get(v);
+            if (current == null || alt < current) {
+                dist.put(v, alt);
+                q.add(new LabeledVertex(v, alt));
+            }
+
+            Double other = otherDist.get(v);
+            if (other != null && alt + other < best)
+                best = alt + other;
+        }
+
+        return best;
+    }
+
+    @Override
+    public double shortestDistance(V source, V target, Heuristic<V> heuristic) throws IllegalArgumentException {
+        if (!(containsVertex(source) && containsVertex(target)))
+            throw new IllegalArgumentException("Both the source and target vertices must exist in the graph.");
+
+        Map<V, Double> dist = new HashMap<>();
+        PriorityQueue<LabeledVertex> q = new PriorityQueue<>();
+
+        dist.put(source, 0.0);
+        q.add(new LabeledVertex(source, heuristic.estimate(source, target)));
+
+        while (!q.isEmpty()) {
+            LabeledVertex u = q.poll();
+            double d = dist.get(u.data);
+            if (u.data.equals(target))
+                return d;
+
+            // Skip stale queue entries; the vertex has since been reached by a shorter path.
+            if (u.distance > d + heuristic.estimate(u.data, target))
+                continue;
+
+            for (Edge e : outgoing.getOrDefault(u.data, Collections.emptySet())) {
+                checkWeight(e);
+
+                @SuppressWarnings("unchecked")
+                V v = (V) e.getTarget();
+                double alt = d + e.getWeight();
+                Double current = dist.get(v);
+                if (current == null || alt < current) {
+                    dist.put(v, alt);
+                    q.add(new LabeledVertex(v, alt + heuristic.estimate(v, target)));
+                }
+            }
+        }
+
+        return Double.MAX_VALUE;
+    }
+
+    /**
+     * Rejects an edge with a negative weight, which the Dijkstra-based searches cannot handle.
+     *
+     * @param e the edge about to be relaxed
+     * @throws IllegalArgumentException if the weight of the edge is negative
+     */
+    private static void checkWeight(Edge e) throws IllegalArgumentException {
+        if (e.getWeight() < 0)
+            throw new IllegalArgumentException("Edge weights must be non-negative; use " +
+                    "SingleSourceShortestPaths.bellmanFord for graphs with negative weights.");
+    }
+
+    /**
+     * A read-only view of the edges of this graph. Every edge belongs to the incoming set of exactly one vertex,
+     * so iterating over those sets visits each edge once, and the size is tracked as edges are added and removed.
+     */
+    private final class EdgeView extends AbstractSet<Edge> {
+
+        @Override
+        public Iterator<Edge> iterator() {
+            Iterator<Set<Edge>> sets = incoming.values().iterator();
+
+            return new Iterator<Edge>() {
+                Iterator<Edge> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && sets.hasNext())
+                        current = sets.next().iterator();
+                    return current.hasNext();
+                }
+
+                @Override
+                public Edge next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return current.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge))
+                return false;
+
+            Object target = ((Edge) o).getTarget();
+            Set<Edge> edges = target == null ? null : incoming.get(target);
+            return edges != null && edges.contains(o);
+        }
+
+    }
+
     private final class LabeledVertex implements Comparable<LabeledVertex> {
 
         V data;
@@ -0,0 +1,260 @@
+package com.rystrauss.graph;
+
+import com.rystrauss.heap.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Class containing algorithms for computing distance matrices between many vertices of a graph.
+ * <p>
+ * Distances are returned as {@code double[][]} matrices. As with {@link Graph#shortestPaths(Object)}, a distance
+ * of {@code Double.MAX_VALUE} means that there is no path between two vertices.
+ *
+ * @author Ryan Strauss
+ */
+public class AllPairsShortestPaths {
+
+    /**
+     * The width of the square tiles processed by the blocked Floyd-Warshall algorithm. A tile of doubles of this
+     * width fits comfortably in the L1 cache.
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    /**
+     * The largest number of entries that a distance matrix stored in a single array can have.
+     */
+    private static final long MAX_MATRIX_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Computes the distances from every source vertex to every target vertex, using the common fork-join pool.
+     *
+     * @param graph   the graph to search; edge weights must be non-negative
+     * @param sources the vertices at which paths start
+     * @param targets the vertices at which paths end
+     * @param <V>     the type of data stored in the vertices of the graph
+     * @return a matrix whose entry {@code [i][j]} is the distance from {@code sources.get(i)} to
+     * {@code targets.get(j)}
+     * @throws IllegalArgumentException if a vertex is not found in the graph or an edge weight is negative
+     * @see #manyToMany(CompactGraph, List, List, ForkJoinPool)
+     */
+    public static <V> double[][] manyToMany(AbstractGraph<V> graph, List<V> sources, List<V> targets)
+            throws IllegalArgumentException {
+        return manyToMany(CompactGraph.of(graph), sources, targets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the distances from every source vertex to every target vertex.
+     * <p>
+     * An independent single-source Dijkstra search is run for every source, and the searches are spread across the
+     * threads of the given pool. Sets of working arrays are kept in a pool local to the call and reused from one
+     * search to the next, resetting only the entries that a search touched, so the cost of a search does not include
+     * clearing O(V) state. No more sets are created than there are searches running at once, and all of them are
+     * released when the method returns.
+     *
+     * @param graph   the graph to search; edge weights must be non-negative
+     * @param sources the vertices at which paths start
+     * @param targets the vertices at which paths end
+     * @param pool    the pool in which to run the searches
+     * @param <V>     the type of data stored in the vertices of the graph
+     * @return a matrix whose entry {@code [i][j]} is the distance from {@code sources.get(i)} to
+     * {@code targets.get(j)}
+     * @throws IllegalArgumentException if a vertex is not found in the graph or an edge weight is negative
+     */
+    public static <V> double[][] manyToMany(CompactGraph<V> graph, List<V> sources, List<V> targets,
+                                            ForkJoinPool pool) throws IllegalArgumentException {
+        for (double w : graph.weights) {
+            if (w < 0)
+                throw new IllegalArgumentException("Edge weights must be non-negative.");
+        }
+
+        int[] sourceIndices = new int[sources.size()];
+        int[] targetIndices = new int[targets.size()];
+        for (int i = 0; i < sourceIndices.length; i++)
+            sourceIndices[i] = graph.indexOf(sources.get(i));
+        for (int j = 0; j < targetIndices.length; j++)
+            targetIndices[j] = graph.indexOf(targets.get(j));
+
+        double[][] distances = new double[sourceIndices.length][];
+        Queue<Search> idle = new ConcurrentLinkedQueue<>();
+
+        pool.submit(() -> IntStream.range(0, sourceIndices.length).parallel().forEach(i -> {
+            Search search = idle.poll();
+            if (search == null)
+                search = new Search(graph);
+            search.run(sourceIndices[i], targetIndices);
+
+            double[] row = new double[targetIndices.length];
+            for (int j = 0; j < targetIndices.length; j++)
+                row[j] = search.dist[targetIndices[j]];
+            distances[i] = row;
+
+            search.reset();
+            idle.add(search);
+        })).join();
+
+        return distances;
+    }
+
+    /**
+     * The Floyd-Warshall algorithm for computing the distances between all pairs of vertices.
+     * <p>
+     * This runs in O(V^3) time and O(V^2) space, so it is only suitable for small graphs, but it is often faster
+     * than repeated Dijkstra searches on dense graphs and it supports negative edge weights. The matrix is processed
+     * in cache-sized tiles, and the tiles of each round that do not depend on one another are processed in parallel.
+     *
+     * @param graph the graph to search; must not contain a negative cycle
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return a matrix whose entry {@code [i][j]} is the distance from the vertex with index {@code i} to the
+     * vertex with index {@code j}, where indices are those of {@code graph}
+     * @throws IllegalArgumentException if the graph has too many vertices for the matrix to fit in an array
+     */
+    public static <V> double[][] floydWarshall(CompactGraph<V> graph) throws IllegalArgumentException {
+        int n = graph.vertexCount();
+        if ((long) n * n > MAX_MATRIX_SIZE)
+            throw new IllegalArgumentException("The graph has too many vertices for a " + n + " x " + n +
+                    " distance matrix.");
+
+        double[] d = new double[n * n];
+        Arrays.fill(d, Double.MAX_VALUE);
+
+        for (int u = 0; u < n; u++) {
+            d[u * n + u] = 0.0;
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                int v = graph.targets[j];
+                d[u * n + v] = Math.min(d[u * n + v], graph.weights[j]);
+            }
+        }
+
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        for (int k = 0; k < blocks; k++) {
+            final int kb = k;
+
+            // Phase 1: the diagonal tile depends only on itself.
+            relaxBlock(d, n, kb, kb, kb);
+
+            // Phase 2: the tiles in the same row or column as the diagonal tile depend only on it.
+            IntStream.range(0, blocks).parallel().filter(b -> b != kb).forEach(b -> {
+                relaxBlock(d, n, kb, b, kb);
+                relaxBlock(d, n, b, kb, kb);
+            });
+
+            // Phase 3: every remaining tile depends only on the tiles from phase 2.
+            IntStream.range(0, blocks * blocks).parallel().forEach(ij -> {
+                int ib = ij / blocks, jb = ij % blocks;
+                if (ib != kb && jb != kb)
+                    relaxBlock(d, n, ib, jb, kb);
+            });
+        }
+
+        double[][] distances = new double[n][];
+        for (int i = 0; i < n; i++)
+            distances[i] = Arrays.copyOfRange(d, i * n, (i + 1) * n);
+
+        return distances;
+    }
+
+    /**
+     * Relaxes the tile at block row {@code ib} and block column {@code jb} through every intermediate vertex in
+     * block {@code kb}.
+     */
+    private static void relaxBlock(double[] d, int n, int ib, int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * BLOCK_SIZE);
+        int jStart = jb * BLOCK_SIZE, jEnd = Math.min(n, jStart + BLOCK_SIZE);
+        int kEnd = Math.min(n, (kb + 1) * BLOCK_SIZE);
+
+        for (int k = kb * BLOCK_SIZE; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * BLOCK_SIZE; i < iEnd; i++) {
+                int iRow = i * n;
+                double ik = d[iRow + k];
+                if (ik == Double.MAX_VALUE)
+                    continue;
+
+                for (int j = jStart; j < jEnd; j++) {
+                    double kj = d[kRow + j];
+                    if (kj != Double.MAX_VALUE && ik + kj < d[iRow + j])
+                        d[iRow + j] = ik + kj;
+                }
+            }
+        }
+    }
+
+    /**
+     * The reusable working state of a single-source Dijkstra search.
+     */
+    private static final class Search {
+
+        final CompactGraph<?> graph;
+        final double[] dist;
+        final boolean[] isTarget;
+        final IndexedMinHeap q;
+        int[] touched;
+        int numTouched;
+
+        Search(CompactGraph<?> graph) {
+            this.graph = graph;
+            this.dist = new double[graph.vertexCount()];
+            this.isTarget = new boolean[graph.vertexCount()];
+            this.q = new IndexedMinHeap(graph.vertexCount());
+            this.touched = new int[16];
+            Arrays.fill(dist, Double.MAX_VALUE);
+        }
+
+        /**
+         * Runs the search from {@code source}, stopping once every target has been settled.
+         */
+        void run(int source, int[] targets) {
+            int remaining = 0;
+            for (int t : targets) {
+                if (!isTarget[t]) {
+                    isTarget[t] = true;
+                    remaining++;
+                }
+            }
+
+            dist[source] = 0.0;
+            touch(source);
+            q.push(source, 0.0);
+
+            while (!q.isEmpty() && remaining > 0) {
+                int u = q.pop();
+                if (isTarget[u])
+                    remaining--;
+
+                for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                    int v = graph.targets[j];
+                    double alt = dist[u] + graph.weights[j];
+                    if (alt < dist[v]) {
+                        if (dist[v] == Double.MAX_VALUE)
+                            touch(v);
+                        dist[v] = alt;
+                        q.pushOrDecrease(v, alt);
+                    }
+                }
+            }
+
+            for (int t : targets)
+                isTarget[t] = false;
+        }
+
+        void touch(int v) {
+            if (numTouched == touched.length)
+                touched = Arrays.copyOf(touched, 2 * touched.length);
+            touched[numTouched++] = v;
+        }
+
+        void reset() {
+            for (int i = 0; i < numTouched; i++)
+                dist[touched[i]] = Double.MAX_VALUE;
+            numTouched = 0;
+            q.clear();
+        }
+
+    }
+
+}
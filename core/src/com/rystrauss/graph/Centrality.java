@@ -0,0 +1,294 @@
+package com.rystrauss.graph;
+
+import com.rystrauss.heap.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Class containing algorithms for measuring the importance of the vertices of a graph.
+ * <p>
+ * The algorithms operate on the int-indexed {@link CompactGraph}, keep their state in primitive arrays, and spread
+ * their work across the common fork-join pool.
+ *
+ * @author Ryan Strauss
+ */
+public class Centrality {
+
+    /**
+     * The default probability that the random surfer follows an edge rather than jumping to a random vertex.
+     */
+    public static final double DEFAULT_DAMPING = 0.85;
+
+    /**
+     * The default total change in rank, summed over all vertices, below which PageRank is considered converged.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+
+    /**
+     * The default maximum number of PageRank iterations.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    /**
+     * Computes the PageRank of every vertex of a graph, using the default parameters.
+     *
+     * @param graph the graph to analyze
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return a map from each vertex to its PageRank; the ranks sum to 1
+     * @see #pageRank(CompactGraph, double, double, int)
+     */
+    public static <V> Map<V, Double> pageRank(AbstractGraph<V> graph) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        return toMap(g, pageRank(g, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS));
+    }
+
+    /**
+     * Computes the PageRank of every vertex of a graph by power iteration.
+     * <p>
+     * Each iteration is pull-based: every vertex sums the contributions of its in-neighbors from the previous
+     * iteration, so each vertex is written by exactly one thread and no synchronization is needed. Two rank arrays
+     * are swapped between iterations. The rank of vertices with no outgoing edges is spread evenly over all
+     * vertices.
+     *
+     * @param graph         the graph to analyze
+     * @param damping       the probability of following an edge rather than jumping to a random vertex
+     * @param tolerance     the total change in rank below which iteration stops
+     * @param maxIterations the maximum number of iterations
+     * @return the PageRank of every vertex, indexed by vertex; the ranks sum to 1
+     * @throws IllegalArgumentException if {@code damping} is not in {@code [0, 1]}
+     */
+    public static double[] pageRank(CompactGraph<?> graph, double damping, double tolerance, int maxIterations)
+            throws IllegalArgumentException {
+        if (damping < 0 || damping > 1)
+            throw new IllegalArgumentException("The damping factor must be between 0 and 1.");
+
+        int n = graph.vertexCount();
+        if (n == 0)
+            return new double[0];
+
+        CompactGraph<?> reverse = graph.reverse();
+        int[] outDegree = new int[n];
+        for (int u = 0; u < n; u++)
+            outDegree[u] = graph.degree(u);
+
+        double[] rank = new double[n], next = new double[n], contribution = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            final double[] current = rank;
+
+            double dangling = IntStream.range(0, n).parallel().mapToDouble(u -> {
+                if (outDegree[u] == 0) {
+                    contribution[u] = 0.0;
+                    return current[u];
+                }
+                contribution[u] = current[u] / outDegree[u];
+                return 0.0;
+            }).sum();
+
+            double base = (1 - damping) / n + damping * dangling / n;
+            final double[] updated = next;
+
+            double change = IntStream.range(0, n).parallel().mapToDouble(v -> {
+                double sum = 0.0;
+                for (int j = reverse.offsets[v]; j < reverse.offsets[v + 1]; j++)
+                    sum += contribution[reverse.targets[j]];
+                updated[v] = base + damping * sum;
+                return Math.abs(updated[v] - current[v]);
+            }).sum();
+
+            next = rank;
+            rank = updated;
+
+            if (change < tolerance)
+                break;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Computes the degree centrality of every vertex of a graph: the fraction of the other vertices that it has
+     * an edge to.
+     *
+     * @param graph the graph to analyze
+     * @return the degree centrality of every vertex, indexed by vertex
+     */
+    public static double[] degreeCentrality(CompactGraph<?> graph) {
+        int n = graph.vertexCount();
+        double[] centrality = new double[n];
+        double scale = n > 1 ? 1.0 / (n - 1) : 0.0;
+
+        for (int u = 0; u < n; u++)
+            centrality[u] = graph.degree(u) * scale;
+
+        return centrality;
+    }
+
+    /**
+     * Estimates the betweenness centrality of every vertex of a graph.
+     *
+     * @param graph   the graph to analyze; edge weights must be positive
+     * @param samples the number of source vertices to sample
+     * @param <V>     the type of data stored in the vertices of the graph
+     * @return a map from each vertex to its estimated betweenness centrality
+     * @see #betweenness(CompactGraph, int, long)
+     */
+    public static <V> Map<V, Double> betweenness(AbstractGraph<V> graph, int samples) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        return toMap(g, betweenness(g, samples, new Random().nextLong()));
+    }
+
+    /**
+     * Estimates the betweenness centrality of every vertex of a graph: the number of shortest paths between other
+     * pairs of vertices that pass through it.
+     * <p>
+     * This is Brandes' algorithm, run from a random sample of source vertices instead of all of them, with the
+     * result scaled up by the sampling rate. If {@code samples} is at least the number of vertices, every vertex
+     * is used and the result is exact. The searches from different sources run in parallel, reusing sets of working
+     * arrays from a pool local to the call. No more sets are created than there are searches running at once, and
+     * all of them are released when the method returns. Each set holds its own running totals alongside its
+     * distances, path counts, dependencies, settling order and heap, which comes to about {@code 5n} doubles, so
+     * peak memory grows with the number of threads in the pool.
+     * <p>
+     * Edge weights must be strictly positive. Paths are counted in the order vertices are settled, which a
+     * zero-weight edge can contradict by leading to a vertex that is already settled at the same distance.
+     *
+     * @param graph   the graph to analyze; edge weights must be positive
+     * @param samples the number of source vertices to sample
+     * @param seed    the seed used to choose the sample
+     * @return the estimated betweenness centrality of every vertex, indexed by vertex
+     * @throws IllegalArgumentException if an edge weight is not positive
+     */
+    public static double[] betweenness(CompactGraph<?> graph, int samples, long seed) throws IllegalArgumentException {
+        for (double w : graph.weights) {
+            if (!(w > 0))
+                throw new IllegalArgumentException("Edge weights must be positive.");
+        }
+
+        int n = graph.vertexCount();
+        int[] sources = sample(n, samples, seed);
+        CompactGraph<?> reverse = graph.reverse();
+
+        Queue<Brandes> states = new ConcurrentLinkedQueue<>(), idle = new ConcurrentLinkedQueue<>();
+        IntStream.of(sources).parallel().forEach(s -> {
+            Brandes state = idle.poll();
+            if (state == null) {
+                state = new Brandes(n);
+                states.add(state);
+            }
+            state.run(graph, reverse, s);
+            idle.add(state);
+        });
+
+        double[] centrality = new double[n];
+        double scale = sources.length == 0 ? 0.0 : (double) n / sources.length;
+        for (Brandes state : states) {
+            for (int v = 0; v < n; v++)
+                centrality[v] += state.centrality[v] * scale;
+        }
+
+        return centrality;
+    }
+
+    /**
+     * Chooses {@code k} distinct vertices uniformly at random, or all of them if {@code k >= n}.
+     */
+    private static int[] sample(int n, int k, long seed) {
+        int[] vertices = new int[n];
+        for (int v = 0; v < n; v++)
+            vertices[v] = v;
+        if (k >= n)
+            return vertices;
+
+        // Partial Fisher-Yates shuffle.
+        Random random = new Random(seed);
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int temp = vertices[i];
+            vertices[i] = vertices[j];
+            vertices[j] = temp;
+        }
+        return Arrays.copyOf(vertices, Math.max(0, k));
+    }
+
+    private static <V> Map<V, Double> toMap(CompactGraph<V> graph, double[] values) {
+        Map<V, Double> map = new HashMap<>(2 * values.length);
+        for (int v = 0; v < values.length; v++)
+            map.put(graph.vertexAt(v), values[v]);
+        return map;
+    }
+
+    /**
+     * The working state of Brandes' algorithm, reused by one search after another, along with the centrality those
+     * searches have accumulated.
+     */
+    private static final class Brandes {
+
+        final double[] centrality, dist, sigma, delta;
+        final int[] settled;
+        final IndexedMinHeap q;
+
+        Brandes(int n) {
+            this.centrality = new double[n];
+            this.dist = new double[n];
+            this.sigma = new double[n];
+            this.delta = new double[n];
+            this.settled = new int[n];
+            this.q = new IndexedMinHeap(n);
+            Arrays.fill(dist, Double.MAX_VALUE);
+        }
+
+        void run(CompactGraph<?> graph, CompactGraph<?> reverse, int source) {
+            int numSettled = 0;
+            dist[source] = 0.0;
+            sigma[source] = 1.0;
+            q.push(source, 0.0);
+
+            // Count the shortest paths to every vertex, recording the order in which vertices are settled.
+            while (!q.isEmpty()) {
+                int u = q.pop();
+                settled[numSettled++] = u;
+
+                for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                    int v = graph.targets[j];
+                    double alt = dist[u] + graph.weights[j];
+                    if (alt < dist[v]) {
+                        dist[v] = alt;
+                        sigma[v] = sigma[u];
+                        q.pushOrDecrease(v, alt);
+                    } else if (alt == dist[v] && q.contains(v)) {
+                        sigma[v] += sigma[u];
+                    }
+                }
+            }
+
+            // Accumulate dependencies in reverse order, following shortest-path edges backwards.
+            for (int i = numSettled - 1; i >= 0; i--) {
+                int w = settled[i];
+                for (int j = reverse.offsets[w]; j < reverse.offsets[w + 1]; j++) {
+                    int v = reverse.targets[j];
+                    if (dist[v] != Double.MAX_VALUE && dist[v] + reverse.weights[j] == dist[w] && v != w)
+                        delta[v] += sigma[v] / sigma[w] * (1 + delta[w]);
+                }
+                if (w != source)
+                    centrality[w] += delta[w];
+            }
+
+            for (int i = 0; i < numSettled; i++) {
+                int v = settled[i];
+                dist[v] = Double.MAX_VALUE;
+                sigma[v] = 0.0;
+                delta[v] = 0.0;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.rystrauss.graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, int-indexed snapshot of a graph in compressed sparse row (CSR) form.
+ * <p>
+ * Every vertex is assigned an index in {@code [0, vertexCount())}. The outgoing edges of vertex {@code u} occupy
+ * positions {@code offsets[u]} to {@code offsets[u + 1] - 1} of the {@code targets} and {@code weights} arrays.
+ * This layout avoids the per-edge objects and hash lookups of {@link AbstractGraph}, so the algorithms in this
+ * package convert to it once and then run over primitive arrays.
+ * <p>
+ * An undirected graph is stored with each edge appearing once in each direction.
+ *
+ * @param <V> the type of data stored in the vertices of this graph
+ * @author Ryan Strauss
+ */
+public class CompactGraph<V> {
+
+    final Object[] vertices;
+    final Map<V, Integer> index;
+    final int[] offsets, targets;
+    final double[] weights;
+
+    /**
+     * Constructs a compact graph directly from its arrays. The arrays are not copied.
+     *
+     * @param vertices the vertices, ordered by index
+     * @param index    a map from each vertex to its index
+     * @param offsets  the start of each vertex's edges; has length {@code vertices.length + 1}
+     * @param targets  the target index of each edge
+     * @param weights  the weight of each edge
+     */
+    CompactGraph(Object[] vertices, Map<V, Integer> index, int[] offsets, int[] targets, double[] weights) {
+        this.vertices = vertices;
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Creates a compact snapshot of a graph. Later changes to the graph are not reflected in the snapshot.
+     *
+     * @param graph the graph to be converted
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return a compact snapshot of {@code graph}
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> CompactGraph<V> of(AbstractGraph<V> graph) {
+        // Each vertex's edges are copied out once, so that a graph being modified concurrently (such as a
+        // ConcurrentGraph) cannot change size between counting and filling the arrays.
+        Object[] vertices = graph.outgoing.keySet().toArray();
+        int n = vertices.length;
+        Map<V, Integer> index = new HashMap<>(2 * n);
+        for (int i = 0; i < n; i++)
+            index.put((V) vertices[i], i);
+
+        Edge[][] edges = new Edge[n][];
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            Set<Edge> out = graph.outgoing.get(vertices[u]);
+            edges[u] = out == null ? new Edge[0] : out.toArray(new Edge[0]);
+
+            int degree = 0;
+            for (Edge e : edges[u]) {
+                if (index.containsKey(e.getTarget()))
+                    degree++;
+            }
+            offsets[u + 1] = offsets[u] + degree;
+        }
+
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+
+        for (int u = 0; u < n; u++) {
+            int pos = offsets[u];
+            for (Edge e : edges[u]) {
+                Integer target = index.get(e.getTarget());
+                if (target != null) {
+                    targets[pos] = target;
+                    weights[pos] = e.getWeight();
+                    pos++;
+                }
+            }
+            edges[u] = null;
+        }
+
+        return new CompactGraph<>(vertices, index, offsets, targets, weights);
+    }
+
+    /**
+     * Creates the transpose of this graph (i.e. the same graph with every edge reversed). Vertex indices are
+     * preserved, so results computed on the transpose can be used with this graph directly.
+     *
+     * @return the transpose of this graph
+     */
+    public CompactGraph<V> reverse() {
+        int n = vertices.length;
+        int[] reverseOffsets = new int[n + 1];
+
+        for (int t : targets)
+            reverseOffsets[t + 1]++;
+        for (int u = 0; u < n; u++)
+            reverseOffsets[u + 1] += reverseOffsets[u];
+
+        int[] next = new int[n];
+        System.arraycopy(reverseOffsets, 0, next, 0, n);
+        int[] reverseTargets = new int[targets.length];
+        double[] reverseWeights = new double[weights.length];
+
+        for (int u = 0; u < n; u++) {
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int pos = next[targets[j]]++;
+                reverseTargets[pos] = u;
+                reverseWeights[pos] = weights[j];
+            }
+        }
+
+        return new CompactGraph<>(vertices, index, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices in the graph
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Returns the number of directed edges in the graph. Undirected edges are counted twice.
+     *
+     * @return the number of directed edges in the graph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Retrieves the index of a vertex.
+     *
+     * @param v the vertex whose index will be returned
+     * @return the index of {@code v}
+     * @throws IllegalArgumentException if the vertex is not found in the graph
+     */
+    public int indexOf(V v) {
+        Integer i = index.get(v);
+        if (i == null)
+            throw new IllegalArgumentException("The vertex must exist in the graph.");
+        return i;
+    }
+
+    /**
+     * Retrieves the vertex with the given index.
+     *
+     * @param i the index of the vertex
+     * @return the vertex with index {@code i}
+     */
+    @SuppressWarnings("unchecked")
+    public V vertexAt(int i) {
+        return (V) vertices[i];
+    }
+
+    /**
+     * Returns the set of vertices in the graph.
+     *
+     * @return an unmodifiable view of the vertices in the graph
+     */
+    public Set<V> vertexSet() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * Returns the number of edges leaving a vertex.
+     *
+     * @param u the index of the vertex
+     * @return the out-degree of vertex {@code u}
+     */
+    public int degree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+}
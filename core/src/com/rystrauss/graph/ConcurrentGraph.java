@@ -0,0 +1,212 @@
+package com.rystrauss.graph;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implements a directed graph that can be read while it is being modified.
+ * <p>
+ * The adjacency maps and the per-vertex edge sets are concurrent hash tables, which lock only the bucket being
+ * written. Queries (including all of the algorithms in this package) never take a lock, so they never wait for
+ * writers; they see a weakly consistent view of the graph, in which each edge is either fully present or absent
+ * from a vertex's edge set but concurrent additions may or may not be visible.
+ * <p>
+ * Writers share a lock that is held exclusively only by {@link #removeVertex(Object)} and {@link #snapshot()}, so
+ * that an edge is never added to a vertex that is being removed and a snapshot is a consistent point-in-time copy.
+ * Adding and removing a particular edge also takes one of a fixed set of lock stripes chosen by the edge's hash, so
+ * that an edge's membership in its two edge sets changes atomically with respect to other writers.
+ * <p>
+ * Null vertices are not permitted.
+ *
+ * @param <V> the type of data stored in the vertices of this graph
+ * @author Ryan Strauss
+ */
+public class ConcurrentGraph<V> extends AbstractGraph<V> {
+
+    /**
+     * The number of lock stripes guarding edge membership; a power of two.
+     */
+    private static final int NUM_STRIPES = 64;
+
+    private final AtomicInteger numEdges;
+    private final ReentrantReadWriteLock structureLock;
+    private final Object[] stripes;
+
+    /**
+     * Constructs an empty concurrent graph.
+     */
+    public ConcurrentGraph() {
+        super();
+        this.incoming = new ConcurrentHashMap<>();
+        this.outgoing = new ConcurrentHashMap<>();
+        this.numEdges = new AtomicInteger();
+        this.structureLock = new ReentrantReadWriteLock();
+        this.stripes = new Object[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++)
+            stripes[i] = new Object();
+    }
+
+    /**
+     * Adds the specified vertex to this graph if not already present.
+     *
+     * @param v the vertex to be added to this graph
+     * @return true iff this graph did not already contain the specified vertex
+     * @throws NullPointerException if the vertex is null
+     */
+    @Override
+    public boolean addVertex(V v) throws NullPointerException {
+        if (v == null)
+            throw new NullPointerException("Trying to add null vertex to graph.");
+
+        structureLock.readLock().lock();
+        try {
+            // The outgoing set is published first, since containsVertex checks the incoming map.
+            if (outgoing.putIfAbsent(v, ConcurrentHashMap.newKeySet()) != null)
+                return false;
+            incoming.put(v, ConcurrentHashMap.newKeySet());
+            return true;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Edge addEdge(V source, V target) throws IllegalArgumentException {
+        return addEdge(source, target, Edge.DEFAULT_EDGE_WEIGHT);
+    }
+
+    @Override
+    public Edge addEdge(V source, V target, double weight) throws IllegalArgumentException {
+        structureLock.readLock().lock();
+        try {
+            if (!(containsVertex(source) && containsVertex(target))) {
+                throw new IllegalArgumentException("Both the source and target vertices must exist in the graph " +
+                        "in order to add an edge between them.");
+            }
+
+            Edge edge = new Edge(source, target, weight);
+            insert(edge);
+
+            return edge;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addEdges(Collection<? extends Edge> edges) throws IllegalArgumentException {
+        structureLock.readLock().lock();
+        try {
+            return super.addEdges(edges);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(V source, V target) {
+        structureLock.readLock().lock();
+        try {
+            if (!(containsVertex(source) && containsVertex(target)))
+                return false;
+
+            // Each edge goes through delete, so that it is removed under its stripe.
+            boolean changed = false;
+            for (Edge e : outgoing.get(source)) {
+                if (e.getTarget().equals(target))
+                    changed |= delete(e);
+            }
+
+            return changed;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(Edge edge) {
+        structureLock.readLock().lock();
+        try {
+            return super.removeEdge(edge);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        structureLock.writeLock().lock();
+        try {
+            return super.removeVertex(v);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a compact snapshot of this graph. Writers are held off while the snapshot is taken, so it reflects
+     * the graph at a single point in time; readers are not affected.
+     *
+     * @return a compact snapshot of this graph
+     */
+    public CompactGraph<V> snapshot() {
+        structureLock.writeLock().lock();
+        try {
+            return CompactGraph.of(this);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an edge to the incoming and outgoing sets of its endpoints while holding the edge's stripe. The outgoing
+     * set decides membership, as it does in {@link #delete(Edge)}, and holding the stripe keeps a concurrent removal
+     * of an equal edge from seeing it in only one of the two sets.
+     *
+     * @param edge the edge to be added
+     * @return true iff the graph did not already contain the edge
+     */
+    @Override
+    boolean insert(Edge edge) {
+        synchronized (stripe(edge)) {
+            return super.insert(edge);
+        }
+    }
+
+    /**
+     * Removes an edge from the incoming and outgoing sets of its endpoints while holding the edge's stripe.
+     *
+     * @param edge the edge to be removed
+     * @return true iff the graph contained the edge
+     */
+    @Override
+    boolean delete(Edge edge) {
+        if (edge.getSource() == null || edge.getTarget() == null)
+            return false;
+
+        synchronized (stripe(edge)) {
+            return super.delete(edge);
+        }
+    }
+
+    /**
+     * Returns the lock stripe that guards the membership of edges equal to the given edge.
+     */
+    private Object stripe(Edge edge) {
+        int h = edge.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (NUM_STRIPES - 1)];
+    }
+
+    @Override
+    void edgesChanged(int delta) {
+        numEdges.addAndGet(delta);
+    }
+
+    @Override
+    int edgeCount() {
+        return numEdges.get();
+    }
+
+}
@@ -0,0 +1,269 @@
+package com.rystrauss.graph;
+
+import com.rystrauss.disjointset.ConcurrentIntDisjointSet;
+import com.rystrauss.disjointset.IntDisjointSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Class containing algorithms for analyzing the connectivity of a graph.
+ * <p>
+ * The algorithms operate on the int-indexed {@link CompactGraph} and keep all of their working state in primitive
+ * arrays. None of them are recursive, so they do not overflow the stack on graphs with very long paths.
+ *
+ * @author Ryan Strauss
+ */
+public class Connectivity {
+
+    /**
+     * Finds the strongly connected components of a directed graph.
+     *
+     * @param graph the graph to analyze
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return a list of the strongly connected components, each of which is a list of vertices; components appear
+     * in reverse topological order
+     * @see #stronglyConnectedComponents(CompactGraph)
+     */
+    public static <V> List<List<V>> stronglyConnectedComponents(DirectedGraph<V> graph) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        return group(g, stronglyConnectedComponents(g));
+    }
+
+    /**
+     * Tarjan's algorithm for finding the strongly connected components of a directed graph.
+     * <p>
+     * The depth-first search is driven by an explicit stack rather than recursion. This runs in O(V + E) time.
+     *
+     * @param graph the graph to analyze
+     * @return the component of every vertex, indexed by vertex; components are numbered from {@code 0} in reverse
+     * topological order (i.e. no edge leads from a component to one with a higher number)
+     */
+    public static int[] stronglyConnectedComponents(CompactGraph<?> graph) {
+        int n = graph.vertexCount();
+        int[] index = new int[n], low = new int[n], component = new int[n];
+        int[] stack = new int[n], callStack = new int[n], nextEdge = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+
+        int counter = 0, numComponents = 0, stackSize = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1)
+                continue;
+
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = low[root] = counter++;
+            nextEdge[root] = graph.offsets[root];
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+
+                if (nextEdge[u] < graph.offsets[u + 1]) {
+                    int v = graph.targets[nextEdge[u]++];
+                    if (index[v] == -1) {
+                        // Descend into v, as the recursive version would.
+                        index[v] = low[v] = counter++;
+                        nextEdge[v] = graph.offsets[v];
+                        stack[stackSize++] = v;
+                        onStack[v] = true;
+                        callStack[depth++] = v;
+                    } else if (onStack[v]) {
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                    continue;
+                }
+
+                // All of u's edges have been explored, so return from u.
+                if (low[u] == index[u]) {
+                    int v;
+                    do {
+                        v = stack[--stackSize];
+                        onStack[v] = false;
+                        component[v] = numComponents;
+                    } while (v != u);
+                    numComponents++;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+
+        return component;
+    }
+
+    /**
+     * Finds a topological ordering of a directed acyclic graph.
+     *
+     * @param graph the graph to sort
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return the vertices of the graph, ordered so that every edge goes from an earlier vertex to a later one
+     * @throws IllegalArgumentException if the graph contains a cycle
+     * @see #topologicalSort(CompactGraph)
+     */
+    public static <V> List<V> topologicalSort(DirectedGraph<V> graph) throws IllegalArgumentException {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        int[] order = topologicalSort(g);
+
+        List<V> vertices = new ArrayList<>(order.length);
+        for (int v : order)
+            vertices.add(g.vertexAt(v));
+
+        return vertices;
+    }
+
+    /**
+     * Kahn's algorithm for finding a topological ordering of a directed acyclic graph.
+     * <p>
+     * Vertices with no remaining incoming edges are repeatedly removed from the graph and appended to the order.
+     * This runs in O(V + E) time.
+     *
+     * @param graph the graph to sort
+     * @return the indices of the vertices, ordered so that every edge goes from an earlier vertex to a later one
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public static int[] topologicalSort(CompactGraph<?> graph) throws IllegalArgumentException {
+        int n = graph.vertexCount();
+        int[] inDegree = new int[n];
+        for (int t : graph.targets)
+            inDegree[t]++;
+
+        // The order doubles as the queue: vertices are appended at the tail and processed from the head.
+        int[] order = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0)
+                order[tail++] = v;
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int u = order[head];
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                if (--inDegree[graph.targets[j]] == 0)
+                    order[tail++] = graph.targets[j];
+            }
+        }
+
+        if (tail < n)
+            throw new IllegalArgumentException("The graph contains a cycle, so it has no topological ordering.");
+
+        return order;
+    }
+
+    /**
+     * Finds the weakly connected components of a graph (i.e. the connected components when the direction of the
+     * edges is ignored).
+     *
+     * @param graph the graph to analyze
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return a list of the weakly connected components, each of which is a list of vertices
+     * @see #weaklyConnectedComponents(CompactGraph)
+     */
+    public static <V> List<List<V>> weaklyConnectedComponents(AbstractGraph<V> graph) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        return group(g, weaklyConnectedComponents(g));
+    }
+
+    /**
+     * Finds the weakly connected components of a graph by merging the endpoints of every edge in an
+     * {@link IntDisjointSet}. This runs in O(E &alpha;(V)) time.
+     *
+     * @param graph the graph to analyze
+     * @return the component of every vertex, indexed by vertex; components are numbered from {@code 0}
+     */
+    public static int[] weaklyConnectedComponents(CompactGraph<?> graph) {
+        int n = graph.vertexCount();
+
+        IntDisjointSet forest = new IntDisjointSet(n);
+        for (int u = 0; u < n; u++) {
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++)
+                forest.union(u, graph.targets[j]);
+        }
+
+        int[] root = new int[n];
+        for (int v = 0; v < n; v++)
+            root[v] = forest.find(v);
+        return renumber(root);
+    }
+
+    /**
+     * Finds the weakly connected components of a graph, using all available cores.
+     *
+     * @param graph the graph to analyze
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return a list of the weakly connected components, each of which is a list of vertices
+     * @see #parallelWeaklyConnectedComponents(CompactGraph)
+     */
+    public static <V> List<List<V>> parallelWeaklyConnectedComponents(AbstractGraph<V> graph) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        return group(g, parallelWeaklyConnectedComponents(g));
+    }
+
+    /**
+     * Finds the weakly connected components of a graph, using all available cores. The vertices are divided among
+     * threads, which merge the endpoints of their edges in a shared {@link ConcurrentIntDisjointSet} without
+     * locking. The components are numbered exactly as by {@link #weaklyConnectedComponents(CompactGraph)}.
+     *
+     * @param graph the graph to analyze
+     * @return the component of every vertex, indexed by vertex; components are numbered from {@code 0}
+     */
+    public static int[] parallelWeaklyConnectedComponents(CompactGraph<?> graph) {
+        int n = graph.vertexCount();
+
+        ConcurrentIntDisjointSet forest = new ConcurrentIntDisjointSet(n);
+        IntStream.range(0, n).parallel().forEach(u -> {
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++)
+                forest.union(u, graph.targets[j]);
+        });
+
+        int[] root = new int[n];
+        IntStream.range(0, n).parallel().forEach(v -> root[v] = forest.find(v));
+        return renumber(root);
+    }
+
+    /**
+     * Renumbers the representatives of the vertices densely, in order of first appearance.
+     *
+     * @param root the representative of every vertex; overwritten with the component of every vertex
+     * @return {@code root}
+     */
+    private static int[] renumber(int[] root) {
+        int[] label = new int[root.length];
+        Arrays.fill(label, -1);
+        int numComponents = 0;
+        for (int v = 0; v < root.length; v++) {
+            if (label[root[v]] == -1)
+                label[root[v]] = numComponents++;
+            root[v] = label[root[v]];
+        }
+
+        return root;
+    }
+
+    /**
+     * Groups the vertices of a graph into lists by component.
+     */
+    private static <V> List<List<V>> group(CompactGraph<V> graph, int[] component) {
+        int numComponents = 0;
+        for (int c : component)
+            numComponents = Math.max(numComponents, c + 1);
+
+        List<List<V>> groups = new ArrayList<>(numComponents);
+        for (int c = 0; c < numComponents; c++)
+            groups.add(new ArrayList<>());
+        for (int v = 0; v < component.length; v++)
+            groups.get(component[v]).add(graph.vertexAt(v));
+
+        return groups;
+    }
+
+}
@@ -0,0 +1,441 @@
+package com.rystrauss.graph;
+
+import com.rystrauss.heap.IndexedMinHeap;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A contraction hierarchy is a preprocessed index of a static graph that answers shortest-distance queries
+ * between two vertices far faster than Dijkstra's algorithm.
+ * <p>
+ * During preprocessing, vertices are contracted one at a time in order of importance. Contracting a vertex removes
+ * it from the graph, adding a shortcut edge between two of its neighbors whenever the path through it is the only
+ * shortest path between them (which is checked by a bounded "witness" search). A query is then a bidirectional
+ * Dijkstra search that only follows edges towards more important vertices, so it visits a tiny part of the graph.
+ * <p>
+ * The hierarchy can be saved to disk and loaded back, so that preprocessing only has to be done once. Edge weights
+ * must be non-negative, and later changes to the original graph are not reflected in the hierarchy.
+ *
+ * @param <V> the type of data stored in the vertices of the graph
+ * @author Ryan Strauss
+ */
+public class ContractionHierarchy<V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of vertices settled by a single witness search. A smaller limit makes preprocessing faster
+     * at the cost of adding some unnecessary shortcuts.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final Object[] vertices;
+    private final int[] upOffsets, upTargets, downOffsets, downSources;
+    private final double[] upWeights, downWeights;
+
+    private transient Map<V, Integer> index;
+    private transient Queue<QueryState> idleStates;
+
+    /**
+     * Preprocesses a graph into a contraction hierarchy.
+     *
+     * @param graph the graph to be preprocessed; edge weights must be non-negative
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public ContractionHierarchy(AbstractGraph<V> graph) throws IllegalArgumentException {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        int n = g.vertexCount();
+
+        Adjacency[] out = new Adjacency[n], in = new Adjacency[n];
+        for (int u = 0; u < n; u++) {
+            out[u] = new Adjacency();
+            in[u] = new Adjacency();
+        }
+        for (int u = 0; u < n; u++) {
+            for (int j = g.offsets[u]; j < g.offsets[u + 1]; j++) {
+                if (g.weights[j] < 0)
+                    throw new IllegalArgumentException("Edge weights must be non-negative.");
+                if (u != g.targets[j]) {
+                    out[u].put(g.targets[j], g.weights[j]);
+                    in[g.targets[j]].put(u, g.weights[j]);
+                }
+            }
+        }
+
+        Contractor contractor = new Contractor(out, in);
+        IndexedMinHeap order = new IndexedMinHeap(n);
+        int[] deletedNeighbors = new int[n];
+        for (int v = 0; v < n; v++)
+            order.push(v, contractor.priority(v, deletedNeighbors[v]));
+
+        // The edges of a vertex at the time it is contracted all lead to more important vertices.
+        Adjacency[] up = new Adjacency[n], down = new Adjacency[n];
+
+        while (!order.isEmpty()) {
+            int v = order.pop();
+
+            // Priorities are updated lazily, so recompute and put the vertex back if it is no longer the minimum.
+            double priority = contractor.priority(v, deletedNeighbors[v]);
+            if (!order.isEmpty() && priority > order.peekKey()) {
+                order.push(v, priority);
+                continue;
+            }
+
+            contractor.contract(v);
+            up[v] = out[v];
+            down[v] = in[v];
+            out[v] = null;
+            in[v] = null;
+
+            for (int i = 0; i < up[v].size; i++) {
+                int w = up[v].nodes[i];
+                in[w].remove(v);
+                deletedNeighbors[w]++;
+            }
+            for (int i = 0; i < down[v].size; i++) {
+                int u = down[v].nodes[i];
+                out[u].remove(v);
+                deletedNeighbors[u]++;
+            }
+        }
+
+        this.vertices = g.vertices;
+        this.index = g.index;
+        this.upOffsets = new int[n + 1];
+        this.downOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] = upOffsets[v] + up[v].size;
+            downOffsets[v + 1] = downOffsets[v] + down[v].size;
+        }
+        this.upTargets = new int[upOffsets[n]];
+        this.upWeights = new double[upOffsets[n]];
+        this.downSources = new int[downOffsets[n]];
+        this.downWeights = new double[downOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            System.arraycopy(up[v].nodes, 0, upTargets, upOffsets[v], up[v].size);
+            System.arraycopy(up[v].weights, 0, upWeights, upOffsets[v], up[v].size);
+            System.arraycopy(down[v].nodes, 0, downSources, downOffsets[v], down[v].size);
+            System.arraycopy(down[v].weights, 0, downWeights, downOffsets[v], down[v].size);
+        }
+        this.idleStates = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Finds the shortest distance between two vertices.
+     * <p>
+     * This method is thread-safe. Working arrays are kept in a pool owned by the hierarchy and reused across
+     * queries, so concurrent queries each take their own, and all of them are released with the hierarchy.
+     *
+     * @param source the vertex at which the path starts
+     * @param target the vertex at which the path ends
+     * @return the length of the shortest path from {@code source} to {@code target}, or {@code Double.MAX_VALUE}
+     * if there is no such path
+     * @throws IllegalArgumentException if source or target vertices are not found in the hierarchy
+     */
+    public double shortestDistance(V source, V target) throws IllegalArgumentException {
+        Integer s = index.get(source), t = index.get(target);
+        if (s == null || t == null)
+            throw new IllegalArgumentException("Both the source and target vertices must exist in the hierarchy.");
+
+        QueryState state = idleStates.poll();
+        if (state == null)
+            state = new QueryState(vertices.length);
+        try {
+            state.forwardDist[s] = 0.0;
+            state.backwardDist[t] = 0.0;
+            state.forward.push(s, 0.0);
+            state.backward.push(t, 0.0);
+            state.touch(s);
+            state.touch(t);
+
+            double best = Double.MAX_VALUE;
+            boolean forwardDone = false, backwardDone = false;
+
+            while (!(forwardDone && backwardDone)) {
+                forwardDone = forwardDone || state.forward.isEmpty() || state.forward.peekKey() >= best;
+                if (!forwardDone)
+                    best = state.settle(state.forward, state.forwardDist, state.backwardDist, upOffsets, upTargets,
+                            upWeights, best);
+
+                backwardDone = backwardDone || state.backward.isEmpty() || state.backward.peekKey() >= best;
+                if (!backwardDone)
+                    best = state.settle(state.backward, state.backwardDist, state.forwardDist, downOffsets,
+                            downSources, downWeights, best);
+            }
+
+            return best;
+        } finally {
+            state.reset();
+            idleStates.add(state);
+        }
+    }
+
+    /**
+     * Returns the number of vertices in the hierarchy.
+     *
+     * @return the number of vertices in the hierarchy
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * Writes this hierarchy to a file. The vertices of the graph must be serializable.
+     *
+     * @param path the file to write to
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeObject(this);
+        }
+    }
+
+    /**
+     * Reads a hierarchy that was written with {@link #save(Path)}.
+     *
+     * @param path the file to read from
+     * @param <V>  the type of data stored in the vertices of the graph
+     * @return the hierarchy stored in the file
+     * @throws IOException if the file cannot be read or does not contain a hierarchy
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ContractionHierarchy<V> load(Path path) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return (ContractionHierarchy<V>) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("The file does not contain a contraction hierarchy.", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.index = new HashMap<>(2 * vertices.length);
+        for (int i = 0; i < vertices.length; i++)
+            index.put((V) vertices[i], i);
+        this.idleStates = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * The working state of a query. Distances are reset after each query by walking only the vertices
+     * that were touched, so a query costs time proportional to the part of the hierarchy it explores.
+     */
+    private static final class QueryState {
+
+        final double[] forwardDist, backwardDist;
+        final IndexedMinHeap forward, backward;
+        int[] touched;
+        int numTouched;
+
+        QueryState(int n) {
+            this.forwardDist = new double[n];
+            this.backwardDist = new double[n];
+            Arrays.fill(forwardDist, Double.MAX_VALUE);
+            Arrays.fill(backwardDist, Double.MAX_VALUE);
+            this.forward = new IndexedMinHeap(n);
+            this.backward = new IndexedMinHeap(n);
+            this.touched = new int[16];
+        }
+
+        void touch(int v) {
+            if (numTouched == touched.length)
+                touched = Arrays.copyOf(touched, 2 * touched.length);
+            touched[numTouched++] = v;
+        }
+
+        /**
+         * Settles the next vertex of one side of the search.
+         *
+         * @return the length of the shortest path found so far, after this step
+         */
+        double settle(IndexedMinHeap q, double[] dist, double[] otherDist, int[] offsets, int[] targets,
+                      double[] weights, double best) {
+            int u = q.pop();
+            if (otherDist[u] != Double.MAX_VALUE && dist[u] + otherDist[u] < best)
+                best = dist[u] + otherDist[u];
+
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int v = targets[j];
+                double alt = dist[u] + weights[j];
+                if (alt < dist[v]) {
+                    if (dist[v] == Double.MAX_VALUE && otherDist[v] == Double.MAX_VALUE)
+                        touch(v);
+                    dist[v] = alt;
+                    q.pushOrDecrease(v, alt);
+                }
+            }
+
+            return best;
+        }
+
+        void reset() {
+            for (int i = 0; i < numTouched; i++) {
+                forwardDist[touched[i]] = Double.MAX_VALUE;
+                backwardDist[touched[i]] = Double.MAX_VALUE;
+            }
+            numTouched = 0;
+            forward.clear();
+            backward.clear();
+        }
+
+    }
+
+    /**
+     * Performs witness searches and inserts shortcuts on the remaining (uncontracted) graph.
+     */
+    private static final class Contractor {
+
+        final Adjacency[] out, in;
+        final double[] dist;
+        final IndexedMinHeap q;
+        int[] touched;
+        int numTouched;
+
+        Contractor(Adjacency[] out, Adjacency[] in) {
+            this.out = out;
+            this.in = in;
+            this.dist = new double[out.length];
+            Arrays.fill(dist, Double.MAX_VALUE);
+            this.q = new IndexedMinHeap(out.length);
+            this.touched = new int[16];
+        }
+
+        /**
+         * Computes the contraction priority of a vertex: the number of shortcuts its contraction would add, minus
+         * the number of edges it would remove, plus the number of its neighbors that are already contracted (which
+         * spreads contraction evenly across the graph).
+         */
+        double priority(int v, int deletedNeighbors) {
+            return shortcuts(v, false) - in[v].size - out[v].size + deletedNeighbors;
+        }
+
+        /**
+         * Contracts a vertex by adding the shortcuts it requires.
+         */
+        void contract(int v) {
+            shortcuts(v, true);
+        }
+
+        /**
+         * Counts, and optionally adds, the shortcuts needed to contract a vertex.
+         */
+        private int shortcuts(int v, boolean add) {
+            Adjacency sources = in[v], targets = out[v];
+            double maxOut = 0.0;
+            for (int i = 0; i < targets.size; i++)
+                maxOut = Math.max(maxOut, targets.weights[i]);
+
+            int count = 0;
+            for (int i = 0; i < sources.size; i++) {
+                int u = sources.nodes[i];
+                double viaV = sources.weights[i];
+                witnessSearch(u, v, viaV + maxOut);
+
+                for (int k = 0; k < targets.size; k++) {
+                    int w = targets.nodes[k];
+                    double shortcut = viaV + targets.weights[k];
+                    if (w != u && dist[w] > shortcut) {
+                        count++;
+                        if (add) {
+                            out[u].put(w, shortcut);
+                            in[w].put(u, shortcut);
+                        }
+                    }
+                }
+                resetSearch();
+            }
+
+            return count;
+        }
+
+        /**
+         * Runs a bounded Dijkstra search from {@code source} that avoids {@code avoid}.
+         */
+        private void witnessSearch(int source, int avoid, double maxDist) {
+            dist[source] = 0.0;
+            touch(source);
+            q.push(source, 0.0);
+
+            int settled = 0;
+            while (!q.isEmpty() && settled++ < WITNESS_SETTLE_LIMIT) {
+                if (q.peekKey() > maxDist)
+                    break;
+
+                int u = q.pop();
+                Adjacency edges = out[u];
+                for (int i = 0; i < edges.size; i++) {
+                    int w = edges.nodes[i];
+                    double alt = dist[u] + edges.weights[i];
+                    if (w != avoid && alt < dist[w]) {
+                        if (dist[w] == Double.MAX_VALUE)
+                            touch(w);
+                        dist[w] = alt;
+                        q.pushOrDecrease(w, alt);
+                    }
+                }
+            }
+        }
+
+        private void touch(int v) {
+            if (numTouched == touched.length)
+                touched = Arrays.copyOf(touched, 2 * touched.length);
+            touched[numTouched++] = v;
+        }
+
+        private void resetSearch() {
+            for (int i = 0; i < numTouched; i++)
+                dist[touched[i]] = Double.MAX_VALUE;
+            numTouched = 0;
+            q.clear();
+        }
+
+    }
+
+    /**
+     * A growable list of weighted neighbors, keeping only the lightest edge to each neighbor.
+     */
+    private static final class Adjacency {
+
+        int[] nodes = new int[4];
+        double[] weights = new double[4];
+        int size;
+
+        void put(int node, double weight) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    weights[i] = Math.min(weights[i], weight);
+                    return;
+                }
+            }
+
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+            nodes[size] = node;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int node) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    size--;
+                    nodes[i] = nodes[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,367 @@
+package com.rystrauss.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A flow network built from a graph, in which the weight of every edge is its capacity.
+ * <p>
+ * The network is stored as an array-based residual graph: every edge becomes a forward arc holding its remaining
+ * capacity and a paired backward arc holding the flow that can be cancelled. Two maximum-flow algorithms are
+ * provided, along with the minimum cut found by the most recent computation.
+ *
+ * @param <V> the type of data stored in the vertices of the graph
+ * @author Ryan Strauss
+ */
+public class FlowNetwork<V> {
+
+    private final CompactGraph<V> graph;
+    private final int n;
+    private final int[] offsets, head, mate;
+    private final double[] capacity, residual;
+    private final boolean[] forward;
+
+    private int source = -1, sink = -1;
+
+    /**
+     * Constructs a flow network from a graph. Later changes to the graph are not reflected in the network.
+     *
+     * @param graph the graph whose edge weights are the capacities; weights must be non-negative
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public FlowNetwork(AbstractGraph<V> graph) throws IllegalArgumentException {
+        this.graph = CompactGraph.of(graph);
+        this.n = this.graph.vertexCount();
+
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int j = this.graph.offsets[u]; j < this.graph.offsets[u + 1]; j++) {
+                if (this.graph.weights[j] < 0)
+                    throw new IllegalArgumentException("Edge capacities must be non-negative.");
+                degree[u]++;
+                degree[this.graph.targets[j]]++;
+            }
+        }
+
+        this.offsets = new int[n + 1];
+        for (int u = 0; u < n; u++)
+            offsets[u + 1] = offsets[u] + degree[u];
+
+        int arcs = offsets[n];
+        this.head = new int[arcs];
+        this.mate = new int[arcs];
+        this.capacity = new double[arcs];
+        this.residual = new double[arcs];
+        this.forward = new boolean[arcs];
+
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int j = this.graph.offsets[u]; j < this.graph.offsets[u + 1]; j++) {
+                int v = this.graph.targets[j];
+                int a = next[u]++, b = next[v]++;
+                head[a] = v;
+                head[b] = u;
+                mate[a] = b;
+                mate[b] = a;
+                capacity[a] = this.graph.weights[j];
+                forward[a] = true;
+            }
+        }
+    }
+
+    /**
+     * Dinic's algorithm for computing the maximum flow from a source to a sink.
+     * <p>
+     * Each phase labels vertices by their breadth-first distance from the source in the residual graph, then
+     * saturates every shortest augmenting path with an iterative depth-first search that never revisits a dead
+     * end. This runs in O(V^2 E) time, and much faster on unit-capacity and grid-like networks.
+     *
+     * @param source the vertex at which flow originates
+     * @param sink   the vertex at which flow is absorbed
+     * @return the value of the maximum flow
+     * @throws IllegalArgumentException if either vertex is not found in the network, or they are the same
+     */
+    public double dinic(V source, V sink) throws IllegalArgumentException {
+        reset(source, sink);
+        int s = this.source, t = this.sink;
+
+        int[] level = new int[n], queue = new int[n], current = new int[n], path = new int[n];
+        double total = 0.0;
+
+        while (true) {
+            // Label vertices by their distance from the source.
+            Arrays.fill(level, -1);
+            level[s] = 0;
+            queue[0] = s;
+            for (int qHead = 0, qTail = 1; qHead < qTail; qHead++) {
+                int u = queue[qHead];
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    if (residual[a] > 0 && level[head[a]] == -1) {
+                        level[head[a]] = level[u] + 1;
+                        queue[qTail++] = head[a];
+                    }
+                }
+            }
+            if (level[t] == -1)
+                break;
+
+            // Find a blocking flow, following only arcs that go one level deeper.
+            System.arraycopy(offsets, 0, current, 0, n);
+            int u = s, depth = 0;
+            while (true) {
+                if (u == t) {
+                    double bottleneck = Double.MAX_VALUE;
+                    for (int i = 0; i < depth; i++)
+                        bottleneck = Math.min(bottleneck, residual[path[i]]);
+                    for (int i = 0; i < depth; i++) {
+                        residual[path[i]] -= bottleneck;
+                        residual[mate[path[i]]] += bottleneck;
+                    }
+                    total += bottleneck;
+
+                    // Retreat to the tail of the first saturated arc, keeping the unsaturated prefix of the path.
+                    int k = 0;
+                    while (residual[path[k]] > 0)
+                        k++;
+                    depth = k;
+                    u = head[mate[path[k]]];
+                    continue;
+                }
+
+                int a = current[u];
+                while (a < offsets[u + 1] && !(residual[a] > 0 && level[head[a]] == level[u] + 1))
+                    a++;
+                current[u] = a;
+
+                if (a < offsets[u + 1]) {
+                    path[depth++] = a;
+                    u = head[a];
+                } else {
+                    // Dead end: remove u from the level graph and retreat.
+                    level[u] = -1;
+                    if (depth == 0)
+                        break;
+                    u = head[mate[path[--depth]]];
+                    current[u]++;
+                }
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * The push-relabel algorithm for computing the maximum flow from a source to a sink.
+     * <p>
+     * Active vertices are discharged in FIFO order. Two heuristics keep the number of relabels low: heights are
+     * periodically recomputed exactly by a backward breadth-first search from the sink (global relabeling), and
+     * when no vertex is left at some height, every vertex above it is lifted out of the network at once (the gap
+     * heuristic). Only the first phase of the algorithm is run, which determines the value of the maximum flow and
+     * the minimum cut; the excess left at vertices that cannot reach the sink is not returned to the source.
+     *
+     * @param source the vertex at which flow originates
+     * @param sink   the vertex at which flow is absorbed
+     * @return the value of the maximum flow
+     * @throws IllegalArgumentException if either vertex is not found in the network, or they are the same
+     */
+    public double pushRelabel(V source, V sink) throws IllegalArgumentException {
+        reset(source, sink);
+        int s = this.source, t = this.sink;
+
+        int[] height = new int[n], count = new int[n + 1], current = new int[n], queue = new int[n];
+        double[] excess = new double[n];
+        boolean[] active = new boolean[n];
+        int qHead = 0, qSize = 0;
+
+        globalRelabel(height, count);
+        System.arraycopy(offsets, 0, current, 0, n);
+
+        for (int a = offsets[s]; a < offsets[s + 1]; a++) {
+            double delta = residual[a];
+            if (delta > 0) {
+                int v = head[a];
+                residual[a] = 0.0;
+                residual[mate[a]] += delta;
+                excess[v] += delta;
+                if (v != s && v != t && !active[v] && height[v] < n) {
+                    active[v] = true;
+                    queue[(qHead + qSize++) % n] = v;
+                }
+            }
+        }
+
+        int relabelsSinceGlobal = 0;
+
+        while (qSize > 0) {
+            int u = queue[qHead];
+            qHead = (qHead + 1) % n;
+            qSize--;
+            active[u] = false;
+
+            while (excess[u] > 0 && height[u] < n) {
+                int a = current[u];
+                if (a < offsets[u + 1]) {
+                    int v = head[a];
+                    if (residual[a] > 0 && height[u] == height[v] + 1) {
+                        double delta = Math.min(excess[u], residual[a]);
+                        residual[a] -= delta;
+                        residual[mate[a]] += delta;
+                        excess[u] -= delta;
+                        excess[v] += delta;
+                        if (v != s && v != t && !active[v] && height[v] < n) {
+                            active[v] = true;
+                            queue[(qHead + qSize++) % n] = v;
+                        }
+                    } else {
+                        current[u]++;
+                    }
+                    continue;
+                }
+
+                // No admissible arc is left, so relabel u.
+                int oldHeight = height[u], newHeight = n;
+                for (int b = offsets[u]; b < offsets[u + 1]; b++) {
+                    if (residual[b] > 0)
+                        newHeight = Math.min(newHeight, height[head[b]] + 1);
+                }
+                current[u] = offsets[u];
+                count[oldHeight]--;
+                height[u] = newHeight;
+                count[newHeight]++;
+
+                if (count[oldHeight] == 0) {
+                    // Gap heuristic: nothing above the gap can reach the sink any more.
+                    for (int v = 0; v < n; v++) {
+                        if (height[v] > oldHeight && height[v] < n) {
+                            count[height[v]]--;
+                            height[v] = n;
+                            count[n]++;
+                        }
+                    }
+                }
+
+                if (++relabelsSinceGlobal >= n) {
+                    relabelsSinceGlobal = 0;
+                    globalRelabel(height, count);
+                    System.arraycopy(offsets, 0, current, 0, n);
+                }
+            }
+
+            if (excess[u] > 0 && height[u] < n && !active[u]) {
+                active[u] = true;
+                queue[(qHead + qSize++) % n] = u;
+            }
+        }
+
+        return excess[t];
+    }
+
+    /**
+     * Sets every vertex's height to its exact residual distance to the sink, or to the number of vertices if it
+     * cannot reach the sink.
+     */
+    private void globalRelabel(int[] height, int[] count) {
+        Arrays.fill(height, n);
+        Arrays.fill(count, 0);
+        int[] queue = new int[n];
+        height[sink] = 0;
+        queue[0] = sink;
+
+        for (int qHead = 0, qTail = 1; qHead < qTail; qHead++) {
+            int v = queue[qHead];
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                int u = head[a];
+                if (residual[mate[a]] > 0 && height[u] == n && u != source) {
+                    height[u] = height[v] + 1;
+                    queue[qTail++] = u;
+                }
+            }
+        }
+
+        height[source] = n;
+        for (int v = 0; v < n; v++)
+            count[height[v]]++;
+    }
+
+    /**
+     * Returns the source side of a minimum cut, as found by the most recent maximum-flow computation: the vertices
+     * that can no longer reach the sink in the residual network.
+     *
+     * @return the set of vertices on the source side of the minimum cut
+     * @throws IllegalStateException if no maximum flow has been computed yet
+     */
+    public Set<V> minCut() throws IllegalStateException {
+        boolean[] sinkSide = sinkSide();
+        Set<V> cut = new HashSet<>();
+        for (int v = 0; v < n; v++) {
+            if (!sinkSide[v])
+                cut.add(graph.vertexAt(v));
+        }
+        return cut;
+    }
+
+    /**
+     * Returns the edges of a minimum cut, as found by the most recent maximum-flow computation. Their capacities
+     * sum to the value of the maximum flow. Every crossing arc of the network is listed, so edges with the same
+     * endpoints and capacity are not merged.
+     *
+     * @return the edges that cross from the source side to the sink side of the minimum cut
+     * @throws IllegalStateException if no maximum flow has been computed yet
+     */
+    public List<Edge> minCutEdges() throws IllegalStateException {
+        boolean[] sinkSide = sinkSide();
+        List<Edge> edges = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            if (sinkSide[u])
+                continue;
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                if (forward[a] && sinkSide[head[a]])
+                    edges.add(new Edge(graph.vertexAt(u), graph.vertexAt(head[a]), capacity[a]));
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Finds the vertices that can reach the sink in the residual network.
+     */
+    private boolean[] sinkSide() {
+        if (sink == -1)
+            throw new IllegalStateException("A maximum flow must be computed before the minimum cut.");
+
+        boolean[] reached = new boolean[n];
+        int[] queue = new int[n];
+        reached[sink] = true;
+        queue[0] = sink;
+
+        for (int qHead = 0, qTail = 1; qHead < qTail; qHead++) {
+            int v = queue[qHead];
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                int u = head[a];
+                if (!reached[u] && residual[mate[a]] > 0) {
+                    reached[u] = true;
+                    queue[qTail++] = u;
+                }
+            }
+        }
+
+        return reached;
+    }
+
+    /**
+     * Restores every arc to its full capacity and records the source and sink.
+     */
+    private void reset(V source, V sink) {
+        int s = graph.indexOf(source), t = graph.indexOf(sink);
+        if (s == t)
+            throw new IllegalArgumentException("The source and sink must be different vertices.");
+
+        System.arraycopy(capacity, 0, residual, 0, capacity.length);
+        this.source = s;
+        this.sink = t;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.rystrauss.graph;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -46,6 +47,43 @@ public interface Graph<V> extends Iterable<V> {
      */
     boolean addVertex(V v);
 
+    /**
+     * Adds all of the given edges to this graph. The edge objects themselves are stored, so no new edges are
+     * allocated for a directed graph. If any edge refers to a vertex that is not in this graph, no edges are added.
+     *
+     * @param edges the edges to be added to this graph
+     * @return true iff this graph changed as a result of the call
+     * @throws IllegalArgumentException if the source or target vertex of any edge is not found in the graph
+     */
+    boolean addEdges(Collection<? extends Edge> edges) throws IllegalArgumentException;
+
+    /**
+     * Removes all edges going from the source vertex to the target vertex. If this graph is undirected, edges
+     * going from the target vertex to the source vertex are removed as well.
+     *
+     * @param source source vertex of the edges
+     * @param target target vertex of the edges
+     * @return true iff this graph changed as a result of the call
+     */
+    boolean removeEdge(V source, V target);
+
+    /**
+     * Removes the specified edge from this graph. If this graph is undirected, the edge is removed in both
+     * directions.
+     *
+     * @param edge the edge to be removed
+     * @return true iff this graph contained the specified edge
+     */
+    boolean removeEdge(Edge edge);
+
+    /**
+     * Removes the specified vertex from this graph, along with every edge that touches it.
+     *
+     * @param v the vertex to be removed
+     * @return true iff this graph contained the specified vertex
+     */
+    boolean removeVertex(V v);
+
     /**
      * Returns an edge connecting source vertex to target vertex if such vertices and such edge
      * exist in this graph. Otherwise returns null.
@@ -85,12 +123,41 @@ public interface Graph<V> extends Iterable<V> {
     boolean containsVertex(V v);
 
     /**
-     * Returns a set of the edges contained in this graph.
+     * Returns a set of the edges contained in this graph. The set is a read-only view, so it is not copied and
+     * reflects later changes to the graph.
      *
      * @return a set of the edges contained in this graph
      */
     Set<Edge> edgeSet();
 
+    /**
+     * Returns a set of the vertices contained in this graph. The set is a read-only view, so it is not copied and
+     * reflects later changes to the graph.
+     *
+     * @return a set of the vertices contained in this graph
+     */
+    Set<V> vertexSet();
+
+    /**
+     * Returns a set of the edges leaving the specified vertex. The set is a read-only view, so it is not copied
+     * and reflects later changes to the graph.
+     *
+     * @param v the vertex whose edges will be returned
+     * @return a set of the edges whose source is {@code v}
+     * @throws IllegalArgumentException if the vertex is not found in the graph
+     */
+    Set<Edge> outgoingEdgesOf(V v) throws IllegalArgumentException;
+
+    /**
+     * Returns a set of the edges entering the specified vertex. The set is a read-only view, so it is not copied
+     * and reflects later changes to the graph.
+     *
+     * @param v the vertex whose edges will be returned
+     * @return a set of the edges whose target is {@code v}
+     * @throws IllegalArgumentException if the vertex is not found in the graph
+     */
+    Set<Edge> incomingEdgesOf(V v) throws IllegalArgumentException;
+
     /**
      * Returns the number of vertices in the graph.
      *
@@ -103,13 +170,48 @@ public interface Graph<V> extends Iterable<V> {
      * <p>
      * The algorithm is provided with a source vertex, from which the distance to all other vertices will be computed.
      * <p>
-     * This implementation uses a priority queue.
+     * This implementation uses a priority queue. Edge weights must be non-negative; see
+     * {@link SingleSourceShortestPaths#bellmanFord(AbstractGraph, Object)} for graphs with negative weights.
      *
      * @param source the vertex from which the distance to all other vertices will be computed
      * @return a map of type {@code Map<V, Double>} where the keys are vertices and the values are the
      * distances to the associated vertex
-     * @throws IllegalArgumentException if source vertex is not found in the graph
+     * @throws IllegalArgumentException if source vertex is not found in the graph, or if a negative edge weight
+     *                                  is encountered
      */
     Map<V, Double> shortestPaths(V source) throws IllegalArgumentException;
 
+    /**
+     * Bidirectional Djikstra's algorithm for finding the shortest distance between two vertices in the graph.
+     * <p>
+     * A forward search from the source and a backward search from the target are run in alternation, and the
+     * algorithm stops as soon as the two searches meet on a shortest path. Only the vertices near that path are
+     * visited, rather than the whole graph. Edge weights must be non-negative.
+     *
+     * @param source the vertex at which the path starts
+     * @param target the vertex at which the path ends
+     * @return the length of the shortest path from {@code source} to {@code target}, or {@code Double.MAX_VALUE}
+     * if there is no such path
+     * @throws IllegalArgumentException if source or target vertices are not found in the graph, or if a negative
+     *                                  edge weight is encountered
+     */
+    double shortestDistance(V source, V target) throws IllegalArgumentException;
+
+    /**
+     * A* search for finding the shortest distance between two vertices in the graph.
+     * <p>
+     * Vertices are explored in order of their distance from the source plus the heuristic's estimate of their
+     * distance to the target, and the search stops as soon as the target is reached. Edge weights must be
+     * non-negative.
+     *
+     * @param source    the vertex at which the path starts
+     * @param target    the vertex at which the path ends
+     * @param heuristic an admissible estimate of the distance from a vertex to the target
+     * @return the length of the shortest path from {@code source} to {@code target}, or {@code Double.MAX_VALUE}
+     * if there is no such path
+     * @throws IllegalArgumentException if source or target vertices are not found in the graph, or if a negative
+     *                                  edge weight is encountered
+     */
+    double shortestDistance(V source, V target, Heuristic<V> heuristic) throws IllegalArgumentException;
+
 }
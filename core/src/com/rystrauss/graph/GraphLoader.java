@@ -0,0 +1,546 @@
+package com.rystrauss.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Class for loading large graphs from files directly into {@link CompactGraph} form.
+ * <p>
+ * Building a graph one edge at a time with {@link Graph#addEdge(Object, Object, double)} costs several hash lookups
+ * and an object per edge. The loaders in this class instead parse the file in parallel and build the compact
+ * arrays directly. Vertices are identified by {@code long} ids.
+ * <p>
+ * Two formats are supported:
+ * <ul>
+ * <li>Edge lists: text files with one edge per line, given as a source id, a target id and an optional weight,
+ * separated by whitespace or commas. Blank lines and lines starting with {@code #} or {@code %} are ignored.</li>
+ * <li>A compact binary format, written by {@link #save(CompactGraph, Path)}, which reloads much faster than
+ * parsing text.</li>
+ * </ul>
+ *
+ * @author Ryan Strauss
+ */
+public class GraphLoader {
+
+    private static final int MAGIC = 0x43535247;
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+    private static final int IO_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Loads a graph from an edge-list file.
+     * <p>
+     * The file is split into chunks at line boundaries, and each chunk is memory-mapped and parsed on its own
+     * thread. Vertex ids are then sorted to assign indices, so vertex {@code i} of the result has the
+     * {@code i}-th smallest id.
+     *
+     * @param path     the file to read
+     * @param directed true to create a directed graph, or false to add every edge in both directions
+     * @return the graph stored in the file
+     * @throws IOException if the file cannot be read, contains a malformed line, or has more than
+     *                     {@code Integer.MAX_VALUE / 2} edges
+     */
+    public static CompactGraph<Long> loadEdgeList(Path path, boolean directed) throws IOException {
+        EdgeChunk[] chunks;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            chunks = new EdgeChunk[boundaries.length - 1];
+
+            for (int i = 0; i < chunks.length; i++) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, boundaries[i],
+                        boundaries[i + 1] - boundaries[i]);
+                chunks[i] = new EdgeChunk(buffer);
+            }
+        }
+
+        try {
+            IntStream.range(0, chunks.length).parallel().forEach(i -> chunks[i].parse());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed edge list: " + e.getMessage(), e);
+        }
+
+        // Every edge is stored twice while vertex ids are collected, and twice in the result if undirected.
+        long total = 0;
+        for (EdgeChunk chunk : chunks)
+            total += chunk.size;
+        if (2 * total > Integer.MAX_VALUE)
+            throw new IOException("The edge list has " + total + " edges, but at most " + Integer.MAX_VALUE / 2 +
+                    " are supported.");
+        int m = (int) total;
+
+        long[] sources = new long[m], targets = new long[m];
+        double[] weights = new double[m];
+        int pos = 0;
+        for (EdgeChunk chunk : chunks) {
+            System.arraycopy(chunk.sources, 0, sources, pos, chunk.size);
+            System.arraycopy(chunk.targets, 0, targets, pos, chunk.size);
+            System.arraycopy(chunk.weights, 0, weights, pos, chunk.size);
+            pos += chunk.size;
+        }
+
+        return build(sources, targets, weights, directed);
+    }
+
+    /**
+     * Builds a compact graph from parallel arrays of edges.
+     */
+    private static CompactGraph<Long> build(long[] sources, long[] targets, double[] weights, boolean directed) {
+        int m = sources.length;
+
+        long[] ids = new long[2 * m];
+        System.arraycopy(sources, 0, ids, 0, m);
+        System.arraycopy(targets, 0, ids, m, m);
+        Arrays.parallelSort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1])
+                ids[n++] = ids[i];
+        }
+        long[] uniqueIds = Arrays.copyOf(ids, n);
+
+        int[] sourceIndices = new int[m], targetIndices = new int[m];
+        IntStream.range(0, m).parallel().forEach(i -> {
+            sourceIndices[i] = Arrays.binarySearch(uniqueIds, sources[i]);
+            targetIndices[i] = Arrays.binarySearch(uniqueIds, targets[i]);
+        });
+
+        int numEdges = directed ? m : 2 * m;
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[sourceIndices[i] + 1]++;
+            if (!directed)
+                offsets[targetIndices[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++)
+            offsets[u + 1] += offsets[u];
+
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] edgeTargets = new int[numEdges];
+        double[] edgeWeights = new double[numEdges];
+        for (int i = 0; i < m; i++) {
+            int j = next[sourceIndices[i]]++;
+            edgeTargets[j] = targetIndices[i];
+            edgeWeights[j] = weights[i];
+            if (!directed) {
+                j = next[targetIndices[i]]++;
+                edgeTargets[j] = sourceIndices[i];
+                edgeWeights[j] = weights[i];
+            }
+        }
+
+        return create(uniqueIds, offsets, edgeTargets, edgeWeights);
+    }
+
+    /**
+     * Writes a graph to a file in the compact binary format.
+     * <p>
+     * The vertices are written in ascending order of id, so the graph that is loaded back may number its vertices
+     * differently from {@code graph} (as it always does for graphs built with {@link CompactGraph#of}), but it has
+     * the same vertices and edges.
+     *
+     * @param graph the graph to write
+     * @param path  the file to write to
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(CompactGraph<Long> graph, Path path) throws IOException {
+        int n = graph.vertexCount(), m = graph.edgeCount();
+
+        // order[i] is the index in graph of the vertex with the i-th smallest id, and rank is its inverse.
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++)
+            ids[i] = graph.vertexAt(i);
+        int[] order = IntStream.range(0, n).boxed().sorted(Comparator.comparingLong(i -> ids[i]))
+                .mapToInt(Integer::intValue).toArray();
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++)
+            rank[order[i]] = i;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(n).putInt(m);
+
+            for (int u : order)
+                put(channel, buffer, Long.BYTES).putLong(ids[u]);
+
+            int offset = 0;
+            put(channel, buffer, Integer.BYTES).putInt(offset);
+            for (int u : order) {
+                offset += graph.offsets[u + 1] - graph.offsets[u];
+                put(channel, buffer, Integer.BYTES).putInt(offset);
+            }
+            for (int u : order) {
+                for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++)
+                    put(channel, buffer, Integer.BYTES).putInt(rank[graph.targets[j]]);
+            }
+            for (int u : order) {
+                for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++)
+                    put(channel, buffer, Double.BYTES).putDouble(graph.weights[j]);
+            }
+
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Loads a graph from a file written by {@link #save(CompactGraph, Path)}.
+     *
+     * @param path the file to read
+     * @return the graph stored in the file
+     * @throws IOException if the file cannot be read, is not in the compact binary format, or is corrupt
+     */
+    public static CompactGraph<Long> load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            buffer.flip();
+
+            if (get(channel, buffer, 3 * Integer.BYTES).getInt() != MAGIC)
+                throw new IOException("The file is not in the compact graph format.");
+            int n = buffer.getInt(), m = buffer.getInt();
+
+            // Check the header against the size of the file before allocating anything based on it.
+            long expectedSize = 3L * Integer.BYTES + (long) n * Long.BYTES + (n + 1L) * Integer.BYTES
+                    + (long) m * (Integer.BYTES + Double.BYTES);
+            if (n < 0 || m < 0 || channel.size() != expectedSize)
+                throw new IOException("The compact graph file is corrupt: its header does not match its size.");
+
+            long[] ids = new long[n];
+            int[] offsets = new int[n + 1], targets = new int[m];
+            double[] weights = new double[m];
+
+            for (int i = 0; i < n; i++)
+                ids[i] = get(channel, buffer, Long.BYTES).getLong();
+            for (int i = 0; i <= n; i++)
+                offsets[i] = get(channel, buffer, Integer.BYTES).getInt();
+            for (int i = 0; i < m; i++)
+                targets[i] = get(channel, buffer, Integer.BYTES).getInt();
+            for (int i = 0; i < m; i++)
+                weights[i] = get(channel, buffer, Double.BYTES).getDouble();
+
+            if (offsets[0] != 0 || offsets[n] != m)
+                throw new IOException("The compact graph file is corrupt: invalid edge offsets.");
+            for (int i = 0; i < n; i++) {
+                if (offsets[i] > offsets[i + 1])
+                    throw new IOException("The compact graph file is corrupt: invalid edge offsets.");
+            }
+            for (int target : targets) {
+                if (target < 0 || target >= n)
+                    throw new IOException("The compact graph file is corrupt: edge target out of range.");
+            }
+
+            for (int i = 1; i < n; i++) {
+                if (ids[i - 1] >= ids[i])
+                    throw new IOException("The compact graph file is corrupt: vertex ids are not strictly ascending.");
+            }
+
+            return create(ids, offsets, targets, weights);
+        }
+    }
+
+    /**
+     * Creates a compact graph whose vertices are the given sorted ids.
+     */
+    private static CompactGraph<Long> create(long[] ids, int[] offsets, int[] targets, double[] weights) {
+        return new CompactGraph<>(boxed(ids), new SortedIdIndex(ids), offsets, targets, weights);
+    }
+
+    private static Object[] boxed(long[] ids) {
+        Object[] vertices = new Object[ids.length];
+        for (int i = 0; i < ids.length; i++)
+            vertices[i] = ids[i];
+        return vertices;
+    }
+
+    /**
+     * Ensures that the buffer has room for {@code bytes} more bytes, writing it out if not.
+     */
+    private static ByteBuffer put(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            flush(channel, buffer);
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Ensures that the buffer has at least {@code bytes} unread bytes, reading more of the file if not.
+     */
+    private static ByteBuffer get(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) == -1)
+                    throw new IOException("Unexpected end of file.");
+            }
+            buffer.flip();
+        }
+        return buffer;
+    }
+
+    /**
+     * Splits a file into chunks of roughly equal size, one or more per available processor, with every boundary
+     * falling just after a newline.
+     */
+    private static long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int processors = Runtime.getRuntime().availableProcessors();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / processors + 1));
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(1);
+        long position = chunkSize;
+
+        while (position < size) {
+            // Advance to the byte after the next newline.
+            while (position < size) {
+                probe.clear();
+                channel.read(probe, position++);
+                if (probe.get(0) == '\n')
+                    break;
+            }
+            if (position < size)
+                boundaries.add(position);
+            position += chunkSize;
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = boundaries.get(i);
+        return result;
+    }
+
+    /**
+     * The edges parsed from one chunk of an edge-list file.
+     */
+    private static final class EdgeChunk {
+
+        final MappedByteBuffer buffer;
+        long[] sources = new long[1024], targets = new long[1024];
+        double[] weights = new double[1024];
+        int size;
+
+        EdgeChunk(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void parse() {
+            int limit = buffer.limit();
+            int pos = 0;
+
+            while (pos < limit) {
+                pos = skipBlanks(pos, limit);
+                if (pos >= limit)
+                    break;
+
+                byte b = buffer.get(pos);
+                if (b == '\n' || b == '\r' || b == '#' || b == '%') {
+                    pos = nextLine(pos, limit);
+                    continue;
+                }
+
+                int start = pos;
+                long source, target;
+                double weight = Edge.DEFAULT_EDGE_WEIGHT;
+
+                pos = parseToken(pos, limit);
+                source = parseLong(start, pos);
+                pos = skipSeparators(pos, limit);
+
+                start = pos;
+                pos = parseToken(pos, limit);
+                if (start == pos)
+                    throw new IllegalArgumentException("an edge must have a source and a target.");
+                target = parseLong(start, pos);
+                pos = skipSeparators(pos, limit);
+
+                start = pos;
+                pos = parseToken(pos, limit);
+                if (start != pos)
+                    weight = parseDouble(start, pos);
+
+                add(source, target, weight);
+                pos = nextLine(pos, limit);
+            }
+        }
+
+        private void add(long source, long target, double weight) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, 2 * size);
+                targets = Arrays.copyOf(targets, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            weights[size] = weight;
+            size++;
+        }
+
+        private int skipBlanks(int pos, int limit) {
+            while (pos < limit && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t'))
+                pos++;
+            return pos;
+        }
+
+        private int skipSeparators(int pos, int limit) {
+            while (pos < limit && isSeparator(buffer.get(pos)))
+                pos++;
+            return pos;
+        }
+
+        private int parseToken(int pos, int limit) {
+            while (pos < limit && !isSeparator(buffer.get(pos)) && buffer.get(pos) != '\n'
+                    && buffer.get(pos) != '\r')
+                pos++;
+            return pos;
+        }
+
+        private int nextLine(int pos, int limit) {
+            while (pos < limit && buffer.get(pos) != '\n')
+                pos++;
+            return pos + 1;
+        }
+
+        private boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == ',';
+        }
+
+        private long parseLong(int start, int end) {
+            boolean negative = buffer.get(start) == '-';
+            int i = negative ? start + 1 : start;
+            if (i == end)
+                throw new IllegalArgumentException("expected a vertex id.");
+
+            // Accumulate negatively, since Long.MIN_VALUE has no positive counterpart.
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9)
+                    throw new IllegalArgumentException("vertex ids must be integers.");
+                if (value < (Long.MIN_VALUE + digit) / 10)
+                    throw new IllegalArgumentException("vertex ids must fit in a long.");
+                value = 10 * value - digit;
+            }
+
+            if (negative)
+                return value;
+            if (value == Long.MIN_VALUE)
+                throw new IllegalArgumentException("vertex ids must fit in a long.");
+            return -value;
+        }
+
+        private double parseDouble(int start, int end) {
+            // Plain decimals are parsed in place; anything else (e.g. exponents) falls back to the JDK.
+            boolean negative = buffer.get(start) == '-';
+            int i = negative || buffer.get(start) == '+' ? start + 1 : start;
+            long mantissa = 0;
+            int scale = 0, digits = 0;
+            boolean fraction = false;
+
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && !fraction) {
+                    fraction = true;
+                } else if (b >= '0' && b <= '9' && digits < 18) {
+                    mantissa = 10 * mantissa + (b - '0');
+                    digits++;
+                    if (fraction)
+                        scale++;
+                } else {
+                    byte[] token = new byte[end - start];
+                    for (int k = 0; k < token.length; k++)
+                        token[k] = buffer.get(start + k);
+                    try {
+                        return Double.parseDouble(new String(token));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("edge weights must be numbers.");
+                    }
+                }
+            }
+
+            if (digits == 0)
+                throw new IllegalArgumentException("edge weights must be numbers.");
+
+            double value = scale == 0 ? mantissa : mantissa / Math.pow(10, scale);
+            return negative ? -value : value;
+        }
+
+    }
+
+    /**
+     * A read-only map from vertex ids to indices, backed by a sorted array of ids so that it takes no more
+     * memory than the ids themselves.
+     */
+    private static final class SortedIdIndex extends AbstractMap<Long, Integer> {
+
+        final long[] ids;
+
+        SortedIdIndex(long[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            if (!(key instanceof Long))
+                return null;
+            int i = Arrays.binarySearch(ids, (Long) key);
+            return i >= 0 ? i : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public Set<Entry<Long, Integer>> entrySet() {
+            return new AbstractSet<Entry<Long, Integer>>() {
+                @Override
+                public Iterator<Entry<Long, Integer>> iterator() {
+                    return new Iterator<Entry<Long, Integer>>() {
+                        int i = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < ids.length;
+                        }
+
+                        @Override
+                        public Entry<Long, Integer> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            Entry<Long, Integer> entry = new SimpleImmutableEntry<>(ids[i], i);
+                            i++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ids.length;
+                }
+            };
+        }
+
+    }
+
+}
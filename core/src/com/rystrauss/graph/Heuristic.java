@@ -0,0 +1,25 @@
+package com.rystrauss.graph;
+
+/**
+ * A heuristic estimates the distance between two vertices of a graph, and is used to guide A* search.
+ * <p>
+ * For A* to return the shortest distance, the heuristic must be admissible, meaning that it never overestimates
+ * the true distance. A common example is the straight-line distance between the locations of two vertices in a
+ * road network.
+ *
+ * @param <V> the type of data stored in the vertices of the graph
+ * @author Ryan Strauss
+ */
+@FunctionalInterface
+public interface Heuristic<V> {
+
+    /**
+     * Estimates the distance from one vertex to another.
+     *
+     * @param v      the vertex whose distance is being estimated
+     * @param target the vertex being searched for
+     * @return a lower bound on the distance from {@code v} to {@code target}
+     */
+    double estimate(V v, V target);
+
+}
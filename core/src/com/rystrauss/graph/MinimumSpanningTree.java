@@ -0,0 +1,195 @@
+package com.rystrauss.graph;
+
+import com.rystrauss.disjointset.IntDisjointSet;
+import com.rystrauss.heap.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Class containing algorithms for finding a minimum spanning tree of an undirected graph.
+ * <p>
+ * If the graph is not connected, each algorithm returns a minimum spanning forest (i.e. a minimum spanning tree
+ * for every connected component). All three algorithms produce a spanning forest of the same total weight; when
+ * several edges have equal weight, the particular edges chosen may differ.
+ * <p>
+ * Kruskal's algorithm is usually the fastest on sparse graphs, Prim's algorithm on dense graphs, and Boruvka's
+ * algorithm scales best with the number of available cores.
+ *
+ * @author Ryan Strauss
+ */
+public class MinimumSpanningTree {
+
+    /**
+     * Kruskal's algorithm for finding a minimum spanning forest.
+     * <p>
+     * The edges are sorted by weight with a parallel sort, then added in order whenever they connect two different
+     * trees of the forest, which is tracked by an {@link IntDisjointSet}. This runs in O(E log E) time.
+     *
+     * @param graph the graph whose minimum spanning forest will be found
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return the set of edges in the minimum spanning forest
+     */
+    public static <V> Set<Edge> kruskal(UndirectedGraph<V> graph) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        int n = g.vertexCount();
+
+        // Each undirected edge is stored in both directions, so keep only one of them.
+        Edge[] edges = new Edge[g.edgeCount() / 2];
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            for (int j = g.offsets[u]; j < g.offsets[u + 1]; j++) {
+                if (u < g.targets[j])
+                    edges[m++] = new Edge(u, g.targets[j], g.weights[j]);
+            }
+        }
+        Arrays.parallelSort(edges, 0, m);
+
+        IntDisjointSet forest = new IntDisjointSet(n);
+        Set<Edge> tree = new HashSet<>();
+
+        for (int i = 0; i < m && tree.size() < n - 1; i++) {
+            if (forest.union((Integer) edges[i].getSource(), (Integer) edges[i].getTarget())) {
+                tree.add(toEdge(g, (Integer) edges[i].getSource(), (Integer) edges[i].getTarget(),
+                        edges[i].getWeight()));
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * Prim's algorithm for finding a minimum spanning forest.
+     * <p>
+     * A single tree is grown from a starting vertex by repeatedly adding the lightest edge that leaves it. The
+     * candidate edges are kept in an {@link IndexedMinHeap} keyed by vertex, so each vertex is in the heap at most
+     * once. This runs in O(E log V) time.
+     *
+     * @param graph the graph whose minimum spanning forest will be found
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return the set of edges in the minimum spanning forest
+     */
+    public static <V> Set<Edge> prim(UndirectedGraph<V> graph) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        int n = g.vertexCount();
+
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        boolean[] inTree = new boolean[n];
+        int[] parent = new int[n];
+        Set<Edge> tree = new HashSet<>();
+
+        for (int start = 0; start < n; start++) {
+            if (inTree[start])
+                continue;
+
+            parent[start] = -1;
+            heap.push(start, 0.0);
+
+            while (!heap.isEmpty()) {
+                double weight = heap.peekKey();
+                int u = heap.pop();
+                inTree[u] = true;
+                if (parent[u] != -1)
+                    tree.add(toEdge(g, parent[u], u, weight));
+
+                for (int j = g.offsets[u]; j < g.offsets[u + 1]; j++) {
+                    int v = g.targets[j];
+                    if (!inTree[v] && heap.pushOrDecrease(v, g.weights[j]))
+                        parent[v] = u;
+                }
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * Boruvka's algorithm for finding a minimum spanning forest.
+     * <p>
+     * In every round, the lightest edge leaving each component is found and all of those edges are added at once,
+     * which at least halves the number of components. The search for the lightest edges is done in parallel over
+     * the vertices, so each round uses all available cores. This runs in O(E log V) time.
+     *
+     * @param graph the graph whose minimum spanning forest will be found
+     * @param <V>   the type of data stored in the vertices of the graph
+     * @return the set of edges in the minimum spanning forest
+     */
+    public static <V> Set<Edge> boruvka(UndirectedGraph<V> graph) {
+        CompactGraph<V> g = CompactGraph.of(graph);
+        int n = g.vertexCount();
+
+        IntDisjointSet forest = new IntDisjointSet(n);
+        int[] component = new int[n];
+        int[] vertexBest = new int[n];
+        int[] componentBest = new int[n];
+        int[] componentBestSource = new int[n];
+        Set<Edge> tree = new HashSet<>();
+
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+
+            for (int u = 0; u < n; u++)
+                component[u] = forest.find(u);
+
+            // The lightest edge leaving each vertex's component; read-only, so it is safe to run in parallel.
+            IntStream.range(0, n).parallel().forEach(u -> {
+                int best = -1;
+                for (int j = g.offsets[u]; j < g.offsets[u + 1]; j++) {
+                    if (component[g.targets[j]] != component[u] && lighter(g, u, j, u, best))
+                        best = j;
+                }
+                vertexBest[u] = best;
+            });
+
+            Arrays.fill(componentBest, -1);
+            for (int u = 0; u < n; u++) {
+                int j = vertexBest[u], c = component[u];
+                if (j != -1 && lighter(g, u, j, componentBestSource[c], componentBest[c])) {
+                    componentBest[c] = j;
+                    componentBestSource[c] = u;
+                }
+            }
+
+            for (int c = 0; c < n; c++) {
+                int j = componentBest[c];
+                if (j == -1)
+                    continue;
+
+                int u = componentBestSource[c], v = g.targets[j];
+                if (forest.union(u, v)) {
+                    tree.add(toEdge(g, u, v, g.weights[j]));
+                    merged = true;
+                }
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * Determines whether the edge at position {@code j} (leaving {@code u}) is lighter than the edge at position
+     * {@code k} (leaving {@code w}). Ties are broken by endpoints, so that every edge has a distinct rank; without
+     * this, Boruvka's algorithm could add a cycle of equal-weight edges.
+     */
+    private static boolean lighter(CompactGraph<?> g, int u, int j, int w, int k) {
+        if (k == -1)
+            return true;
+        if (g.weights[j] != g.weights[k])
+            return g.weights[j] < g.weights[k];
+
+        int a1 = Math.min(u, g.targets[j]), b1 = Math.max(u, g.targets[j]);
+        int a2 = Math.min(w, g.targets[k]), b2 = Math.max(w, g.targets[k]);
+        return a1 != a2 ? a1 < a2 : b1 < b2;
+    }
+
+    /**
+     * Creates an edge between the vertices with the given indices.
+     */
+    private static <V> Edge toEdge(CompactGraph<V> g, int source, int target, double weight) {
+        return new Edge(g.vertexAt(source), g.vertexAt(target), weight);
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.rystrauss.graph;
+
+import com.rystrauss.disjointset.RollbackIntDisjointSet;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Answers connectivity queries about an undirected graph whose edges are added and removed over time, given the
+ * whole sequence of events in advance.
+ * <p>
+ * Events are recorded in order with {@link #addEdge(int, int)}, {@link #removeEdge(int, int)},
+ * {@link #connected(int, int)} and {@link #countComponents()}, and then answered all at once by {@link #solve()}.
+ * Each edge is present for a contiguous range of queries, and that range is stored in the O(log q) nodes of a
+ * segment tree over the queries that cover it. A depth-first walk of the tree then unions the edges of each node
+ * on the way down and undoes them on the way back up, using a {@link RollbackIntDisjointSet}, so the forest at each
+ * leaf describes the graph at the time of that query. For m edge insertions and q queries this takes
+ * O(m log q log n + q log n) time.
+ *
+ * @author Ryan Strauss
+ */
+public class OfflineDynamicConnectivity {
+
+    private final int n;
+    // The endpoints of every edge insertion, the first query it is present for, and the first query it is not
+    // present for (or -1 while it has not been removed).
+    private int[] edgeU, edgeV, edgeStart, edgeEnd;
+    // The most recent earlier insertion of the same edge that is still present, or -1.
+    private int[] previousOpen;
+    private int numEdges;
+    // The vertices of every connectivity query, or -1 for component counting queries.
+    private int[] queryU, queryV;
+    private int numQueries;
+    private final Map<Long, Integer> open;
+
+    /**
+     * Constructs an instance for a graph with vertices {@code 0} to {@code n - 1} and no edges.
+     *
+     * @param n the number of vertices
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public OfflineDynamicConnectivity(int n) throws IllegalArgumentException {
+        if (n < 0)
+            throw new IllegalArgumentException("The number of vertices cannot be negative.");
+
+        this.n = n;
+        this.edgeU = new int[16];
+        this.edgeV = new int[16];
+        this.edgeStart = new int[16];
+        this.edgeEnd = new int[16];
+        this.previousOpen = new int[16];
+        this.queryU = new int[16];
+        this.queryV = new int[16];
+        this.open = new HashMap<>();
+    }
+
+    /**
+     * Adds an undirected edge. An edge may be added more than once, in which case it remains until it has been
+     * removed as many times.
+     *
+     * @param u one endpoint of the edge
+     * @param v the other endpoint of the edge
+     * @throws IllegalArgumentException if either vertex is not between {@code 0} and {@code n - 1}
+     */
+    public void addEdge(int u, int v) throws IllegalArgumentException {
+        checkVertex(u);
+        checkVertex(v);
+
+        if (numEdges == edgeU.length) {
+            int capacity = 2 * numEdges;
+            edgeU = Arrays.copyOf(edgeU, capacity);
+            edgeV = Arrays.copyOf(edgeV, capacity);
+            edgeStart = Arrays.copyOf(edgeStart, capacity);
+            edgeEnd = Arrays.copyOf(edgeEnd, capacity);
+            previousOpen = Arrays.copyOf(previousOpen, capacity);
+        }
+
+        int e = numEdges++;
+        edgeU[e] = u;
+        edgeV[e] = v;
+        edgeStart[e] = numQueries;
+        edgeEnd[e] = -1;
+        Integer previous = open.put(key(u, v), e);
+        previousOpen[e] = previous == null ? -1 : previous;
+    }
+
+    /**
+     * Removes an undirected edge.
+     *
+     * @param u one endpoint of the edge
+     * @param v the other endpoint of the edge
+     * @throws IllegalArgumentException if the graph does not contain the edge
+     */
+    public void removeEdge(int u, int v) throws IllegalArgumentException {
+        long key = key(u, v);
+        Integer e = open.get(key);
+        if (e == null)
+            throw new IllegalArgumentException("The graph does not contain the edge.");
+
+        edgeEnd[e] = numQueries;
+        if (previousOpen[e] == -1)
+            open.remove(key);
+        else
+            open.put(key, previousOpen[e]);
+    }
+
+    /**
+     * Records a query of whether two vertices are connected, given the edges added and removed so far.
+     *
+     * @param u a vertex
+     * @param v another vertex
+     * @return the index of the query in the array returned by {@link #solve()}, whose entry will be 1 if the
+     * vertices are connected and 0 otherwise
+     * @throws IllegalArgumentException if either vertex is not between {@code 0} and {@code n - 1}
+     */
+    public int connected(int u, int v) throws IllegalArgumentException {
+        checkVertex(u);
+        checkVertex(v);
+        return addQuery(u, v);
+    }
+
+    /**
+     * Records a query of the number of connected components, given the edges added and removed so far.
+     *
+     * @return the index of the query in the array returned by {@link #solve()}, whose entry will be the number of
+     * connected components
+     */
+    public int countComponents() {
+        return addQuery(-1, -1);
+    }
+
+    /**
+     * Answers all of the queries recorded so far.
+     *
+     * @return the answer to every query, indexed in the order the queries were recorded
+     */
+    public int[] solve() {
+        int[] answers = new int[numQueries];
+        if (numQueries == 0)
+            return answers;
+
+        int leaves = Integer.highestOneBit(Math.max(1, numQueries - 1)) << 1;
+        SegmentLists lists = new SegmentLists(2 * leaves);
+
+        // Store each edge in the nodes that together cover exactly the queries it is present for.
+        for (int e = 0; e < numEdges; e++) {
+            int l = edgeStart[e] + leaves, r = (edgeEnd[e] == -1 ? numQueries : edgeEnd[e]) + leaves;
+            for (; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1)
+                    lists.add(l++, e);
+                if ((r & 1) == 1)
+                    lists.add(--r, e);
+            }
+        }
+
+        solve(1, 0, leaves, lists, new RollbackIntDisjointSet(n), answers);
+        return answers;
+    }
+
+    /**
+     * Answers the queries in the range of a node of the segment tree, given a forest containing the edges of its
+     * ancestors.
+     */
+    private void solve(int node, int from, int to, SegmentLists lists, RollbackIntDisjointSet forest,
+                       int[] answers) {
+        if (from >= numQueries)
+            return;
+
+        int checkpoint = forest.checkpoint();
+        for (int i = lists.head[node]; i != -1; i = lists.next[i])
+            forest.union(edgeU[lists.edge[i]], edgeV[lists.edge[i]]);
+
+        if (to - from == 1) {
+            if (queryU[from] == -1)
+                answers[from] = forest.getNumSubsets();
+            else
+                answers[from] = forest.connected(queryU[from], queryV[from]) ? 1 : 0;
+        } else {
+            int mid = (from + to) >>> 1;
+            solve(2 * node, from, mid, lists, forest, answers);
+            solve(2 * node + 1, mid, to, lists, forest, answers);
+        }
+
+        forest.rollback(checkpoint);
+    }
+
+    private int addQuery(int u, int v) {
+        if (numQueries == queryU.length) {
+            queryU = Arrays.copyOf(queryU, 2 * numQueries);
+            queryV = Arrays.copyOf(queryV, 2 * numQueries);
+        }
+
+        queryU[numQueries] = u;
+        queryV[numQueries] = v;
+        return numQueries++;
+    }
+
+    private void checkVertex(int v) throws IllegalArgumentException {
+        if (v < 0 || v >= n)
+            throw new IllegalArgumentException("Vertex " + v + " is not in the graph.");
+    }
+
+    /**
+     * Identifies an undirected edge by its endpoints, in either order.
+     */
+    private static long key(int u, int v) {
+        return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+    }
+
+    /**
+     * A list of edges for every node of a segment tree, stored as linked lists in shared arrays.
+     */
+    private static final class SegmentLists {
+
+        final int[] head;
+        int[] next, edge;
+        int size;
+
+        SegmentLists(int nodes) {
+            this.head = new int[nodes];
+            this.next = new int[16];
+            this.edge = new int[16];
+            Arrays.fill(this.head, -1);
+        }
+
+        void add(int node, int e) {
+            if (size == next.length) {
+                next = Arrays.copyOf(next, 2 * size);
+                edge = Arrays.copyOf(edge, 2 * size);
+            }
+
+            next[size] = head[node];
+            edge[size] = e;
+            head[node] = size++;
+        }
+
+    }
+
+}
@@ -0,0 +1,273 @@
+package com.rystrauss.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Class containing single-source shortest path algorithms that complement {@link Graph#shortestPaths(Object)}.
+ * <p>
+ * The algorithms operate on the int-indexed {@link CompactGraph} and return an array of distances indexed by
+ * vertex. As with {@code shortestPaths}, a distance of {@code Double.MAX_VALUE} means that a vertex cannot be
+ * reached from the source.
+ *
+ * @author Ryan Strauss
+ */
+public class SingleSourceShortestPaths {
+
+    /**
+     * The Bellman-Ford algorithm for finding the shortest paths from a source vertex in a graph that may have
+     * negative edge weights.
+     *
+     * @param graph  the graph to search
+     * @param source the vertex from which the distance to all other vertices will be computed
+     * @param <V>    the type of data stored in the vertices of the graph
+     * @return a map of type {@code Map<V, Double>} where the keys are vertices and the values are the
+     * distances to the associated vertex
+     * @throws IllegalArgumentException if the source vertex is not found in the graph, or if a negative cycle
+     *                                  can be reached from it
+     * @see #bellmanFord(CompactGraph, int)
+     */
+    public static <V> Map<V, Double> bellmanFord(AbstractGraph<V> graph, V source) throws IllegalArgumentException {
+        if (!graph.containsVertex(source))
+            throw new IllegalArgumentException("The source vertex must exist in the graph.");
+
+        CompactGraph<V> g = CompactGraph.of(graph);
+        double[] dist = bellmanFord(g, g.indexOf(source));
+
+        Map<V, Double> distances = new HashMap<>(2 * dist.length);
+        for (int v = 0; v < dist.length; v++)
+            distances.put(g.vertexAt(v), dist[v]);
+
+        return distances;
+    }
+
+    /**
+     * The Bellman-Ford algorithm for finding the shortest paths from a source vertex in a graph that may have
+     * negative edge weights.
+     * <p>
+     * This is the queue-based variant (a.k.a. the shortest path faster algorithm), which only relaxes the edges of
+     * vertices whose distance has changed. It runs in O(VE) time in the worst case, but usually much faster. A
+     * negative cycle is detected when the shortest path to some vertex would need {@code V} or more edges.
+     *
+     * @param graph  the graph to search
+     * @param source the index of the vertex from which the distance to all other vertices will be computed
+     * @return the distance to every vertex, indexed by vertex
+     * @throws IllegalArgumentException if a negative cycle can be reached from the source
+     */
+    public static double[] bellmanFord(CompactGraph<?> graph, int source) throws IllegalArgumentException {
+        int n = graph.vertexCount();
+        double[] dist = new double[n];
+        int[] length = new int[n];
+        boolean[] inQueue = new boolean[n];
+        Arrays.fill(dist, Double.MAX_VALUE);
+
+        // Each vertex is in the queue at most once, so a circular buffer of size n is enough.
+        int[] queue = new int[n];
+        int head = 0, count = 0;
+
+        dist[source] = 0.0;
+        queue[0] = source;
+        inQueue[source] = true;
+        count++;
+
+        while (count > 0) {
+            int u = queue[head];
+            head = (head + 1) % n;
+            count--;
+            inQueue[u] = false;
+
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                int v = graph.targets[j];
+                double alt = dist[u] + graph.weights[j];
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    length[v] = length[u] + 1;
+                    if (length[v] >= n)
+                        throw new IllegalArgumentException("The graph contains a negative cycle reachable " +
+                                "from the source.");
+
+                    if (!inQueue[v]) {
+                        queue[(head + count) % n] = v;
+                        inQueue[v] = true;
+                        count++;
+                    }
+                }
+            }
+        }
+
+        return dist;
+    }
+
+    /**
+     * The delta-stepping algorithm for finding the shortest paths from a source vertex, using the common fork-join
+     * pool. The bucket width is chosen as the maximum edge weight divided by the average degree.
+     *
+     * @param graph  the graph to search; edge weights must be non-negative
+     * @param source the index of the vertex from which the distance to all other vertices will be computed
+     * @return the distance to every vertex, indexed by vertex
+     * @throws IllegalArgumentException if an edge weight is negative
+     * @see #deltaStepping(CompactGraph, int, double)
+     */
+    public static double[] deltaStepping(CompactGraph<?> graph, int source) throws IllegalArgumentException {
+        double maxWeight = 0.0;
+        for (double w : graph.weights)
+            maxWeight = Math.max(maxWeight, w);
+
+        double averageDegree = Math.max(1.0, (double) graph.edgeCount() / Math.max(1, graph.vertexCount()));
+        double delta = maxWeight > 0 ? maxWeight / averageDegree : 1.0;
+
+        return deltaStepping(graph, source, delta);
+    }
+
+    /**
+     * The delta-stepping algorithm for finding the shortest paths from a source vertex, using the common fork-join
+     * pool.
+     * <p>
+     * Vertices are grouped into buckets of width {@code delta} by tentative distance, and all vertices of the
+     * lowest non-empty bucket are relaxed in parallel. Edges lighter than {@code delta} ("light" edges) can put a
+     * vertex back into the current bucket, so they are relaxed repeatedly until the bucket is empty; heavy edges
+     * are relaxed once afterwards. A small {@code delta} behaves like Dijkstra's algorithm, and a large one like
+     * Bellman-Ford.
+     *
+     * @param graph  the graph to search; edge weights must be non-negative
+     * @param source the index of the vertex from which the distance to all other vertices will be computed
+     * @param delta  the width of each bucket; must be positive
+     * @return the distance to every vertex, indexed by vertex
+     * @throws IllegalArgumentException if an edge weight is negative or {@code delta} is not positive
+     */
+    public static double[] deltaStepping(CompactGraph<?> graph, int source, double delta)
+            throws IllegalArgumentException {
+        if (!(delta > 0))
+            throw new IllegalArgumentException("The bucket width must be positive.");
+        for (double w : graph.weights) {
+            if (w < 0)
+                throw new IllegalArgumentException("Edge weights must be non-negative.");
+        }
+
+        int n = graph.vertexCount();
+
+        // Distances are stored as the bits of doubles, so they can be lowered with compare-and-set.
+        AtomicLongArray dist = new AtomicLongArray(n);
+        long infinity = Double.doubleToRawLongBits(Double.MAX_VALUE);
+        for (int v = 0; v < n; v++)
+            dist.set(v, infinity);
+        dist.set(source, Double.doubleToRawLongBits(0.0));
+
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        IntList start = new IntList();
+        start.add(source);
+        buckets.put(0L, start);
+
+        while (!buckets.isEmpty()) {
+            Map.Entry<Long, IntList> entry = buckets.pollFirstEntry();
+            long bucket = entry.getKey();
+            IntList settled = new IntList();
+            int[] frontier = entry.getValue().toArray();
+
+            while (frontier.length > 0) {
+                // Drop vertices that have since moved to a lower bucket, and duplicates.
+                frontier = IntStream.of(frontier)
+                        .filter(v -> bucketOf(dist, v, delta) == bucket)
+                        .distinct()
+                        .toArray();
+                settled.addAll(frontier);
+
+                int[] improved = relax(graph, frontier, dist, delta, true);
+                IntList next = new IntList();
+                for (int v : improved) {
+                    long b = bucketOf(dist, v, delta);
+                    if (b == bucket)
+                        next.add(v);
+                    else
+                        buckets.computeIfAbsent(b, k -> new IntList()).add(v);
+                }
+
+                IntList current = buckets.remove(bucket);
+                if (current != null)
+                    next.addAll(current.toArray());
+                frontier = next.toArray();
+            }
+
+            int[] settledVertices = IntStream.of(settled.toArray()).distinct().toArray();
+            for (int v : relax(graph, settledVertices, dist, delta, false))
+                buckets.computeIfAbsent(bucketOf(dist, v, delta), k -> new IntList()).add(v);
+        }
+
+        double[] distances = new double[n];
+        for (int v = 0; v < n; v++)
+            distances[v] = Double.longBitsToDouble(dist.get(v));
+
+        return distances;
+    }
+
+    /**
+     * Relaxes the light or heavy edges of a set of vertices in parallel.
+     *
+     * @return the vertices whose distance was lowered (possibly with repeats)
+     */
+    private static int[] relax(CompactGraph<?> graph, int[] vertices, AtomicLongArray dist, double delta,
+                               boolean light) {
+        return IntStream.of(vertices).parallel().flatMap(u -> {
+            double du = Double.longBitsToDouble(dist.get(u));
+            IntStream.Builder improved = IntStream.builder();
+
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                if ((graph.weights[j] <= delta) != light)
+                    continue;
+
+                int v = graph.targets[j];
+                double alt = du + graph.weights[j];
+                while (true) {
+                    long current = dist.get(v);
+                    if (alt >= Double.longBitsToDouble(current))
+                        break;
+                    if (dist.compareAndSet(v, current, Double.doubleToRawLongBits(alt))) {
+                        improved.add(v);
+                        break;
+                    }
+                }
+            }
+
+            return improved.build();
+        }).toArray();
+    }
+
+    /**
+     * Returns the index of the bucket that a vertex currently belongs to.
+     */
+    private static long bucketOf(AtomicLongArray dist, int v, double delta) {
+        return (long) (Double.longBitsToDouble(dist.get(v)) / delta);
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntList {
+
+        int[] values = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, 2 * size);
+            values[size++] = value;
+        }
+
+        void addAll(int[] other) {
+            if (size + other.length > values.length)
+                values = Arrays.copyOf(values, Math.max(2 * values.length, size + other.length));
+            System.arraycopy(other, 0, values, size, other.length);
+            size += other.length;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+    }
+
+}
@@ -22,20 +22,48 @@ public class UndirectedGraph<V> extends AbstractGraph<V> {
 
     @Override
     public Edge addEdge(V source, V target, double weight) throws IllegalArgumentException {
-        if (!(incoming.containsKey(source) && incoming.containsKey(target))) {
+        if (!(containsVertex(source) && containsVertex(target))) {
             throw new IllegalArgumentException("Both the source and target vertices must exist in the graph " +
                     "in order to add an edge between them.");
         }
 
-        Edge edge1 = new Edge(source, target, weight);
-        Edge edge2 = new Edge(target, source, weight);
+        Edge edge = new Edge(source, target, weight);
+        insert(edge);
 
-        incoming.get(target).add(edge1);
-        outgoing.get(source).add(edge1);
-        incoming.get(source).add(edge2);
-        outgoing.get(target).add(edge2);
+        return edge;
+    }
+
+    @Override
+    public boolean removeEdge(V source, V target) {
+        boolean forward = super.removeEdge(source, target);
+        boolean backward = super.removeEdge(target, source);
+        return forward || backward;
+    }
+
+    /**
+     * Adds an edge in both directions.
+     *
+     * @param edge the edge to be added
+     * @return true iff the graph did not already contain the edge
+     */
+    @Override
+    boolean insert(Edge edge) {
+        boolean forward = super.insert(edge);
+        boolean backward = super.insert(new Edge(edge.getTarget(), edge.getSource(), edge.getWeight()));
+        return forward || backward;
+    }
 
-        return edge1;
+    /**
+     * Removes an edge in both directions.
+     *
+     * @param edge the edge to be removed
+     * @return true iff the graph contained the edge
+     */
+    @Override
+    boolean delete(Edge edge) {
+        boolean forward = super.delete(edge);
+        boolean backward = super.delete(new Edge(edge.getTarget(), edge.getSource(), edge.getWeight()));
+        return forward || backward;
     }
 
 }
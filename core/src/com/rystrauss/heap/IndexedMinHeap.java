@@ -0,0 +1,255 @@
+package com.rystrauss.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of an indexed min-heap.
+ * <p>
+ * Elements are the integers {@code 0} to {@code capacity - 1}, each of which is associated with a {@code double}
+ * key. Because the heap tracks the position of every element, the key of an element already in the heap can be
+ * decreased in O(log n) time, which is what Dijkstra's and Prim's algorithms need. All state is kept in primitive
+ * arrays, so no objects are allocated after construction.
+ *
+ * @author Ryan Strauss
+ */
+public class IndexedMinHeap {
+
+    private int[] heap, positions;
+    private double[] keys;
+    private int size;
+
+    /**
+     * Constructs an empty heap that can hold the elements {@code 0} to {@code capacity - 1}.
+     *
+     * @param capacity the number of distinct elements the heap can hold
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        this.size = 0;
+        Arrays.fill(this.positions, -1);
+    }
+
+    /**
+     * Given a position i, return the position of the parent node.
+     *
+     * @param i Position to check for the parent node.
+     * @return Position of the parent node.
+     */
+    private int parent(int i) {
+        return (i - 1) / 2;
+    }
+
+    /**
+     * Given a position i, return the position of the left child.
+     *
+     * @param i Position to check for the left child.
+     * @return Position of the left child.
+     */
+    private int leftChild(int i) {
+        return 2 * i + 1;
+    }
+
+    /**
+     * Swap elements at positions pos1 and pos2.
+     *
+     * @param pos1 First position.
+     * @param pos2 Second position (no order implied).
+     */
+    private void swap(int pos1, int pos2) {
+        int temporary = heap[pos1];
+        heap[pos1] = heap[pos2];
+        heap[pos2] = temporary;
+        positions[heap[pos1]] = pos1;
+        positions[heap[pos2]] = pos2;
+    }
+
+    /**
+     * Adds an element to the heap with the given key.
+     *
+     * @param element the element to be added
+     * @param key     the key of the element
+     * @throws IllegalArgumentException if the element is already in the heap
+     */
+    public void push(int element, double key) {
+        if (positions[element] != -1)
+            throw new IllegalArgumentException("The element is already in the heap.");
+
+        heap[size] = element;
+        positions[element] = size;
+        keys[element] = key;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the key of an element that is already in the heap.
+     *
+     * @param element the element whose key will be lowered
+     * @param key     the new key; must not be greater than the current key
+     * @throws IllegalArgumentException if the element is not in the heap or the key would increase
+     */
+    public void decreaseKey(int element, double key) {
+        if (positions[element] == -1)
+            throw new IllegalArgumentException("The element is not in the heap.");
+        if (key > keys[element])
+            throw new IllegalArgumentException("The new key must not be greater than the current key.");
+
+        keys[element] = key;
+        siftUp(positions[element]);
+    }
+
+    /**
+     * Adds an element to the heap, or lowers its key if it is already present and the new key is smaller.
+     *
+     * @param element the element to be added or updated
+     * @param key     the key of the element
+     * @return true iff the heap changed as a result of the call
+     */
+    public boolean pushOrDecrease(int element, double key) {
+        if (positions[element] == -1) {
+            push(element, key);
+            return true;
+        }
+        if (key < keys[element]) {
+            decreaseKey(element, key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes and returns the element with the smallest key.
+     *
+     * @return the element with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int pop() {
+        if (size == 0)
+            throw new NoSuchElementException("The heap is empty.");
+
+        int removed = heap[0];
+        swap(0, --size);
+        positions[removed] = -1;
+        siftDown(0);
+        return removed;
+    }
+
+    /**
+     * Retrieves the element with the smallest key.
+     *
+     * @return the element with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peek() {
+        if (size == 0)
+            throw new NoSuchElementException("The heap is empty.");
+
+        return heap[0];
+    }
+
+    /**
+     * Retrieves the smallest key in the heap.
+     *
+     * @return the key of the element at the head of the heap
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Retrieves the key of an element in the heap.
+     *
+     * @param element the element whose key will be returned
+     * @return the key of {@code element}
+     * @throws IllegalArgumentException if the element is not in the heap
+     */
+    public double keyOf(int element) {
+        if (positions[element] == -1)
+            throw new IllegalArgumentException("The element is not in the heap.");
+
+        return keys[element];
+    }
+
+    /**
+     * Determines whether or not an element is in the heap.
+     *
+     * @param element the element to check for
+     * @return true iff the element is currently in the heap
+     */
+    public boolean contains(int element) {
+        return positions[element] != -1;
+    }
+
+    /**
+     * Removes all elements from the heap. This runs in time proportional to the number of elements currently
+     * in the heap, not the capacity, so a heap can be cheaply reused across many searches.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            positions[heap[i]] = -1;
+        size = 0;
+    }
+
+    /**
+     * Balancing operation for when the key at position i has decreased.
+     *
+     * @param i the position of the element to move up
+     */
+    private void siftUp(int i) {
+        while (i > 0 && keys[heap[parent(i)]] > keys[heap[i]]) {
+            swap(i, parent(i));
+            i = parent(i);
+        }
+    }
+
+    /**
+     * Balancing operation for when the element at position i may be larger than its children.
+     *
+     * @param i the position of the element to move down
+     */
+    private void siftDown(int i) {
+        while (true) {
+            int swap = i;
+            int left = leftChild(i);
+            if (left < size && keys[heap[left]] < keys[heap[swap]])
+                swap = left;
+            if (left + 1 < size && keys[heap[left + 1]] < keys[heap[swap]])
+                swap = left + 1;
+            if (swap == i)
+                break;
+            swap(swap, i);
+            i = swap;
+        }
+    }
+
+    /**
+     * Gets the size of the heap.
+     *
+     * @return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether or not the heap is empty.
+     *
+     * @return true iff the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the capacity of the heap.
+     *
+     * @return the number of distinct elements the heap can hold
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+}
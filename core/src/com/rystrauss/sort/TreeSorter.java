@@ -23,6 +23,7 @@ public class TreeSorter<E extends Comparable<E>> extends Sorter<E> {
             tree.add(e);
 
         data.clear();
-        data.addAll(tree.inOrder());
+        for (E e : tree)
+            data.add(e);
     }
 }
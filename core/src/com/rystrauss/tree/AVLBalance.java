@@ -0,0 +1,293 @@
+package com.rystrauss.tree;
+
+/**
+ * The rebalancing operations of an AVL tree, shared by {@link AVLTree} and {@link AVLTreeMap}.
+ * <p>
+ * Rotations relink the parent of the rotated subtree but cannot update a tree's root field, so callers take the
+ * new root from {@link #retrace(Node, Node)}.
+ *
+ * @author Ryan Strauss
+ */
+final class AVLBalance {
+
+    private AVLBalance() {
+    }
+
+    /**
+     * Returns the number of nodes in a (possibly null) subtree.
+     *
+     * @param currentRoot The root of the subtree.
+     * @return The number of nodes in the subtree.
+     */
+    static int count(Node<?> currentRoot) {
+        return currentRoot == null ? 0 : currentRoot.count;
+    }
+
+    /**
+     * Updates the level and subtree size of a node based on
+     * those of the left and right children.
+     *
+     * @param currentRoot Node that will have its level updated.
+     */
+    static void updateLevel(Node<?> currentRoot) {
+        int level = 0;
+        if (currentRoot.left != null)
+            level = Math.max(level, currentRoot.left.level + 1);
+        if (currentRoot.right != null)
+            level = Math.max(level, currentRoot.right.level + 1);
+        currentRoot.level = level;
+        currentRoot.count = 1 + count(currentRoot.left) + count(currentRoot.right);
+        currentRoot.update();
+    }
+
+    /**
+     * Calculates the height skew of a node based on the levels
+     * of the left and right children.
+     *
+     * @param currentRoot Node that will have its height skew calculated.
+     * @return The height skew: the difference between the right subtree's level
+     * minus the left subtree's level. Note that this is:
+     * - a positive number if the right subtree has a higher level;
+     * - a negative number if the left subtree has a higher level.
+     */
+    static int calculateSkew(Node<?> currentRoot) {
+        int leftLevel = currentRoot.left == null ? 0 : currentRoot.left.level + 1;
+        int rightLevel = currentRoot.right == null ? 0 : currentRoot.right.level + 1;
+
+        return rightLevel - leftLevel;
+    }
+
+    /**
+     * Performs a left-side rotation around a top (parent) node and a pivot.
+     * <p>
+     * We expect that pivot is the right child of the top (parent) node.
+     *
+     * @param top   The top (parent) node.
+     * @param pivot The pivot node.
+     */
+    static <E> void rotateLeft(Node<E> top, Node<E> pivot) {
+        top.right = pivot.left;
+        pivot.left = top;
+
+        pivot.parent = top.parent;
+        top.parent = pivot;
+        if (top.right != null)
+            top.right.parent = top;
+
+        if (pivot.parent != null) {
+            if (pivot.parent.left == top)
+                pivot.parent.left = pivot;
+            else
+                pivot.parent.right = pivot;
+        }
+
+        updateLevel(top);
+        updateLevel(pivot);
+    }
+
+    /**
+     * Performs a right-side rotation around a top (parent) node and a pivot.
+     * <p>
+     * We expect that pivot is the left child of the top (parent) node.
+     *
+     * @param top   The top (parent) node.
+     * @param pivot The pivot node.
+     */
+    static <E> void rotateRight(Node<E> top, Node<E> pivot) {
+        top.left = pivot.right;
+        pivot.right = top;
+
+        pivot.parent = top.parent;
+        top.parent = pivot;
+        if (top.left != null)
+            top.left.parent = top;
+
+        if (pivot.parent != null) {
+            if (pivot.parent.left == top)
+                pivot.parent.left = pivot;
+            else
+                pivot.parent.right = pivot;
+        }
+
+        updateLevel(top);
+        updateLevel(pivot);
+    }
+
+    /**
+     * Rebalances a node by checking the height skew and performing
+     * the appropriate rotations if necessary.
+     *
+     * @param currentRoot Node to be rebalanced.
+     * @return The root of the subtree after rebalancing.
+     */
+    static <E> Node<E> rebalance(Node<E> currentRoot) {
+        int skew = calculateSkew(currentRoot);
+        if (skew >= 2) {
+            if (calculateSkew(currentRoot.right) < 0)
+                rotateRight(currentRoot.right, currentRoot.right.left);
+            rotateLeft(currentRoot, currentRoot.right);
+            return currentRoot.parent;
+        } else if (skew <= -2) {
+            if (calculateSkew(currentRoot.left) > 0)
+                rotateLeft(currentRoot.left, currentRoot.left.right);
+            rotateRight(currentRoot, currentRoot.left);
+            return currentRoot.parent;
+        }
+        return currentRoot;
+    }
+
+    /**
+     * Walks from a node up to the root, updating levels and rebalancing along the way.
+     * <p>
+     * The walk stops as soon as a subtree's level is the same as it was before the modification, since none of
+     * the nodes above it can have changed.
+     *
+     * @param currentRoot The lowest node whose subtree was modified, or null.
+     * @param root        The root of the whole tree.
+     * @return The root of the whole tree after rebalancing.
+     */
+    static <E> Node<E> retrace(Node<E> currentRoot, Node<E> root) {
+        while (currentRoot != null) {
+            Node<E> parent = currentRoot.parent;
+            int oldLevel = currentRoot.level;
+
+            updateLevel(currentRoot);
+            Node<E> top = rebalance(currentRoot);
+            if (top.parent == null)
+                root = top;
+            if (top.level == oldLevel)
+                break;
+
+            currentRoot = parent;
+        }
+        return root;
+    }
+
+    /**
+     * Adds a delta to the subtree size of a node and each of its ancestors, and updates any information they
+     * derive from their subtrees, after a node is linked into or unlinked from the tree below them.
+     *
+     * @param currentRoot The parent of the node that was linked or unlinked, or null.
+     * @param delta       The change in size.
+     */
+    static void addToCounts(Node<?> currentRoot, int delta) {
+        for (; currentRoot != null; currentRoot = currentRoot.parent) {
+            currentRoot.count += delta;
+            currentRoot.update();
+        }
+    }
+
+    /**
+     * Returns the height of a (possibly null) subtree, counting a single node as height one.
+     *
+     * @param currentRoot The root of the subtree.
+     * @return The height of the subtree.
+     */
+    static int height(Node<?> currentRoot) {
+        return currentRoot == null ? 0 : currentRoot.level + 1;
+    }
+
+    /**
+     * Joins two trees and a node between them into a single balanced tree. Every element of {@code left} must be
+     * less than that of {@code node}, which must be less than every element of {@code right}, and the roots of
+     * all three must have no parent. This takes time proportional to the difference in the heights of the trees.
+     *
+     * @param left  The tree of smaller elements, or null.
+     * @param node  The node that joins the trees; its children are replaced.
+     * @param right The tree of larger elements, or null.
+     * @return The root of the joined tree.
+     */
+    static <E> Node<E> join(Node<E> left, Node<E> node, Node<E> right) {
+        if (height(left) > height(right) + 1)
+            return joinRight(left, node, right);
+        if (height(right) > height(left) + 1)
+            return joinLeft(left, node, right);
+
+        link(left, node, right);
+        return node;
+    }
+
+    /**
+     * Joins two trees into a single balanced tree, where every element of {@code left} is less than every element
+     * of {@code right}, by removing the maximum node of {@code left} and joining with it.
+     *
+     * @param left  The tree of smaller elements, or null; its root must have no parent.
+     * @param right The tree of larger elements, or null; its root must have no parent.
+     * @return The root of the joined tree.
+     */
+    static <E> Node<E> join(Node<E> left, Node<E> right) {
+        if (left == null)
+            return right;
+        if (right == null)
+            return left;
+
+        Node<E> max = left;
+        while (max.right != null)
+            max = max.right;
+
+        Node<E> parent = max.parent;
+        if (max.left != null)
+            max.left.parent = parent;
+        if (parent == null)
+            left = max.left;
+        else {
+            parent.right = max.left;
+            addToCounts(parent, -1);
+            left = retrace(parent, left);
+        }
+        max.parent = null;
+
+        return join(left, max, right);
+    }
+
+    /**
+     * Joins a node and a shorter right tree onto the right spine of a taller left tree.
+     */
+    private static <E> Node<E> joinRight(Node<E> left, Node<E> node, Node<E> right) {
+        Node<E> parent = null, spine = left;
+        while (height(spine) > height(right) + 1) {
+            parent = spine;
+            spine = spine.right;
+        }
+
+        link(spine, node, right);
+        node.parent = parent;
+        parent.right = node;
+        addToCounts(parent, node.count - count(spine));
+
+        return retrace(parent, left);
+    }
+
+    /**
+     * Joins a node and a shorter left tree onto the left spine of a taller right tree.
+     */
+    private static <E> Node<E> joinLeft(Node<E> left, Node<E> node, Node<E> right) {
+        Node<E> parent = null, spine = right;
+        while (height(spine) > height(left) + 1) {
+            parent = spine;
+            spine = spine.left;
+        }
+
+        link(left, node, spine);
+        node.parent = parent;
+        parent.left = node;
+        addToCounts(parent, node.count - count(spine));
+
+        return retrace(parent, right);
+    }
+
+    /**
+     * Makes two subtrees the children of a node, which becomes a root.
+     */
+    private static <E> void link(Node<E> left, Node<E> node, Node<E> right) {
+        node.parent = null;
+        node.left = left;
+        node.right = right;
+        if (left != null)
+            left.parent = node;
+        if (right != null)
+            right.parent = node;
+        updateLevel(node);
+    }
+
+}
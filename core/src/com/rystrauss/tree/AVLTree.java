@@ -1,13 +1,28 @@
 package com.rystrauss.tree;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 /**
  * Implementation of a Adelson-Velsky and Landis (AVL) self-balancing binary search tree.
+ * <p>
+ * Each node also records the size of its subtree, which makes the tree an order-statistic tree: the rank of an
+ * element and the element of a given rank are both found in O(log n) time.
+ * <p>
+ * Trees can be built from sorted input in linear time, and combined with the join-based set operations of
+ * Blelloch, Ferizovic and Sun (Just Join for Parallel Ordered Sets, 2016). Each of these splits one tree around the
+ * root of the other, recurses on the two halves in parallel, and joins the results, which takes
+ * O(m log(n / m + 1)) work for trees of sizes {@code m <= n}.
  *
  * @param <E> the type of elements in the tree; must be comparable
  * @author Ryan Strauss
  */
 public class AVLTree<E extends Comparable<E>> extends BinarySearchTree<E> {
 
+    // Set operations on fewer elements than this are not split into parallel tasks.
+    private static final int PARALLEL_THRESHOLD = 4096;
+
     /**
      * Constructs an empty binary search tree.
      */
@@ -16,251 +31,323 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTree<E> {
     }
 
     /**
-     * Updates the level of a node based on the levels
-     * of the left and right children.
+     * Builds a balanced tree from elements in ascending order, in O(n) time.
      *
-     * @param currentRoot Node that will have its level updated.
+     * @param sorted the elements of the tree, in strictly ascending order
+     * @param <E>    the type of elements in the tree
+     * @return a tree containing the given elements
+     * @throws IllegalArgumentException if the elements are not in strictly ascending order
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Comparable<E>> AVLTree<E> fromSorted(List<E> sorted) throws IllegalArgumentException {
+        Object[] elements = sorted.toArray();
+        for (int i = 1; i < elements.length; i++) {
+            if (((E) elements[i - 1]).compareTo((E) elements[i]) >= 0)
+                throw new IllegalArgumentException("The elements must be in strictly ascending order.");
+        }
+
+        AVLTree<E> tree = new AVLTree<>();
+        tree.root = build(elements, 0, elements.length);
+        tree.size = elements.length;
+        return tree;
+    }
+
+    /**
+     * Builds a perfectly balanced subtree from a range of a sorted array.
      */
-    private void updateLevel(Node<E> currentRoot) {
-        int level = 0;
-        if (currentRoot.left != null)
-            level = Math.max(level, currentRoot.left.level + 1);
-        if (currentRoot.right != null)
-            level = Math.max(level, currentRoot.right.level + 1);
-        currentRoot.level = level;
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> build(Object[] elements, int from, int to) {
+        if (from >= to)
+            return null;
+
+        int mid = (from + to) >>> 1;
+        return AVLBalance.join(build(elements, from, mid), new Node<>((E) elements[mid]),
+                build(elements, mid + 1, to));
     }
 
     /**
-     * Calculates the height skew of a node based on the levels
-     * of the left and right children.
+     * Computes the union of two trees. The nodes of both trees are reused for the result, so both trees are left
+     * empty.
      *
-     * @param currentRoot Node that will have its height skew calculated.
-     * @return The height skew: the difference between the right subtree's level
-     * minus the left subtree's level. Note that this is:
-     * - a positive number if the right subtree has a higher level;
-     * - a negative number if the left subtree has a higher level.
+     * @param a   a tree
+     * @param b   another tree
+     * @param <E> the type of elements in the trees
+     * @return a tree containing every element that is in either {@code a} or {@code b}
      */
-    private int calculateSkew(Node<E> currentRoot) {
-        int leftLevel = currentRoot.left == null ? 0 : currentRoot.left.level + 1;
-        int rightLevel = currentRoot.right == null ? 0 : currentRoot.right.level + 1;
+    public static <E extends Comparable<E>> AVLTree<E> union(AVLTree<E> a, AVLTree<E> b) {
+        if (a == b)
+            return consume(a.root, a, b);
 
-        return rightLevel - leftLevel;
+        return consume(ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> union(a.root, b.root))), a, b);
     }
 
     /**
-     * Performs a left-side rotation around a top (parent) node and a pivot.
-     * <p>
-     * We expect that pivot is the right child of the top (parent) node.
+     * Computes the intersection of two trees. The nodes of both trees are reused for the result, so both trees
+     * are left empty.
      *
-     * @param top   The top (parent) node.
-     * @param pivot The pivot node.
+     * @param a   a tree
+     * @param b   another tree
+     * @param <E> the type of elements in the trees
+     * @return a tree containing every element that is in both {@code a} and {@code b}
      */
-    private void rotateLeft(Node<E> top, Node<E> pivot) {
-        top.right = pivot.left;
-        pivot.left = top;
-
-        pivot.parent = top.parent;
-        top.parent = pivot;
-        if (top.right != null)
-            top.right.parent = top;
-
-        if (pivot.parent == null)
-            this.root = pivot;
-        else {
-            if (pivot.parent.left == top)
-                pivot.parent.left = pivot;
-            else
-                pivot.parent.right = pivot;
-        }
+    public static <E extends Comparable<E>> AVLTree<E> intersection(AVLTree<E> a, AVLTree<E> b) {
+        if (a == b)
+            return consume(a.root, a, b);
 
-        updateLevel(top);
-        updateLevel(pivot);
+        return consume(ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> intersection(a.root, b.root))),
+                a, b);
     }
 
     /**
-     * Performs a right-side rotation around a top (parent) node and a pivot.
-     * <p>
-     * We expect that pivot is the left child of the top (parent) node.
+     * Computes the difference of two trees. The nodes of both trees are reused for the result, so both trees are
+     * left empty.
      *
-     * @param top   The top (parent) node.
-     * @param pivot The pivot node.
+     * @param a   a tree
+     * @param b   another tree
+     * @param <E> the type of elements in the trees
+     * @return a tree containing every element that is in {@code a} but not in {@code b}
      */
-    private void rotateRight(Node<E> top, Node<E> pivot) {
-        top.left = pivot.right;
-        pivot.right = top;
-
-        pivot.parent = top.parent;
-        top.parent = pivot;
-        if (top.left != null)
-            top.left.parent = top;
-
-        if (pivot.parent == null)
-            this.root = pivot;
-        else {
-            if (pivot.parent.left == top)
-                pivot.parent.left = pivot;
-            else
-                pivot.parent.right = pivot;
-        }
+    public static <E extends Comparable<E>> AVLTree<E> difference(AVLTree<E> a, AVLTree<E> b) {
+        if (a == b)
+            return consume(null, a, b);
 
-        updateLevel(top);
-        updateLevel(pivot);
+        return consume(ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> difference(a.root, b.root))),
+                a, b);
     }
 
     /**
-     * Rebalances a node by checking the height skew and performing
-     * the appropriate rotations if necessary.
+     * Splits the tree around an element, in O(log n) time. This tree keeps the elements less than
+     * {@code element}, and the rest are moved to a new tree.
      *
-     * @param currentRoot Node to be rebalanced.
+     * @param element the element at which to split the tree
+     * @return a tree containing the elements that were greater than or equal to {@code element}
      */
-    private void rebalance(Node<E> currentRoot) {
-        int skew = calculateSkew(currentRoot);
-        if (skew >= 2) {
-            if (calculateSkew(currentRoot.right) < 0)
-                rotateRight(currentRoot.right, currentRoot.right.left);
-            rotateLeft(currentRoot, currentRoot.right);
-        } else if (skew <= -2) {
-            if (calculateSkew(currentRoot.left) > 0)
-                rotateLeft(currentRoot.left, currentRoot.left.right);
-            rotateRight(currentRoot, currentRoot.left);
+    public AVLTree<E> split(E element) {
+        Split<E> parts = new Split<>();
+        split(this.root, element, parts);
+        if (parts.found != null)
+            parts.right = AVLBalance.join(null, parts.found, parts.right);
+
+        this.root = parts.left;
+        this.size = AVLBalance.count(parts.left);
+        this.modCount++;
+
+        AVLTree<E> upper = new AVLTree<>();
+        upper.root = parts.right;
+        upper.size = AVLBalance.count(parts.right);
+        return upper;
+    }
+
+    /**
+     * Wraps the result of a set operation in a new tree, and empties the trees it was computed from.
+     */
+    private static <E extends Comparable<E>> AVLTree<E> consume(Node<E> root, AVLTree<E> a, AVLTree<E> b) {
+        a.root = b.root = null;
+        a.size = b.size = 0;
+        a.modCount++;
+        b.modCount++;
+
+        AVLTree<E> result = new AVLTree<>();
+        result.root = root;
+        result.size = AVLBalance.count(root);
+        return result;
+    }
+
+    private static <E extends Comparable<E>> Node<E> union(Node<E> t1, Node<E> t2) {
+        if (t1 == null)
+            return t2;
+        if (t2 == null)
+            return t1;
+
+        Node<E> l1 = detach(t1.left), r1 = detach(t1.right);
+        Split<E> parts = new Split<>();
+        split(t2, t1.data, parts);
+        Node<E> l2 = parts.left, r2 = parts.right;
+
+        Node<E> left, right;
+        if (isLarge(l1, r1, l2, r2)) {
+            ForkJoinTask<Node<E>> task = ForkJoinTask.adapt(() -> union(l1, l2)).fork();
+            right = union(r1, r2);
+            left = task.join();
+        } else {
+            left = union(l1, l2);
+            right = union(r1, r2);
         }
+
+        return AVLBalance.join(left, t1, right);
     }
 
-    @Override
-    public boolean add(E element) {
-        if (this.root == null) {
-            this.root = new Node<>(element);
-            return true;
+    private static <E extends Comparable<E>> Node<E> intersection(Node<E> t1, Node<E> t2) {
+        if (t1 == null || t2 == null)
+            return null;
+
+        Node<E> l1 = detach(t1.left), r1 = detach(t1.right);
+        Split<E> parts = new Split<>();
+        split(t2, t1.data, parts);
+        Node<E> l2 = parts.left, r2 = parts.right;
+
+        Node<E> left, right;
+        if (isLarge(l1, r1, l2, r2)) {
+            ForkJoinTask<Node<E>> task = ForkJoinTask.adapt(() -> intersection(l1, l2)).fork();
+            right = intersection(r1, r2);
+            left = task.join();
+        } else {
+            left = intersection(l1, l2);
+            right = intersection(r1, r2);
         }
-        return add(new Node<>(element), this.root);
+
+        return parts.found != null ? AVLBalance.join(left, t1, right) : AVLBalance.join(left, right);
     }
 
+    private static <E extends Comparable<E>> Node<E> difference(Node<E> t1, Node<E> t2) {
+        if (t1 == null || t2 == null)
+            return t1;
 
-    /**
-     * Adds a node into a (non-null) subtree rooted at currentRoot.
-     *
-     * @param node        The node being inserted.
-     * @param currentRoot The root of the current subtree where we're adding the node.
-     * @return True if the element was inserted; false if the value was already present.
-     */
-    private boolean add(Node<E> node, Node<E> currentRoot) {
-        if (node.data.compareTo(currentRoot.data) < 0) {
-            if (currentRoot.left != null) {
-                boolean result = add(node, currentRoot.left);
-                updateLevel(currentRoot);
-                rebalance(currentRoot);
-                return result;
-            } else {
-                currentRoot.left = node;
-                node.parent = currentRoot;
-                updateLevel(currentRoot);
-                rebalance(currentRoot);
-                return true;
-            }
-        } else if (node.data.compareTo(currentRoot.data) > 0) {
-            if (currentRoot.right != null) {
-                boolean result = add(node, currentRoot.right);
-                updateLevel(currentRoot);
-                rebalance(currentRoot);
-                return result;
-            } else {
-                currentRoot.right = node;
-                node.parent = currentRoot;
-                updateLevel(currentRoot);
-                rebalance(currentRoot);
-                return true;
-            }
+        Node<E> l2 = detach(t2.left), r2 = detach(t2.right);
+        Split<E> parts = new Split<>();
+        split(t1, t2.data, parts);
+        Node<E> l1 = parts.left, r1 = parts.right;
+
+        Node<E> left, right;
+        if (isLarge(l1, r1, l2, r2)) {
+            ForkJoinTask<Node<E>> task = ForkJoinTask.adapt(() -> difference(l1, l2)).fork();
+            right = difference(r1, r2);
+            left = task.join();
+        } else {
+            left = difference(l1, l2);
+            right = difference(r1, r2);
         }
 
-        return false;
+        return AVLBalance.join(left, right);
     }
 
-    @Override
-    public boolean contains(E element) {
-        return contains(element, this.root);
+    /**
+     * Determines whether subtrees are large enough that processing them in parallel is worthwhile.
+     */
+    private static boolean isLarge(Node<?> l1, Node<?> r1, Node<?> l2, Node<?> r2) {
+        return AVLBalance.count(l1) + AVLBalance.count(r1) + AVLBalance.count(l2) + AVLBalance.count(r2)
+                > PARALLEL_THRESHOLD;
     }
 
     /**
-     * Checks if a value is contained in the a subtree rooted at currentRoot.
+     * Splits a subtree, whose root has no parent, into the elements less than and greater than a key, and the
+     * node containing the key itself if there is one. The nodes of the subtree are reused.
      *
-     * @param element     The value being checked for containment.
-     * @param currentRoot The root of the current subtree where we're currently checking
-     *                    the value for containment.
-     * @return True if the value is present; false otherwise.
+     * @param currentRoot The root of the subtree to be split.
+     * @param key         The key at which to split.
+     * @param parts       Receives the two halves and the node containing the key (or null).
      */
-    private boolean contains(E element, Node<E> currentRoot) {
-        if (currentRoot == null)
-            return false;
-
-        if (element.equals(currentRoot.data))
-            return true;
-
-        if (element.compareTo(currentRoot.data) < 0)
-            return contains(element, currentRoot.left);
+    private static <E extends Comparable<E>> void split(Node<E> currentRoot, E key, Split<E> parts) {
+        if (currentRoot == null) {
+            parts.left = parts.right = parts.found = null;
+            return;
+        }
 
-        return contains(element, currentRoot.right);
+        Node<E> left = detach(currentRoot.left), right = detach(currentRoot.right);
+        int cmp = key.compareTo(currentRoot.data);
+        if (cmp == 0) {
+            parts.left = left;
+            parts.right = right;
+            parts.found = currentRoot;
+        } else if (cmp < 0) {
+            split(left, key, parts);
+            parts.right = AVLBalance.join(parts.right, currentRoot, right);
+        } else {
+            split(right, key, parts);
+            parts.left = AVLBalance.join(left, currentRoot, parts.left);
+        }
+    }
 
+    /**
+     * Detaches a (possibly null) subtree from its parent.
+     */
+    private static <E> Node<E> detach(Node<E> currentRoot) {
+        if (currentRoot != null) {
+            if (currentRoot.parent != null) {
+                if (currentRoot.parent.left == currentRoot)
+                    currentRoot.parent.left = null;
+                else
+                    currentRoot.parent.right = null;
+            }
+            currentRoot.parent = null;
+        }
+        return currentRoot;
     }
 
     /**
-     * Removes an element from the tree.
+     * Returns the number of elements less than the given element.
      *
-     * @param element Value to be removed from the tree.
-     * @return True if the value was removed; false if the value was not found.
+     * @param element the element whose rank will be returned
+     * @return the number of elements in the tree that are less than {@code element}
      */
-    public boolean remove(E element) {
-        return remove(element, root, null);
+    public int rank(E element) {
+        int rank = 0;
+        Node<E> node = this.root;
+        while (node != null) {
+            int cmp = element.compareTo(node.data);
+            if (cmp <= 0) {
+                if (cmp == 0)
+                    return rank + AVLBalance.count(node.left);
+                node = node.left;
+            } else {
+                rank += AVLBalance.count(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
     }
 
     /**
-     * Removes an element from the tree.
+     * Returns the element with the given rank (i.e. the {@code k}-th smallest element, counting from zero).
      *
-     * @param element       Element to be removed from the tree.
-     * @param currentRoot   Root of the current subtree where we're removing the value.
-     * @param currentParent Parent of the currentRoot (null if currentRoot is the root).
-     * @return True if the value was removed; false if the value was not found.
+     * @param k the rank of the element to be returned
+     * @return the element with exactly {@code k} smaller elements in the tree
+     * @throws IllegalArgumentException if {@code k} is negative or not less than the size of the tree
      */
-    private boolean remove(E element, Node<E> currentRoot, Node<E> currentParent) {
-        if (currentRoot == null)
-            return false;
-
-        if (element.compareTo(currentRoot.data) < 0) {
-            boolean result = remove(element, currentRoot.left, currentRoot);
-            updateLevel(currentRoot);
-            rebalance(currentRoot);
-            return result;
-        }
-        if (element.compareTo(currentRoot.data) > 0) {
-            boolean result = remove(element, currentRoot.right, currentRoot);
-            updateLevel(currentRoot);
-            rebalance(currentRoot);
-            return result;
+    public E select(int k) throws IllegalArgumentException {
+        if (k < 0 || k >= this.size)
+            throw new IllegalArgumentException("The rank must be between 0 and the size of the tree.");
+
+        Node<E> node = this.root;
+        while (true) {
+            int leftCount = AVLBalance.count(node.left);
+            if (k < leftCount)
+                node = node.left;
+            else if (k == leftCount)
+                return node.data;
+            else {
+                k -= leftCount + 1;
+                node = node.right;
+            }
         }
+    }
 
-        if (currentRoot.left != null && currentRoot.right != null) {
-            E min = minimumNode(currentRoot.right).data;
-            remove(min, currentRoot.right, currentRoot);
-            updateLevel(currentRoot);
-            rebalance(currentRoot);
-            currentRoot.data = min;
-            return true;
-        }
+    @Override
+    Node<E> insert(E element) {
+        Node<E> node = super.insert(element);
+        if (node == null)
+            return null;
+
+        AVLBalance.addToCounts(node.parent, 1);
+        this.root = AVLBalance.retrace(node.parent, this.root);
+        return node;
+    }
 
-        Node<E> child = (currentRoot.left != null) ? currentRoot.left : currentRoot.right;
+    @Override
+    Node<E> removeNode(Node<E> node) {
+        Node<E> parent = super.removeNode(node);
+        AVLBalance.addToCounts(parent, -1);
+        this.root = AVLBalance.retrace(parent, this.root);
+        return parent;
+    }
 
-        if (currentParent == null) {
-            this.root = child;
-        } else {
-            if (currentParent.left == currentRoot)
-                currentParent.left = child;
-            else
-                currentParent.right = child;
-        }
+    /**
+     * The result of splitting a subtree.
+     */
+    private static final class Split<E> {
 
-        if (child != null)
-            child.parent = currentParent;
+        Node<E> left, found, right;
 
-        return true;
     }
 
 }
@@ -0,0 +1,328 @@
+package com.rystrauss.tree;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Implementation of a map backed by an Adelson-Velsky and Landis (AVL) self-balancing binary search tree.
+ * <p>
+ * Keys are ordered by a comparator if one is given, or else by their natural ordering. Every operation finds its
+ * key with a single descent from the root; in particular {@link #put(Object, Object)} and
+ * {@link #computeIfAbsent(Object, Function)} attach a new node to the position where the search ended rather than
+ * searching a second time. Rebalancing is shared with {@link AVLTree}, and unlinking and in-order traversal with
+ * {@link BinarySearchTree}. Removing a key relinks nodes rather than moving keys and values between them, so an
+ * entry obtained from the map keeps its key and value while other keys are removed.
+ *
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ * @author Ryan Strauss
+ */
+public class AVLTreeMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+    private final Comparator<? super K> comparator;
+    private Node<K> root;
+    private int size;
+    private int modCount;
+
+    /**
+     * Constructs an empty map ordered by the natural ordering of its keys, which must be comparable.
+     */
+    public AVLTreeMap() {
+        this(null);
+    }
+
+    /**
+     * Constructs an empty map ordered by a comparator.
+     *
+     * @param comparator the comparator used to order the keys, or null to use their natural ordering
+     */
+    public AVLTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Retrieves the value associated with a key.
+     *
+     * @param key the key whose value will be returned
+     * @return the value associated with {@code key}, or null if the map does not contain the key
+     */
+    public V get(K key) {
+        Entry<K, V> entry = findEntry(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Determines whether or not the map contains a key.
+     *
+     * @param key the key to check for
+     * @return true iff the map contains {@code key}
+     */
+    public boolean containsKey(K key) {
+        return findEntry(key) != null;
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value to be associated with {@code key}
+     * @return the value previously associated with {@code key}, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null)
+            throw new NullPointerException("Trying to add null key to tree.");
+
+        Node<K> node = this.root, parent = null;
+        int cmp = 0;
+        while (node != null) {
+            cmp = compare(key, node.data);
+            if (cmp == 0) {
+                Entry<K, V> entry = (Entry<K, V>) node;
+                V previous = entry.value;
+                entry.value = value;
+                return previous;
+            }
+            parent = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+
+        attach(new Entry<>(key, value), parent, cmp);
+        return null;
+    }
+
+    /**
+     * Retrieves the value associated with a key, first computing and adding one if the map does not contain the
+     * key.
+     *
+     * @param key             the key
+     * @param mappingFunction the function used to compute a value for {@code key} if it is absent
+     * @return the value now associated with {@code key}, or null if the computed value was null (in which case
+     * nothing is added)
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null)
+            throw new NullPointerException("Trying to add null key to tree.");
+
+        Node<K> node = this.root, parent = null;
+        int cmp = 0;
+        while (node != null) {
+            cmp = compare(key, node.data);
+            if (cmp == 0)
+                return ((Entry<K, V>) node).value;
+            parent = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+
+        V value = mappingFunction.apply(key);
+        if (value != null)
+            attach(new Entry<>(key, value), parent, cmp);
+        return value;
+    }
+
+    /**
+     * Removes a key and its value from the map.
+     *
+     * @param key the key to be removed
+     * @return the value that was associated with {@code key}, or null if the map did not contain the key
+     */
+    public V remove(K key) {
+        Entry<K, V> entry = findEntry(key);
+        if (entry == null)
+            return null;
+
+        this.root = Node.unlink(entry, this.root);
+        this.size--;
+        this.modCount++;
+
+        Node<K> lowest = entry.parent;
+        entry.parent = null;
+        AVLBalance.addToCounts(lowest, -1);
+        this.root = AVLBalance.retrace(lowest, this.root);
+
+        return entry.value;
+    }
+
+    /**
+     * Returns the smallest key in the map.
+     *
+     * @return the smallest key in the map, or null if the map is empty
+     */
+    public K firstKey() {
+        return this.root == null ? null : Node.leftmost(this.root).data;
+    }
+
+    /**
+     * Returns the largest key in the map.
+     *
+     * @return the largest key in the map, or null if the map is empty
+     */
+    public K lastKey() {
+        return this.root == null ? null : Node.rightmost(this.root).data;
+    }
+
+    /**
+     * Returns an iterator over the entries of the map in ascending order of key. The entries are the nodes of the
+     * tree themselves, so iterating allocates nothing, and setting the value of an entry updates the map. The
+     * iterator is fail-fast: if a key is added to or removed from the map after it is created, it throws a
+     * {@link ConcurrentModificationException}.
+     *
+     * @return an in-order iterator over the entries of the map
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        Node<K> start = this.root == null ? null : Node.leftmost(this.root);
+
+        return new Iterator<Map.Entry<K, V>>() {
+            private Node<K> next = start;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map.Entry<K, V> next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (next == null)
+                    throw new NoSuchElementException();
+
+                Node<K> node = next;
+                next = Node.successor(node);
+                return (Entry<K, V>) node;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return the number of entries in the map
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Determines whether or not the map is empty.
+     *
+     * @return true iff the map is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Links a new entry as a child of the node at which a search ended, then rebalances.
+     *
+     * @param entry  the entry to be linked
+     * @param parent the last node visited by the search, or null if the tree is empty
+     * @param cmp    the result of comparing the entry's key with that of {@code parent}
+     */
+    private void attach(Entry<K, V> entry, Node<K> parent, int cmp) {
+        this.size++;
+        this.modCount++;
+        if (parent == null) {
+            this.root = entry;
+            return;
+        }
+
+        entry.parent = parent;
+        if (cmp < 0)
+            parent.left = entry;
+        else
+            parent.right = entry;
+
+        AVLBalance.addToCounts(parent, 1);
+        this.root = AVLBalance.retrace(parent, this.root);
+    }
+
+    /**
+     * Finds the entry with a key.
+     *
+     * @param key the key that is being searched for
+     * @return the entry with key {@code key}, or null if the map does not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    private Entry<K, V> findEntry(K key) {
+        Node<K> node = this.root;
+        while (node != null) {
+            int cmp = compare(key, node.data);
+            if (cmp == 0)
+                return (Entry<K, V>) node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Compares two keys with the map's comparator, or by their natural ordering if it has none.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(K a, K b) {
+        return comparator == null ? ((Comparable<? super K>) a).compareTo(b) : comparator.compare(a, b);
+    }
+
+    /**
+     * A node of the tree, which is also an entry of the map.
+     */
+    private static final class Entry<K, V> extends Node<K> implements Map.Entry<K, V> {
+
+        V value;
+
+        Entry(K key, V value) {
+            super(key);
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return data;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = this.value;
+            this.value = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+
+            return Objects.equals(data, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(data) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return data + "=" + value;
+        }
+
+    }
+
+}
@@ -0,0 +1,502 @@
+package com.rystrauss.tree;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of an in-memory B+ tree mapping comparable keys to values.
+ * <p>
+ * Each node holds up to {@code nodeCapacity} keys in a sorted array, so a lookup touches only a handful of nodes
+ * (about log<sub>32</sub>(n) with the default capacity) and searches each one with a binary search over
+ * contiguous memory, rather than following one pointer per level as in {@link AVLTree}. All entries live in the
+ * leaves, which are linked together so that range scans walk the leaves sequentially.
+ * <p>
+ * Insertion and removal are single top-down passes: full nodes are split, and minimal nodes are refilled from a
+ * sibling, before the search descends into them.
+ *
+ * @param <K> the type of keys in the map; must be comparable
+ * @param <V> the type of values in the map
+ * @author Ryan Strauss
+ * @see LongBPlusTreeMap
+ */
+public class BPlusTreeMap<K extends Comparable<K>, V> implements Iterable<K> {
+
+    /**
+     * The default maximum number of keys stored in each node.
+     */
+    public static final int DEFAULT_NODE_CAPACITY = 64;
+
+    private final int capacity, minKeys;
+    private Node root;
+    private int size;
+
+    /**
+     * Constructs an empty map with the default node capacity.
+     */
+    public BPlusTreeMap() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map.
+     *
+     * @param nodeCapacity the maximum number of keys stored in each node
+     * @throws IllegalArgumentException if {@code nodeCapacity} is less than 3
+     */
+    public BPlusTreeMap(int nodeCapacity) throws IllegalArgumentException {
+        if (nodeCapacity < 3)
+            throw new IllegalArgumentException("Node capacity must be at least 3.");
+
+        this.capacity = nodeCapacity;
+        this.minKeys = (nodeCapacity - 1) / 2;
+        this.root = new Node(true, nodeCapacity);
+        this.size = 0;
+    }
+
+    /**
+     * Retrieves the value associated with a key.
+     *
+     * @param key the key whose value will be returned
+     * @return the value associated with {@code key}, or null if the map does not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Node leaf = findLeaf(key);
+        int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        return i >= 0 ? (V) leaf.values[i] : null;
+    }
+
+    /**
+     * Determines whether or not the map contains a key.
+     *
+     * @param key the key to check for
+     * @return true iff the map contains {@code key}
+     */
+    public boolean containsKey(K key) {
+        Node leaf = findLeaf(key);
+        return Arrays.binarySearch(leaf.keys, 0, leaf.size, key) >= 0;
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value to be associated with {@code key}
+     * @return the value previously associated with {@code key}, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null)
+            throw new NullPointerException("Trying to add null key to tree.");
+
+        if (root.size == capacity) {
+            Node newRoot = new Node(false, capacity);
+            newRoot.children[0] = root;
+            splitChild(newRoot, 0);
+            root = newRoot;
+        }
+
+        Node node = root;
+        while (!node.isLeaf()) {
+            int c = childIndex(node, key);
+            if (node.children[c].size == capacity) {
+                splitChild(node, c);
+                if (key.compareTo((K) node.keys[c]) >= 0)
+                    c++;
+            }
+            node = node.children[c];
+        }
+
+        int i = Arrays.binarySearch(node.keys, 0, node.size, key);
+        if (i >= 0) {
+            V previous = (V) node.values[i];
+            node.values[i] = value;
+            return previous;
+        }
+
+        i = -i - 1;
+        System.arraycopy(node.keys, i, node.keys, i + 1, node.size - i);
+        System.arraycopy(node.values, i, node.values, i + 1, node.size - i);
+        node.keys[i] = key;
+        node.values[i] = value;
+        node.size++;
+        size++;
+
+        return null;
+    }
+
+    /**
+     * Removes a key and its value from the map.
+     *
+     * @param key the key to be removed
+     * @return the value that was associated with {@code key}, or null if the map did not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        Node node = root;
+        while (!node.isLeaf()) {
+            int c = childIndex(node, key);
+            if (node.children[c].size <= minKeys)
+                c = refill(node, c);
+
+            Node child = node.children[c];
+            // Only the root can be left without keys, when its last two children are merged.
+            if (node.size == 0)
+                root = child;
+            node = child;
+        }
+
+        int i = Arrays.binarySearch(node.keys, 0, node.size, key);
+        if (i < 0)
+            return null;
+
+        V previous = (V) node.values[i];
+        System.arraycopy(node.keys, i + 1, node.keys, i, node.size - i - 1);
+        System.arraycopy(node.values, i + 1, node.values, i, node.size - i - 1);
+        node.size--;
+        node.keys[node.size] = null;
+        node.values[node.size] = null;
+        size--;
+
+        return previous;
+    }
+
+    /**
+     * Returns the smallest key in the map.
+     *
+     * @return the smallest key in the map, or null if the map is empty
+     */
+    @SuppressWarnings("unchecked")
+    public K firstKey() {
+        Node leaf = firstLeaf();
+        return leaf.size == 0 ? null : (K) leaf.keys[0];
+    }
+
+    /**
+     * Returns the largest key in the map.
+     *
+     * @return the largest key in the map, or null if the map is empty
+     */
+    @SuppressWarnings("unchecked")
+    public K lastKey() {
+        Node node = root;
+        while (!node.isLeaf())
+            node = node.children[node.size];
+
+        return node.size == 0 ? null : (K) node.keys[node.size - 1];
+    }
+
+    /**
+     * Returns an iterator over the keys of the map in ascending order.
+     *
+     * @return an iterator over the keys of the map
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<K> iterator() {
+        return new LeafIterator<K>(firstLeaf(), 0, null) {
+            @Override
+            K element(Node leaf, int i) {
+                return (K) leaf.keys[i];
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the entries whose keys lie in a range, in ascending order of key. The scan locates
+     * the first key with a single descent and then walks the linked leaves.
+     *
+     * @param from the smallest key in the range (inclusive), or null for no lower bound
+     * @param to   the end of the range (exclusive), or null for no upper bound
+     * @return an iterator over the entries with keys in {@code [from, to)}
+     */
+    public Iterator<Map.Entry<K, V>> range(K from, K to) {
+        Node leaf = from == null ? firstLeaf() : findLeaf(from);
+        int start = from == null ? 0 : Arrays.binarySearch(leaf.keys, 0, leaf.size, from);
+        if (start < 0)
+            start = -start - 1;
+
+        return new LeafIterator<Map.Entry<K, V>>(leaf, start, to) {
+            @Override
+            @SuppressWarnings("unchecked")
+            Map.Entry<K, V> element(Node leaf, int i) {
+                return new AbstractMap.SimpleImmutableEntry<>((K) leaf.keys[i], (V) leaf.values[i]);
+            }
+        };
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return the number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether or not the map is empty.
+     *
+     * @return true iff the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all of the entries from the map.
+     */
+    public void clear() {
+        root = new Node(true, capacity);
+        size = 0;
+    }
+
+    /**
+     * Finds the leftmost leaf of the tree.
+     */
+    private Node firstLeaf() {
+        Node node = root;
+        while (!node.isLeaf())
+            node = node.children[0];
+        return node;
+    }
+
+    /**
+     * Finds the leaf whose range of keys includes a key.
+     */
+    private Node findLeaf(K key) {
+        Node node = root;
+        while (!node.isLeaf())
+            node = node.children[childIndex(node, key)];
+        return node;
+    }
+
+    /**
+     * Finds the child of an internal node that covers a key. Child {@code i} holds the keys greater than or equal
+     * to separator {@code i - 1} and less than separator {@code i}.
+     */
+    private int childIndex(Node node, K key) {
+        int i = Arrays.binarySearch(node.keys, 0, node.size, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Splits the full child at index {@code c} of a node that is not full, adding the new right half and its
+     * separator to the node.
+     */
+    private void splitChild(Node parent, int c) {
+        Node child = parent.children[c];
+        Node right = new Node(child.isLeaf(), capacity);
+        int mid = capacity / 2;
+        Object separator;
+
+        if (child.isLeaf()) {
+            right.size = capacity - mid;
+            System.arraycopy(child.keys, mid, right.keys, 0, right.size);
+            System.arraycopy(child.values, mid, right.values, 0, right.size);
+            Arrays.fill(child.values, mid, capacity, null);
+            right.next = child.next;
+            child.next = right;
+            separator = right.keys[0];
+        } else {
+            // The middle key moves up to the parent rather than being copied.
+            right.size = capacity - mid - 1;
+            System.arraycopy(child.keys, mid + 1, right.keys, 0, right.size);
+            System.arraycopy(child.children, mid + 1, right.children, 0, right.size + 1);
+            Arrays.fill(child.children, mid + 1, capacity + 1, null);
+            separator = child.keys[mid];
+        }
+        Arrays.fill(child.keys, mid, capacity, null);
+        child.size = mid;
+
+        System.arraycopy(parent.keys, c, parent.keys, c + 1, parent.size - c);
+        System.arraycopy(parent.children, c + 1, parent.children, c + 2, parent.size - c);
+        parent.keys[c] = separator;
+        parent.children[c + 1] = right;
+        parent.size++;
+    }
+
+    /**
+     * Gives the minimal child at index {@code c} at least one extra key, by borrowing from a sibling or, if both
+     * siblings are minimal too, by merging with one of them.
+     *
+     * @return the index of the child that now covers the range of the original child
+     */
+    private int refill(Node parent, int c) {
+        if (c > 0 && parent.children[c - 1].size > minKeys) {
+            borrowFromLeft(parent, c);
+            return c;
+        }
+        if (c < parent.size && parent.children[c + 1].size > minKeys) {
+            borrowFromRight(parent, c);
+            return c;
+        }
+        if (c > 0) {
+            merge(parent, c - 1);
+            return c - 1;
+        }
+        merge(parent, c);
+        return c;
+    }
+
+    /**
+     * Moves the last key of the left sibling of child {@code c} into the child.
+     */
+    private void borrowFromLeft(Node parent, int c) {
+        Node child = parent.children[c], left = parent.children[c - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+        int last = left.size - 1;
+
+        if (child.isLeaf()) {
+            System.arraycopy(child.values, 0, child.values, 1, child.size);
+            child.keys[0] = left.keys[last];
+            child.values[0] = left.values[last];
+            left.values[last] = null;
+            parent.keys[c - 1] = child.keys[0];
+        } else {
+            System.arraycopy(child.children, 0, child.children, 1, child.size + 1);
+            child.keys[0] = parent.keys[c - 1];
+            child.children[0] = left.children[left.size];
+            left.children[left.size] = null;
+            parent.keys[c - 1] = left.keys[last];
+        }
+
+        left.keys[last] = null;
+        left.size--;
+        child.size++;
+    }
+
+    /**
+     * Moves the first key of the right sibling of child {@code c} into the child.
+     */
+    private void borrowFromRight(Node parent, int c) {
+        Node child = parent.children[c], right = parent.children[c + 1];
+
+        if (child.isLeaf()) {
+            child.keys[child.size] = right.keys[0];
+            child.values[child.size] = right.values[0];
+            System.arraycopy(right.values, 1, right.values, 0, right.size - 1);
+            right.values[right.size - 1] = null;
+        } else {
+            child.keys[child.size] = parent.keys[c];
+            child.children[child.size + 1] = right.children[0];
+            parent.keys[c] = right.keys[0];
+            System.arraycopy(right.children, 1, right.children, 0, right.size);
+            right.children[right.size] = null;
+        }
+
+        System.arraycopy(right.keys, 1, right.keys, 0, right.size - 1);
+        right.keys[right.size - 1] = null;
+        right.size--;
+        child.size++;
+
+        if (child.isLeaf())
+            parent.keys[c] = right.keys[0];
+    }
+
+    /**
+     * Merges child {@code i + 1} into child {@code i} and removes their separator from the parent.
+     */
+    private void merge(Node parent, int i) {
+        Node left = parent.children[i], right = parent.children[i + 1];
+
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.size, right.size);
+            System.arraycopy(right.values, 0, left.values, left.size, right.size);
+            left.size += right.size;
+            left.next = right.next;
+        } else {
+            // The separator comes back down between the two halves.
+            left.keys[left.size] = parent.keys[i];
+            System.arraycopy(right.keys, 0, left.keys, left.size + 1, right.size);
+            System.arraycopy(right.children, 0, left.children, left.size + 1, right.size + 1);
+            left.size += right.size + 1;
+        }
+
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.size - i - 1);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.size - i - 1);
+        parent.size--;
+        parent.keys[parent.size] = null;
+        parent.children[parent.size + 1] = null;
+    }
+
+    /**
+     * A node of the tree. Leaves store values and a link to the next leaf; internal nodes store children.
+     */
+    private static final class Node {
+
+        final Object[] keys;
+        final Object[] values;
+        final Node[] children;
+        Node next;
+        int size;
+
+        Node(boolean leaf, int capacity) {
+            this.keys = new Object[capacity];
+            this.values = leaf ? new Object[capacity] : null;
+            this.children = leaf ? null : new Node[capacity + 1];
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+
+    }
+
+    /**
+     * Walks the linked leaves from a starting position up to an exclusive upper bound.
+     *
+     * @param <T> the type of element produced for each entry
+     */
+    private abstract class LeafIterator<T> implements Iterator<T> {
+
+        private Node leaf;
+        private int index;
+        private final K to;
+
+        LeafIterator(Node leaf, int index, K to) {
+            this.leaf = leaf;
+            this.index = index;
+            this.to = to;
+            advance();
+        }
+
+        /**
+         * Produces the element for the entry at position {@code i} of a leaf.
+         */
+        abstract T element(Node leaf, int i);
+
+        /**
+         * Moves past exhausted leaves, and stops the iteration at the upper bound.
+         */
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (leaf != null && index >= leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            if (leaf != null && to != null && ((K) leaf.keys[index]).compareTo(to) >= 0)
+                leaf = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public T next() {
+            if (leaf == null)
+                throw new NoSuchElementException();
+
+            T element = element(leaf, index++);
+            advance();
+            return element;
+        }
+
+    }
+
+}
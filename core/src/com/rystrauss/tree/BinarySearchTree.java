@@ -1,17 +1,31 @@
 package com.rystrauss.tree;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Implementation of a vanilla binary search tree.
+ * <p>
+ * All operations are iterative and use the parent pointers stored in each node, so a degenerate (unbalanced) tree
+ * cannot overflow the stack, and lookups and iteration allocate nothing.
  *
  * @param <E> the type of elements in the tree; must be comparable
  * @author Ryan Strauss
  */
-public class BinarySearchTree<E extends Comparable<E>> {
+public class BinarySearchTree<E extends Comparable<E>> implements Iterable<E> {
 
     Node<E> root;
-    private int size;
+    int size;
+
+    /**
+     * The number of times elements have been added to or removed from the tree, used to make iterators fail fast.
+     * Rotations do not count, since they do not change the in-order sequence of nodes that an iterator follows.
+     */
+    int modCount;
 
     /**
      * Constructs an empty tree.
@@ -28,43 +42,59 @@ public class BinarySearchTree<E extends Comparable<E>> {
      * @return true iff the element was successfully added (i.e. the element was not already in the tree)
      */
     public boolean add(E element) {
+        if (insert(element) == null)
+            return false;
+
+        this.modCount++;
+        return true;
+    }
+
+    /**
+     * Inserts an element as a new leaf of the tree.
+     *
+     * @param element the element to be added
+     * @return the newly created node, or null if the tree already contained the element
+     */
+    Node<E> insert(E element) {
         if (element == null)
             throw new NullPointerException("Trying to add null pointer to tree.");
 
         if (this.root == null) {
-            this.root = new Node<>(element);
+            this.root = newNode(element);
             this.size++;
-            return true;
+            return this.root;
         }
-        boolean result = add(element, this.root);
-        if (result)
-            this.size++;
-        return result;
-    }
 
-    /**
-     * Adds an element to the subtree rooted at {@code node}.
-     *
-     * @param element the element to be added
-     * @param node    the root of the subtree that the element is being added to
-     * @return true iff the subtree did not already contain the element
-     */
-    private boolean add(E element, Node<E> node) {
-        if (element.compareTo(node.data) < 0) {
-            if (node.left == null) {
-                node.left = new Node<>(element);
-                return true;
-            }
-            return add(element, node.left);
-        } else if (element.compareTo(node.data) > 0) {
-            if (node.right == null) {
-                node.right = new Node<>(element);
-                return true;
+        Node<E> node = this.root;
+        while (true) {
+            int cmp = element.compareTo(node.data);
+            if (cmp == 0)
+                return null;
+
+            Node<E> next = cmp < 0 ? node.left : node.right;
+            if (next == null) {
+                Node<E> leaf = newNode(element);
+                leaf.parent = node;
+                if (cmp < 0)
+                    node.left = leaf;
+                else
+                    node.right = leaf;
+                this.size++;
+                return leaf;
             }
-            return add(element, node.right);
+            node = next;
         }
+    }
 
-        return false;
+    /**
+     * Creates the node that holds a newly inserted element. Subclasses that store extra information in their
+     * nodes override this to create their own kind of node.
+     *
+     * @param element the element to be stored in the node
+     * @return a new node containing {@code element}
+     */
+    Node<E> newNode(E element) {
+        return new Node<>(element);
     }
 
     /**
@@ -74,58 +104,73 @@ public class BinarySearchTree<E extends Comparable<E>> {
      * @return true iff the element was successfully removed from the tree (i.e. if the element was in the tree)
      */
     public boolean remove(E element) {
-        MutableBoolean result = new MutableBoolean(true);
-        remove(element, this.root, result);
-        if (result.value)
-            this.size--;
-        return result.value;
+        Node<E> node = findNode(element);
+        if (node == null)
+            return false;
+
+        removeNode(node);
+        this.modCount++;
+        return true;
     }
 
     /**
-     * Recursive helper method for removing a node from the tree.
+     * Removes a node from the tree. If the node has two children, its in-order successor is relinked into its
+     * place, so every other node keeps its element.
      *
-     * @param element the element that should be removed (if present)
-     * @param node    the root of the subtree that we are removing from
-     * @param result  flag to indicate whether or not the element has been found in the tree
-     * @return the root of the subtree that has had the element removed (if present)
-     */
-    private Node<E> remove(E element, Node<E> node, MutableBoolean result) {
-        if (node == null) {
-            // Set flag to indicate that the element was not found in the tree.
-            result.value = false;
-            return null;
-        }
+     * @param node the node to be removed
+     * @return the lowest node whose subtree changed (i.e. the parent of the position that was vacated), or null
+     * if there is none
+     * @see Node#unlink(Node, Node)
+     */
+    Node<E> removeNode(Node<E> node) {
+        this.root = Node.unlink(node, this.root);
+        this.size--;
 
-        if (element.compareTo(node.data) < 0)
-            node.left = remove(element, node.left, result);
-        else if (element.compareTo(node.data) > 0)
-            node.right = remove(element, node.right, result);
-        else {
-            // At this point, we are at the node that we want to remove
-            if (node.left != null && node.right != null) {
-                // If the node has two children
-                E min = minNode(node.right).data;
-                node.data = min;
-                node.right = remove(min, node.right, result);
-            } else {
-                // If the node has one or zero children
-                return node.left != null ? node.left : node.right;
-            }
-        }
+        Node<E> lowest = node.parent;
+        node.parent = null;
+        return lowest;
+    }
 
-        return node;
+    /**
+     * Replaces a node with another node (or null) in the node's parent.
+     *
+     * @param node        the node being replaced
+     * @param replacement the node that takes its place
+     */
+    void replace(Node<E> node, Node<E> replacement) {
+        this.root = Node.replace(node, replacement, this.root);
     }
 
     /**
-     * Finds the minimum value node in the subtree rooted at a node.
+     * Rotates a node down to the left, so that its right child takes its place.
      *
-     * @return the minimum value node in the subtree rooted at {@code node}
+     * @param node the node to be rotated; must have a right child
      */
-    private Node<E> minNode(Node<E> node) {
-        if (node.left == null)
-            return node;
+    void rotateLeft(Node<E> node) {
+        Node<E> pivot = node.right;
+        node.right = pivot.left;
+        if (pivot.left != null)
+            pivot.left.parent = node;
+
+        replace(node, pivot);
+        pivot.left = node;
+        node.parent = pivot;
+    }
 
-        return minNode(node.left);
+    /**
+     * Rotates a node down to the right, so that its left child takes its place.
+     *
+     * @param node the node to be rotated; must have a left child
+     */
+    void rotateRight(Node<E> node) {
+        Node<E> pivot = node.left;
+        node.left = pivot.right;
+        if (pivot.right != null)
+            pivot.right.parent = node;
+
+        replace(node, pivot);
+        pivot.right = node;
+        node.parent = pivot;
     }
 
     /**
@@ -135,97 +180,211 @@ public class BinarySearchTree<E extends Comparable<E>> {
      * @return true iff the element is currently in the tree
      */
     public boolean contains(E element) {
-        return contains(element, this.root);
+        return findNode(element) != null;
     }
 
     /**
-     * Recursively traverse the tree to search for the specified element.
+     * Finds the node containing an element.
      *
-     * @param element the element that is being search for
-     * @param node    the root of the subtree being searched
-     * @return true iff the subtree rooted at {@code node} contains {@code element}; false otherwise
+     * @param element the element that is being searched for
+     * @return the node containing {@code element}, or null if it is not in the tree
      */
-    private boolean contains(E element, Node<E> node) {
-        if (node == null)
-            return false;
-        if (element == node.data)
-            return true;
-        return contains(element, element.compareTo(node.data) < 0 ? node.left : node.right);
+    Node<E> findNode(E element) {
+        Node<E> node = this.root;
+        while (node != null) {
+            int cmp = element.compareTo(node.data);
+            if (cmp == 0)
+                return node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
     }
 
     /**
-     * Performs an in-order traversal of the tree.
+     * Returns the greatest element in the tree less than or equal to the given element.
      *
-     * @return an {@code ArrayList} containing the elements of the tree in in-order
+     * @param element the element to be matched
+     * @return the greatest element less than or equal to {@code element}, or null if there is no such element
      */
-    public ArrayList<E> inOrder() {
-        ArrayList<E> elements = new ArrayList<>(this.size);
-        inOrder(elements, this.root);
-        return elements;
+    public E floor(E element) {
+        Node<E> node = floorNode(element, true);
+        return node == null ? null : node.data;
     }
 
     /**
-     * Recursive helper function for performing in-order traversal.
+     * Returns the least element in the tree greater than or equal to the given element.
      *
-     * @param elements the list that elements are being added to
-     * @param node     the next parent node
+     * @param element the element to be matched
+     * @return the least element greater than or equal to {@code element}, or null if there is no such element
      */
-    private void inOrder(ArrayList<E> elements, Node<E> node) {
-        if (node != null) {
-            inOrder(elements, node.left);
-            elements.add(node.data);
-            inOrder(elements, node.right);
-        }
+    public E ceiling(E element) {
+        Node<E> node = ceilingNode(element, true);
+        return node == null ? null : node.data;
     }
 
     /**
-     * Performs a pre-order traversal of the tree.
+     * Returns the least element in the tree strictly greater than the given element.
      *
-     * @return an {@code ArrayList} containing the elements of the tree in pre-order
+     * @param element the element to be matched
+     * @return the least element greater than {@code element}, or null if there is no such element
      */
-    public ArrayList<E> preOrder() {
-        ArrayList<E> elements = new ArrayList<>(this.size);
-        inOrder(elements, this.root);
-        return elements;
+    public E higher(E element) {
+        Node<E> node = ceilingNode(element, false);
+        return node == null ? null : node.data;
     }
 
     /**
-     * Recursive helper function for performing pre-order traversal.
+     * Returns the greatest element in the tree strictly less than the given element.
      *
-     * @param elements the list that elements are being added to
-     * @param node     the next parent node
+     * @param element the element to be matched
+     * @return the greatest element less than {@code element}, or null if there is no such element
      */
-    private void preOrder(ArrayList<E> elements, Node<E> node) {
-        if (node != null) {
-            elements.add(node.data);
-            preOrder(elements, node.left);
-            preOrder(elements, node.right);
+    public E lower(E element) {
+        Node<E> node = floorNode(element, false);
+        return node == null ? null : node.data;
+    }
+
+    /**
+     * Returns the elements of the tree that lie in a range, in ascending order. The first element is found with
+     * a single descent, and the elements are then produced lazily, so iterating over {@code k} elements takes
+     * O(h + k) time for a tree of height {@code h}.
+     *
+     * @param from the smallest element of the range (inclusive)
+     * @param to   the end of the range (exclusive)
+     * @return the elements in {@code [from, to)}; each new iterator reflects the tree as it is when the iterator
+     * is created, and fails fast if the tree is later modified
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     */
+    public Iterable<E> subSet(E from, E to) throws IllegalArgumentException {
+        if (from.compareTo(to) > 0)
+            throw new IllegalArgumentException("The start of the range must not be greater than its end.");
+
+        return () -> new InOrderIterator(ceilingNode(from, true), ceilingNode(to, true));
+    }
+
+    /**
+     * Finds the node with the greatest element below the given element.
+     *
+     * @param element   the element to be matched
+     * @param inclusive whether a node containing {@code element} itself may be returned
+     * @return the matching node, or null if there is none
+     */
+    Node<E> floorNode(E element, boolean inclusive) {
+        Node<E> node = this.root, best = null;
+        while (node != null) {
+            int cmp = element.compareTo(node.data);
+            if (cmp == 0 && inclusive)
+                return node;
+            if (cmp > 0) {
+                best = node;
+                node = node.right;
+            } else
+                node = node.left;
         }
+        return best;
     }
 
     /**
-     * Performs a post-order traversal of the tree.
+     * Finds the node with the least element above the given element.
      *
-     * @return an {@code ArrayList} containing the elements of the tree in post-order
+     * @param element   the element to be matched
+     * @param inclusive whether a node containing {@code element} itself may be returned
+     * @return the matching node, or null if there is none
      */
-    public ArrayList<E> postOrder() {
+    Node<E> ceilingNode(E element, boolean inclusive) {
+        Node<E> node = this.root, best = null;
+        while (node != null) {
+            int cmp = element.compareTo(node.data);
+            if (cmp == 0 && inclusive)
+                return node;
+            if (cmp < 0) {
+                best = node;
+                node = node.left;
+            } else
+                node = node.right;
+        }
+        return best;
+    }
+
+    /**
+     * Returns an iterator over the elements of the tree in ascending order. Elements are produced lazily by
+     * following parent pointers, so no copy of the tree is made. The iterator is fail-fast: if the tree is
+     * modified after it is created, it throws a {@link ConcurrentModificationException}.
+     *
+     * @return an in-order iterator over the elements of the tree
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new InOrderIterator(this.root == null ? null : minimumNode(this.root), null);
+    }
+
+    /**
+     * Performs an in-order traversal of the tree.
+     *
+     * @return an {@code ArrayList} containing the elements of the tree in in-order
+     */
+    public ArrayList<E> inOrder() {
         ArrayList<E> elements = new ArrayList<>(this.size);
-        inOrder(elements, this.root);
+        for (E e : this)
+            elements.add(e);
         return elements;
     }
 
     /**
-     * Recursive helper function for performing post-order traversal.
+     * Performs a pre-order traversal of the tree.
      *
-     * @param elements the list that elements are being added to
-     * @param node     the next parent node
+     * @return an {@code ArrayList} containing the elements of the tree in pre-order
      */
-    private void postOrder(ArrayList<E> elements, Node<E> node) {
-        if (node != null) {
-            postOrder(elements, node.left);
-            postOrder(elements, node.right);
+    public ArrayList<E> preOrder() {
+        ArrayList<E> elements = new ArrayList<>(this.size);
+        Deque<Node<E>> stack = new ArrayDeque<>();
+        if (this.root != null)
+            stack.push(this.root);
+
+        while (!stack.isEmpty()) {
+            Node<E> node = stack.pop();
             elements.add(node.data);
+            if (node.right != null)
+                stack.push(node.right);
+            if (node.left != null)
+                stack.push(node.left);
         }
+
+        return elements;
+    }
+
+    /**
+     * Performs a post-order traversal of the tree.
+     *
+     * @return an {@code ArrayList} containing the elements of the tree in post-order
+     */
+    public ArrayList<E> postOrder() {
+        ArrayList<E> elements = new ArrayList<>(this.size);
+        Node<E> node = this.root, previous = null;
+
+        // Walk the tree using parent pointers, emitting a node when we return to it from its last child.
+        while (node != null) {
+            if (previous == node.parent) {
+                previous = node;
+                if (node.left != null)
+                    node = node.left;
+                else if (node.right != null)
+                    node = node.right;
+                else {
+                    elements.add(node.data);
+                    node = node.parent;
+                }
+            } else if (previous == node.left && node.right != null) {
+                previous = node;
+                node = node.right;
+            } else {
+                elements.add(node.data);
+                previous = node;
+                node = node.parent;
+            }
+        }
+
+        return elements;
     }
 
     /**
@@ -249,10 +408,7 @@ public class BinarySearchTree<E extends Comparable<E>> {
      * rooted at currentRoot.
      */
     Node<E> minimumNode(Node<E> currentRoot) {
-        if (currentRoot.left != null)
-            return minimumNode(currentRoot.left);
-
-        return currentRoot;
+        return Node.leftmost(currentRoot);
     }
 
     /**
@@ -276,10 +432,27 @@ public class BinarySearchTree<E extends Comparable<E>> {
      * rooted at currentRoot.
      */
     Node<E> maximumNode(Node<E> currentRoot) {
-        if (currentRoot.right != null)
-            return maximumNode(currentRoot.right);
+        return Node.rightmost(currentRoot);
+    }
 
-        return currentRoot;
+    /**
+     * Returns the in-order successor of a node.
+     *
+     * @param node the node whose successor will be returned
+     * @return the node with the next larger element, or null if {@code node} holds the maximum
+     */
+    Node<E> successor(Node<E> node) {
+        return Node.successor(node);
+    }
+
+    /**
+     * Returns the in-order predecessor of a node.
+     *
+     * @param node the node whose predecessor will be returned
+     * @return the node with the next smaller element, or null if {@code node} holds the minimum
+     */
+    Node<E> predecessor(Node<E> node) {
+        return Node.predecessor(node);
     }
 
     /**
@@ -301,14 +474,37 @@ public class BinarySearchTree<E extends Comparable<E>> {
     }
 
     /**
-     * Thin wrapper class around the boolean primitive that effectively allows for passing boolean by reference.
+     * Iterates over the elements of the tree in ascending order, from a starting node up to (but not including)
+     * an optional end node. The iterator throws a {@link ConcurrentModificationException} if the tree is modified
+     * after it is created.
      */
-    private class MutableBoolean {
+    class InOrderIterator implements Iterator<E> {
+
+        private Node<E> next;
+        private final Node<E> end;
+        private final int expectedModCount;
+
+        InOrderIterator(Node<E> first, Node<E> end) {
+            this.next = first;
+            this.end = end;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null && next != end;
+        }
 
-        boolean value;
+        @Override
+        public E next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (!hasNext())
+                throw new NoSuchElementException();
 
-        MutableBoolean(boolean value) {
-            this.value = value;
+            E element = next.data;
+            next = successor(next);
+            return element;
         }
 
     }
@@ -0,0 +1,108 @@
+package com.rystrauss.tree;
+
+/**
+ * A closed interval {@code [low, high]} of comparable values.
+ * <p>
+ * Intervals are ordered by their low endpoints, and then by their high endpoints.
+ *
+ * @param <T> the type of the endpoints; must be comparable
+ * @author Ryan Strauss
+ */
+public final class Interval<T extends Comparable<T>> implements Comparable<Interval<T>> {
+
+    private final T low, high;
+
+    /**
+     * Constructs an interval.
+     *
+     * @param low  the low endpoint of the interval
+     * @param high the high endpoint of the interval
+     * @throws IllegalArgumentException if {@code low} is greater than {@code high}
+     */
+    public Interval(T low, T high) throws IllegalArgumentException {
+        if (low == null || high == null)
+            throw new NullPointerException("The endpoints of an interval cannot be null.");
+        if (low.compareTo(high) > 0)
+            throw new IllegalArgumentException("The low endpoint cannot be greater than the high endpoint.");
+
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Retrieves the low endpoint of this interval.
+     *
+     * @return the low endpoint of this interval
+     */
+    public T getLow() {
+        return this.low;
+    }
+
+    /**
+     * Retrieves the high endpoint of this interval.
+     *
+     * @return the high endpoint of this interval
+     */
+    public T getHigh() {
+        return this.high;
+    }
+
+    /**
+     * Determines whether or not this interval contains a point.
+     *
+     * @param point the point to check for
+     * @return true iff {@code low <= point <= high}
+     */
+    public boolean contains(T point) {
+        return low.compareTo(point) <= 0 && point.compareTo(high) <= 0;
+    }
+
+    /**
+     * Determines whether or not this interval shares at least one point with the interval {@code [low, high]}.
+     *
+     * @param low  the low endpoint of the other interval
+     * @param high the high endpoint of the other interval
+     * @return true iff the intervals overlap
+     */
+    public boolean overlaps(T low, T high) {
+        return this.low.compareTo(high) <= 0 && low.compareTo(this.high) <= 0;
+    }
+
+    /**
+     * Determines whether or not this interval shares at least one point with another interval.
+     *
+     * @param other the other interval
+     * @return true iff the intervals overlap
+     */
+    public boolean overlaps(Interval<T> other) {
+        return overlaps(other.low, other.high);
+    }
+
+    @Override
+    public int compareTo(Interval<T> other) {
+        int cmp = low.compareTo(other.low);
+        return cmp != 0 ? cmp : high.compareTo(other.high);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Interval<?> interval = (Interval<?>) o;
+
+        if (!low.equals(interval.low)) return false;
+        return high.equals(interval.high);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * low.hashCode() + high.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + low + ", " + high + "]";
+    }
+
+}
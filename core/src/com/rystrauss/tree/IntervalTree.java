@@ -0,0 +1,136 @@
+package com.rystrauss.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of an interval tree, as an {@link AVLTree} of intervals augmented with the maximum high endpoint
+ * of each subtree.
+ * <p>
+ * Intervals are kept in order of their low endpoints, and the maximum endpoint of every subtree is recomputed
+ * bottom-up whenever the subtree changes, including during rotations, so additions and removals still take
+ * O(log n) time. A query can then skip any subtree whose maximum endpoint lies before the query, as well as every
+ * subtree to the right of an interval that starts after it. Finding some interval that overlaps a query takes
+ * O(log n) time, and reporting all k of them takes O(min(n, (k + 1) log n)) time.
+ *
+ * @param <T> the type of the endpoints of the intervals; must be comparable
+ * @author Ryan Strauss
+ */
+public class IntervalTree<T extends Comparable<T>> extends AVLTree<Interval<T>> {
+
+    /**
+     * Constructs an empty interval tree.
+     */
+    public IntervalTree() {
+        super();
+    }
+
+    @Override
+    Node<Interval<T>> newNode(Interval<T> interval) {
+        return new IntervalNode<>(interval);
+    }
+
+    /**
+     * Finds the intervals that contain a point.
+     *
+     * @param point the point to look for
+     * @return a list of the intervals that contain {@code point}, in ascending order
+     */
+    public List<Interval<T>> stab(T point) {
+        List<Interval<T>> intervals = new ArrayList<>();
+        collectOverlapping(this.root, point, point, intervals);
+        return intervals;
+    }
+
+    /**
+     * Finds the intervals that overlap the interval {@code [low, high]}.
+     *
+     * @param low  the low endpoint of the query
+     * @param high the high endpoint of the query
+     * @return a list of the intervals that share at least one point with {@code [low, high]}, in ascending order
+     * @throws IllegalArgumentException if {@code low} is greater than {@code high}
+     */
+    public List<Interval<T>> overlapping(T low, T high) throws IllegalArgumentException {
+        if (low.compareTo(high) > 0)
+            throw new IllegalArgumentException("The low endpoint cannot be greater than the high endpoint.");
+
+        List<Interval<T>> intervals = new ArrayList<>();
+        collectOverlapping(this.root, low, high, intervals);
+        return intervals;
+    }
+
+    /**
+     * Finds an interval that overlaps the interval {@code [low, high]}, in O(log n) time.
+     *
+     * @param low  the low endpoint of the query
+     * @param high the high endpoint of the query
+     * @return an interval that shares at least one point with {@code [low, high]}, or null if there is none
+     * @throws IllegalArgumentException if {@code low} is greater than {@code high}
+     */
+    public Interval<T> findOverlapping(T low, T high) throws IllegalArgumentException {
+        if (low.compareTo(high) > 0)
+            throw new IllegalArgumentException("The low endpoint cannot be greater than the high endpoint.");
+
+        Node<Interval<T>> node = this.root;
+        while (node != null && !node.data.overlaps(low, high)) {
+            // If the left subtree reaches the query but has no overlap, every interval in it ends before the query
+            // ends, and so every interval to the right starts after the query ends.
+            if (node.left != null && maximum(node.left).compareTo(low) >= 0)
+                node = node.left;
+            else
+                node = node.right;
+        }
+        return node == null ? null : node.data;
+    }
+
+    /**
+     * Adds the intervals of a subtree that overlap {@code [low, high]} to a list, in ascending order.
+     */
+    private static <T extends Comparable<T>> void collectOverlapping(Node<Interval<T>> currentRoot, T low, T high,
+                                                                     List<Interval<T>> intervals) {
+        if (currentRoot == null || maximum(currentRoot).compareTo(low) < 0)
+            return;
+
+        collectOverlapping(currentRoot.left, low, high, intervals);
+
+        // Every interval in the right subtree starts no earlier than this one.
+        if (currentRoot.data.getLow().compareTo(high) > 0)
+            return;
+        if (currentRoot.data.getHigh().compareTo(low) >= 0)
+            intervals.add(currentRoot.data);
+
+        collectOverlapping(currentRoot.right, low, high, intervals);
+    }
+
+    /**
+     * Returns the maximum high endpoint in a (non-null) subtree.
+     */
+    private static <T extends Comparable<T>> T maximum(Node<Interval<T>> currentRoot) {
+        return ((IntervalNode<T>) currentRoot).max;
+    }
+
+    /**
+     * A node that records the maximum high endpoint of the intervals in its subtree.
+     */
+    static final class IntervalNode<T extends Comparable<T>> extends Node<Interval<T>> {
+
+        T max;
+
+        IntervalNode(Interval<T> data) {
+            super(data);
+            this.max = data.getHigh();
+        }
+
+        @Override
+        void update() {
+            T max = data.getHigh();
+            if (left != null && maximum(left).compareTo(max) > 0)
+                max = maximum(left);
+            if (right != null && maximum(right).compareTo(max) > 0)
+                max = maximum(right);
+            this.max = max;
+        }
+
+    }
+
+}
@@ -0,0 +1,429 @@
+package com.rystrauss.tree;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of a lock-free skip list, an ordered set that can be read and modified by many threads at once.
+ * <p>
+ * This is the skip list of Herlihy and Shavit (The Art of Multiprocessor Programming, chapter 14). Every node
+ * holds a tower of next references, each of which carries a mark bit. An element is removed by marking its tower
+ * from the top down; the mark on the bottom level is the point at which the removal takes effect, and marked nodes
+ * are unlinked by whichever thread next passes them. Insertions link a node in at the bottom level first, which is
+ * the point at which the insertion takes effect, and then at each level above. No operation ever blocks, and
+ * {@link #contains(Comparable)} never even retries.
+ * <p>
+ * The API mirrors that of {@link AVLTree}. Iteration, {@link #size()} and the other aggregate queries are weakly
+ * consistent: they reflect some of the modifications made concurrently with them, but never fail.
+ *
+ * @param <E> the type of elements in the set; must be comparable
+ * @author Ryan Strauss
+ */
+public class LockFreeSkipList<E extends Comparable<E>> implements Iterable<E> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final SkipNode<E> head;
+    private final LongAdder size;
+    // The highest level that any node has used; searches start here rather than at the top of the head's tower.
+    private final AtomicInteger highestLevel;
+
+    /**
+     * Constructs an empty skip list.
+     */
+    public LockFreeSkipList() {
+        this.head = new SkipNode<>(null, MAX_LEVEL - 1);
+        this.size = new LongAdder();
+        this.highestLevel = new AtomicInteger();
+    }
+
+    /**
+     * Adds an element to the set.
+     *
+     * @param element the element to be added to the set
+     * @return true iff the element was successfully added (i.e. the element was not already in the set)
+     */
+    public boolean add(E element) {
+        if (element == null)
+            throw new NullPointerException("Trying to add null pointer to skip list.");
+
+        int topLevel = randomLevel();
+        highestLevel.accumulateAndGet(topLevel, Math::max);
+        SkipNode<E>[] preds = newTower(), succs = newTower();
+
+        while (true) {
+            if (find(element, preds, succs))
+                return false;
+
+            SkipNode<E> node = new SkipNode<>(element, topLevel);
+            for (int level = 0; level <= topLevel; level++)
+                node.next[level].set(succs[level], false);
+
+            // Linking the bottom level is the point at which the element joins the set.
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false))
+                continue;
+            size.increment();
+
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    SkipNode<E> pred = preds[level], succ = succs[level];
+
+                    // Point the new node past any nodes inserted since it was created; a mark means it is
+                    // already being removed, in which case it need not be linked any higher.
+                    SkipNode<E> current = node.next[level].getReference();
+                    if (current != succ && !node.next[level].compareAndSet(current, succ, false, false))
+                        return true;
+
+                    if (pred.next[level].compareAndSet(succ, node, false, false))
+                        break;
+                    find(element, preds, succs);
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Removes an element from the set.
+     *
+     * @param element the element to remove
+     * @return true iff the element was successfully removed from the set (i.e. if the element was in the set)
+     */
+    public boolean remove(E element) {
+        SkipNode<E>[] preds = newTower(), succs = newTower();
+        if (!find(element, preds, succs))
+            return false;
+
+        SkipNode<E> victim = succs[0];
+        boolean[] marked = {false};
+
+        // Mark the upper levels, which removes the node from the index without removing it from the set.
+        for (int level = victim.topLevel; level >= 1; level--) {
+            SkipNode<E> succ = victim.next[level].get(marked);
+            while (!marked[0]) {
+                victim.next[level].attemptMark(succ, true);
+                succ = victim.next[level].get(marked);
+            }
+        }
+
+        // Marking the bottom level is the point at which the element leaves the set; only one thread succeeds.
+        SkipNode<E> succ = victim.next[0].get(marked);
+        while (true) {
+            boolean markedByThisThread = victim.next[0].compareAndSet(succ, succ, false, true);
+            succ = victim.next[0].get(marked);
+            if (markedByThisThread) {
+                size.decrement();
+                find(element, preds, succs);
+                return true;
+            } else if (marked[0])
+                return false;
+        }
+    }
+
+    /**
+     * Determines whether or not an element is in the set. This never modifies the list and never retries.
+     *
+     * @param element the element to check for
+     * @return true iff the element is currently in the set
+     */
+    public boolean contains(E element) {
+        SkipNode<E> node = ceilingNode(element, true);
+        return node != null && node.value.compareTo(element) == 0;
+    }
+
+    /**
+     * Returns the minimum element of the set.
+     *
+     * @return the minimum element of the set, or null if the set is empty
+     */
+    public E minimumElement() {
+        SkipNode<E> node = nextUnmarked(head, 0);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the maximum element of the set.
+     *
+     * @return the maximum element of the set, or null if the set is empty
+     */
+    public E maximumElement() {
+        SkipNode<E> pred = head;
+        for (int level = highestLevel.get(); level >= 0; level--) {
+            SkipNode<E> curr = nextUnmarked(pred, level);
+            while (curr != null) {
+                pred = curr;
+                curr = nextUnmarked(pred, level);
+            }
+        }
+        return pred == head ? null : pred.value;
+    }
+
+    /**
+     * Returns the least element in the set greater than or equal to the given element.
+     *
+     * @param element the element to be matched
+     * @return the least element greater than or equal to {@code element}, or null if there is no such element
+     */
+    public E ceiling(E element) {
+        SkipNode<E> node = ceilingNode(element, true);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the least element in the set strictly greater than the given element.
+     *
+     * @param element the element to be matched
+     * @return the least element greater than {@code element}, or null if there is no such element
+     */
+    public E higher(E element) {
+        SkipNode<E> node = ceilingNode(element, false);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the greatest element in the set less than or equal to the given element.
+     *
+     * @param element the element to be matched
+     * @return the greatest element less than or equal to {@code element}, or null if there is no such element
+     */
+    public E floor(E element) {
+        SkipNode<E> pred = predecessorOf(element, false);
+        return pred == null ? null : pred.value;
+    }
+
+    /**
+     * Returns the greatest element in the set strictly less than the given element.
+     *
+     * @param element the element to be matched
+     * @return the greatest element less than {@code element}, or null if there is no such element
+     */
+    public E lower(E element) {
+        SkipNode<E> pred = predecessorOf(element, true);
+        return pred == null ? null : pred.value;
+    }
+
+    /**
+     * Returns the elements of the set that lie in a range, in ascending order. The first element is found with a
+     * single descent, and the elements are then produced lazily.
+     *
+     * @param from the smallest element of the range (inclusive)
+     * @param to   the end of the range (exclusive)
+     * @return the elements in {@code [from, to)}, iterated with the same weak consistency as the whole set
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     */
+    public Iterable<E> subSet(E from, E to) throws IllegalArgumentException {
+        if (from.compareTo(to) > 0)
+            throw new IllegalArgumentException("The start of the range must not be greater than its end.");
+
+        return () -> new SkipListIterator(ceilingNode(from, true), to);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements of the set in ascending order.
+     *
+     * @return an iterator over the elements of the set
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SkipListIterator(nextUnmarked(head, 0), null);
+    }
+
+    /**
+     * Performs an in-order traversal of the set.
+     *
+     * @return an {@code ArrayList} containing the elements of the set in ascending order
+     */
+    public ArrayList<E> inOrder() {
+        ArrayList<E> elements = new ArrayList<>();
+        for (E e : this)
+            elements.add(e);
+        return elements;
+    }
+
+    /**
+     * Gets the size of the set. The count is exact when there are no concurrent modifications.
+     *
+     * @return the number of elements in the set
+     */
+    public int size() {
+        return (int) size.sum();
+    }
+
+    /**
+     * Determines whether or not the set is empty.
+     *
+     * @return true iff the set contained no elements at some point during the call
+     */
+    public boolean isEmpty() {
+        return nextUnmarked(head, 0) == null;
+    }
+
+    /**
+     * Finds the predecessor and successor of an element on every level, unlinking any marked nodes that are
+     * passed along the way.
+     *
+     * @param element the element being searched for
+     * @param preds   filled with the last node on each level whose element is less than {@code element}
+     * @param succs   filled with the node that follows the predecessor on each level
+     * @return true iff the bottom-level successor contains {@code element}
+     */
+    private boolean find(E element, SkipNode<E>[] preds, SkipNode<E>[] succs) {
+        boolean[] marked = {false};
+
+        retry:
+        while (true) {
+            SkipNode<E> pred = head;
+            int top = highestLevel.get();
+            for (int level = MAX_LEVEL - 1; level > top; level--) {
+                preds[level] = head;
+                succs[level] = head.next[level].getReference();
+            }
+            for (int level = top; level >= 0; level--) {
+                SkipNode<E> curr = pred.next[level].getReference();
+                while (curr != null) {
+                    SkipNode<E> succ = curr.next[level].get(marked);
+                    if (marked[0]) {
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false))
+                            continue retry;
+                        curr = succ;
+                    } else if (curr.value.compareTo(element) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else
+                        break;
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0] != null && succs[0].value.compareTo(element) == 0;
+        }
+    }
+
+    /**
+     * Finds the first unmarked node whose element is at least (or, if not inclusive, greater than) the given
+     * element, without modifying the list.
+     */
+    private SkipNode<E> ceilingNode(E element, boolean inclusive) {
+        SkipNode<E> pred = head, curr = null;
+        for (int level = highestLevel.get(); level >= 0; level--) {
+            curr = nextUnmarked(pred, level);
+            while (curr != null && before(curr.value, element, inclusive)) {
+                pred = curr;
+                curr = nextUnmarked(pred, level);
+            }
+        }
+        return curr;
+    }
+
+    /**
+     * Finds the last unmarked node whose element is less than (or, if not strict, at most) the given element,
+     * without modifying the list.
+     */
+    private SkipNode<E> predecessorOf(E element, boolean strict) {
+        SkipNode<E> pred = head;
+        for (int level = highestLevel.get(); level >= 0; level--) {
+            SkipNode<E> curr = nextUnmarked(pred, level);
+            while (curr != null && before(curr.value, element, strict)) {
+                pred = curr;
+                curr = nextUnmarked(pred, level);
+            }
+        }
+        return pred == head ? null : pred;
+    }
+
+    /**
+     * Determines whether a value comes before the given element: strictly below it if {@code strict}, or at most
+     * equal to it otherwise.
+     */
+    private boolean before(E value, E element, boolean strict) {
+        int cmp = value.compareTo(element);
+        return strict ? cmp < 0 : cmp <= 0;
+    }
+
+    /**
+     * Returns the first node after a node on a level that is not marked for removal.
+     */
+    private SkipNode<E> nextUnmarked(SkipNode<E> node, int level) {
+        SkipNode<E> curr = node.next[level].getReference();
+        while (curr != null && curr.next[level].isMarked())
+            curr = curr.next[level].getReference();
+        return curr;
+    }
+
+    /**
+     * Creates an array with room for a node on every level, as used to record the predecessors and successors found
+     * by a search.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> SkipNode<E>[] newTower() {
+        return (SkipNode<E>[]) new SkipNode<?>[MAX_LEVEL];
+    }
+
+    /**
+     * Chooses the top level of a new node, such that each level is used by half as many nodes as the one below.
+     */
+    private static int randomLevel() {
+        return Math.min(Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()), MAX_LEVEL - 1);
+    }
+
+    /**
+     * A node of the skip list, with a tower of markable next references.
+     */
+    private static final class SkipNode<E> {
+
+        final E value;
+        final int topLevel;
+        final AtomicMarkableReference<SkipNode<E>>[] next;
+
+        @SuppressWarnings("unchecked")
+        SkipNode(E value, int topLevel) {
+            this.value = value;
+            this.topLevel = topLevel;
+            this.next = (AtomicMarkableReference<SkipNode<E>>[]) new AtomicMarkableReference<?>[topLevel + 1];
+            for (int level = 0; level <= topLevel; level++)
+                next[level] = new AtomicMarkableReference<>(null, false);
+        }
+
+    }
+
+    /**
+     * Walks the bottom level of the list, skipping marked nodes, up to an optional exclusive upper bound.
+     */
+    private final class SkipListIterator implements Iterator<E> {
+
+        private SkipNode<E> next;
+        private final E to;
+
+        SkipListIterator(SkipNode<E> first, E to) {
+            this.next = first;
+            this.to = to;
+            if (next != null && to != null && next.value.compareTo(to) >= 0)
+                this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null)
+                throw new NoSuchElementException();
+
+            E element = next.value;
+            next = nextUnmarked(next, 0);
+            if (next != null && to != null && next.value.compareTo(to) >= 0)
+                next = null;
+            return element;
+        }
+
+    }
+
+}
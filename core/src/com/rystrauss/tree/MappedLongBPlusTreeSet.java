@@ -0,0 +1,907 @@
+package com.rystrauss.tree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.zip.CRC32;
+
+/**
+ * Implementation of a disk-backed B+ tree storing a set of primitive {@code long} keys in a memory-mapped file.
+ * <p>
+ * The file is a sequence of fixed-size pages, each holding one node of the tree. Opening a set only reads its
+ * header, so startup takes constant time however large the set is, and nodes are decoded on demand into a
+ * bounded cache of recently used pages, so heap usage does not grow with the size of the set.
+ * <p>
+ * Pages are never modified in place. A change copies the nodes on the path to it in memory, and
+ * {@link #commit()} appends those dirty nodes to unused pages, forces them to disk, and only then writes a header
+ * pointing to the new root. The header alternates between two slots and carries a checksum, so a crash at any
+ * point leaves the file at its last committed state. Pages replaced by a commit are reused by later commits. When a
+ * set is reopened, the first commit finds the pages that the committed tree no longer reaches by reading its
+ * internal pages (never its leaves), and reuses those too, so the file does not keep growing across sessions.
+ * The file never shrinks, however.
+ * <p>
+ * Changes are held in memory until they are committed, which happens automatically when the set is closed. A set
+ * holds at most {@code Integer.MAX_VALUE} keys.
+ *
+ * @author Ryan Strauss
+ */
+public class MappedLongBPlusTreeSet implements Iterable<Long>, Closeable {
+
+    /**
+     * The size, in bytes, of each page of the file.
+     */
+    public static final int PAGE_SIZE = 4096;
+
+    /**
+     * The default number of decoded pages kept in memory.
+     */
+    public static final int DEFAULT_CACHED_PAGES = 1024;
+
+    // Each page begins with an int flag (nonzero for leaves) and an int count of keys.
+    private static final int PAGE_HEADER = 8;
+    private static final int LEAF_CAPACITY = (PAGE_SIZE - PAGE_HEADER) / 8;
+    private static final int INTERNAL_CAPACITY = (PAGE_SIZE - PAGE_HEADER - 8) / 16;
+
+    // The file is mapped in segments of this many pages.
+    private static final int PAGES_PER_SEGMENT = 4096;
+    private static final long SEGMENT_SIZE = (long) PAGES_PER_SEGMENT * PAGE_SIZE;
+
+    // Pages 0 and 1 hold the two header slots.
+    private static final long MAGIC = 0x4250545245455345L;
+    private static final int HEADER_SLOTS = 2;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments;
+    private final BitSet touchedSegments;
+    private final Map<Long, Page> cache;
+    private final Map<Long, Page> dirty;
+    private final List<Long> freePages, freedPages;
+    private long version, rootId, pageCount, nextTemporaryId;
+    // The root that a reopened set was committed with, from which its free pages are found at the first commit.
+    private long openedRootId;
+    private int size;
+    private boolean closed, reclaimed;
+
+    /**
+     * Opens a set stored in a file with the default page cache size, creating the file if it does not exist.
+     *
+     * @param file the file containing the set
+     * @throws IOException if the file cannot be opened or does not contain a valid set
+     */
+    public MappedLongBPlusTreeSet(Path file) throws IOException {
+        this(file, DEFAULT_CACHED_PAGES);
+    }
+
+    /**
+     * Opens a set stored in a file, creating the file if it does not exist.
+     *
+     * @param file        the file containing the set
+     * @param cachedPages the maximum number of decoded pages kept in memory
+     * @throws IOException              if the file cannot be opened or does not contain a valid set
+     * @throws IllegalArgumentException if {@code cachedPages} is not positive
+     */
+    public MappedLongBPlusTreeSet(Path file, int cachedPages) throws IOException, IllegalArgumentException {
+        if (cachedPages < 1)
+            throw new IllegalArgumentException("At least one page must be cached.");
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.segments = new ArrayList<>();
+        this.touchedSegments = new BitSet();
+        this.cache = new LinkedHashMap<Long, Page>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Page> eldest) {
+                return size() > cachedPages;
+            }
+        };
+        this.dirty = new HashMap<>();
+        this.freePages = new ArrayList<>();
+        this.freedPages = new ArrayList<>();
+        this.nextTemporaryId = -1;
+
+        try {
+            if (channel.size() == 0) {
+                this.reclaimed = true;
+                this.pageCount = HEADER_SLOTS;
+                Page root = newPage(true);
+                this.rootId = root.id;
+                commit();
+            } else if (!readHeader()) {
+                throw new IOException("The file does not contain a valid set.");
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a key to the set.
+     *
+     * @param key the key to be added
+     * @return true iff the set did not already contain the key
+     * @throws IllegalStateException if the set already holds {@code Integer.MAX_VALUE} keys
+     */
+    public boolean add(long key) throws IllegalStateException {
+        if (contains(key))
+            return false;
+        if (size == Integer.MAX_VALUE)
+            throw new IllegalStateException("The set cannot hold more than Integer.MAX_VALUE keys.");
+
+        Page node = mutableRoot();
+        if (node.size == capacity(node)) {
+            Page newRoot = newPage(false);
+            newRoot.children[0] = node.id;
+            splitChild(newRoot, 0);
+            rootId = newRoot.id;
+            node = newRoot;
+        }
+
+        while (!node.leaf) {
+            int c = childIndex(node, key);
+            Page child = mutableChild(node, c);
+            if (child.size == capacity(child)) {
+                splitChild(node, c);
+                if (key >= node.keys[c])
+                    child = page(node.children[++c]);
+            }
+            node = child;
+        }
+
+        int i = -Arrays.binarySearch(node.keys, 0, node.size, key) - 1;
+        System.arraycopy(node.keys, i, node.keys, i + 1, node.size - i);
+        node.keys[i] = key;
+        node.size++;
+        size++;
+
+        return true;
+    }
+
+    /**
+     * Removes a key from the set.
+     *
+     * @param key the key to be removed
+     * @return true iff the set contained the key
+     */
+    public boolean remove(long key) {
+        if (!contains(key))
+            return false;
+
+        Page node = mutableRoot();
+        while (!node.leaf) {
+            int c = childIndex(node, key);
+            Page child = mutableChild(node, c);
+            if (child.size <= minKeys(child)) {
+                c = refill(node, c);
+                child = page(node.children[c]);
+            }
+
+            // Only the root can be left without keys, when its last two children are merged.
+            if (node.size == 0) {
+                dirty.remove(node.id);
+                rootId = child.id;
+            }
+            node = child;
+        }
+
+        int i = Arrays.binarySearch(node.keys, 0, node.size, key);
+        System.arraycopy(node.keys, i + 1, node.keys, i, node.size - i - 1);
+        node.size--;
+        size--;
+
+        return true;
+    }
+
+    /**
+     * Determines whether or not the set contains a key.
+     *
+     * @param key the key to check for
+     * @return true iff the set contains {@code key}
+     */
+    public boolean contains(long key) {
+        ensureOpen();
+
+        Page node = page(rootId);
+        while (!node.leaf)
+            node = page(node.children[childIndex(node, key)]);
+        return Arrays.binarySearch(node.keys, 0, node.size, key) >= 0;
+    }
+
+    /**
+     * Returns the smallest key in the set.
+     *
+     * @return the smallest key in the set
+     * @throws NoSuchElementException if the set is empty
+     */
+    public long first() throws NoSuchElementException {
+        ensureOpen();
+        if (size == 0)
+            throw new NoSuchElementException("The set is empty.");
+
+        Page node = page(rootId);
+        while (!node.leaf)
+            node = page(node.children[0]);
+        return node.keys[0];
+    }
+
+    /**
+     * Returns the largest key in the set.
+     *
+     * @return the largest key in the set
+     * @throws NoSuchElementException if the set is empty
+     */
+    public long last() throws NoSuchElementException {
+        ensureOpen();
+        if (size == 0)
+            throw new NoSuchElementException("The set is empty.");
+
+        Page node = page(rootId);
+        while (!node.leaf)
+            node = page(node.children[node.size]);
+        return node.keys[node.size - 1];
+    }
+
+    /**
+     * Returns the greatest key less than or equal to the given key.
+     *
+     * @param key the key to search for
+     * @return the greatest key less than or equal to {@code key}, or null if there is no such key
+     */
+    public Long floor(long key) {
+        return floor(key, true);
+    }
+
+    /**
+     * Returns the least key greater than or equal to the given key.
+     *
+     * @param key the key to search for
+     * @return the least key greater than or equal to {@code key}, or null if there is no such key
+     */
+    public Long ceiling(long key) {
+        return ceiling(key, true);
+    }
+
+    /**
+     * Returns the least key strictly greater than the given key.
+     *
+     * @param key the key to search for
+     * @return the least key greater than {@code key}, or null if there is no such key
+     */
+    public Long higher(long key) {
+        return ceiling(key, false);
+    }
+
+    /**
+     * Returns the greatest key strictly less than the given key.
+     *
+     * @param key the key to search for
+     * @return the greatest key less than {@code key}, or null if there is no such key
+     */
+    public Long lower(long key) {
+        return floor(key, false);
+    }
+
+    /**
+     * Finds the greatest key less than (or, if {@code inclusive}, equal to) a key.
+     */
+    private Long floor(long key, boolean inclusive) {
+        ensureOpen();
+
+        // The subtree just to the left of the deepest point where the search went right of some child.
+        Page node = page(rootId), before = null;
+        while (!node.leaf) {
+            int c = childIndex(node, key);
+            if (c > 0)
+                before = page(node.children[c - 1]);
+            node = page(node.children[c]);
+        }
+
+        int i = Arrays.binarySearch(node.keys, 0, node.size, key);
+        i = i >= 0 ? (inclusive ? i : i - 1) : -i - 2;
+        if (i >= 0)
+            return node.keys[i];
+        if (before == null)
+            return null;
+
+        while (!before.leaf)
+            before = page(before.children[before.size]);
+        return before.keys[before.size - 1];
+    }
+
+    /**
+     * Finds the least key greater than (or, if {@code inclusive}, equal to) a key.
+     */
+    private Long ceiling(long key, boolean inclusive) {
+        ensureOpen();
+
+        // The subtree just to the right of the deepest point where the search went left of some child.
+        Page node = page(rootId), after = null;
+        while (!node.leaf) {
+            int c = childIndex(node, key);
+            if (c < node.size)
+                after = page(node.children[c + 1]);
+            node = page(node.children[c]);
+        }
+
+        int i = Arrays.binarySearch(node.keys, 0, node.size, key);
+        i = i >= 0 ? (inclusive ? i : i + 1) : -i - 1;
+        if (i < node.size)
+            return node.keys[i];
+        if (after == null)
+            return null;
+
+        while (!after.leaf)
+            after = page(after.children[0]);
+        return after.keys[0];
+    }
+
+    /**
+     * Returns an iterator over the keys of the set in ascending order. The set must not be modified while the
+     * iterator is in use.
+     *
+     * @return an iterator over the keys of the set
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        ensureOpen();
+
+        return new PrimitiveIterator.OfLong() {
+            // The pages on the path to the current leaf, and the index of the child taken from each.
+            private final List<Page> path = new ArrayList<>();
+            private final List<Integer> indices = new ArrayList<>();
+            private Page leaf = descend(page(rootId));
+            private int index = 0;
+
+            private Page descend(Page node) {
+                while (!node.leaf) {
+                    path.add(node);
+                    indices.add(0);
+                    node = page(node.children[0]);
+                }
+                return node;
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (leaf != null && index >= leaf.size) {
+                    // Climb to the nearest ancestor with an unvisited child, then descend to its leftmost leaf.
+                    int depth = path.size() - 1;
+                    while (depth >= 0 && indices.get(depth) == path.get(depth).size) {
+                        path.remove(depth);
+                        indices.remove(depth--);
+                    }
+
+                    if (depth < 0) {
+                        leaf = null;
+                    } else {
+                        int c = indices.get(depth) + 1;
+                        indices.set(depth, c);
+                        leaf = descend(page(path.get(depth).children[c]));
+                        index = 0;
+                    }
+                }
+                return leaf != null;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return leaf.keys[index++];
+            }
+        };
+    }
+
+    /**
+     * Gets the number of keys in the set, which is at most {@code Integer.MAX_VALUE}.
+     *
+     * @return the number of keys in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether or not the set is empty.
+     *
+     * @return true iff the set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Makes all changes since the last commit durable. The dirty pages are appended to unused pages of the file
+     * and forced to disk before the header that refers to them is written, so the file holds either the previous
+     * state or the new one if the process crashes during the commit.
+     *
+     * @throws IOException if the changes cannot be written
+     */
+    public void commit() throws IOException {
+        ensureOpen();
+        if (dirty.isEmpty() && version > 0)
+            return;
+        if (!reclaimed) {
+            reclaimFreePages();
+            reclaimed = true;
+        }
+
+        rootId = write(page(rootId));
+        for (int s = touchedSegments.nextSetBit(0); s >= 0; s = touchedSegments.nextSetBit(s + 1))
+            segments.get(s).force();
+        touchedSegments.clear();
+
+        writeHeader(version + 1);
+        segments.get(0).force();
+        touchedSegments.clear();
+        version++;
+
+        // The new header no longer refers to the pages that were replaced, and the other header slot now holds
+        // this version, so a later commit can overwrite them safely.
+        freePages.addAll(freedPages);
+        freedPages.clear();
+        dirty.clear();
+        nextTemporaryId = -1;
+    }
+
+    /**
+     * Commits any outstanding changes and closes the file.
+     *
+     * @throws IOException if the changes cannot be written or the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+
+        try {
+            commit();
+        } finally {
+            closed = true;
+            cache.clear();
+            segments.clear();
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("The set has been closed.");
+    }
+
+    /**
+     * Writes a dirty page, after first writing any of its children that are dirty, to an unused page of the file.
+     *
+     * @return the number of the page it was written to
+     */
+    private long write(Page node) throws IOException {
+        if (node.id >= 0)
+            return node.id;
+
+        if (!node.leaf) {
+            for (int i = 0; i <= node.size; i++) {
+                if (node.children[i] < 0)
+                    node.children[i] = write(dirty.get(node.children[i]));
+            }
+        }
+
+        long id = freePages.isEmpty() ? pageCount++ : freePages.remove(freePages.size() - 1);
+        MappedByteBuffer segment = segment(id);
+        int offset = offset(id);
+        segment.putInt(offset, node.leaf ? 1 : 0);
+        segment.putInt(offset + 4, node.size);
+        offset += PAGE_HEADER;
+        for (int i = 0; i < node.size; i++, offset += 8)
+            segment.putLong(offset, node.keys[i]);
+        if (!node.leaf) {
+            for (int i = 0; i <= node.size; i++, offset += 8)
+                segment.putLong(offset, node.children[i]);
+        }
+
+        node.id = id;
+        cache.put(id, node);
+        return id;
+    }
+
+    /**
+     * Reads the newer of the two header slots that holds a valid header. The slots are read through the channel
+     * and checked before anything is mapped, so a file that is not a set is rejected without being extended.
+     *
+     * @return true iff a valid header was found
+     */
+    private boolean readHeader() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SLOTS * PAGE_SIZE)
+            return false;
+
+        ByteBuffer slots = ByteBuffer.allocate(HEADER_SLOTS * PAGE_SIZE);
+        while (slots.hasRemaining()) {
+            if (channel.read(slots, slots.position()) < 0)
+                return false;
+        }
+
+        boolean found = false;
+        for (int slot = 0; slot < HEADER_SLOTS; slot++) {
+            int offset = slot * PAGE_SIZE;
+            if (slots.getLong(offset) != MAGIC || slots.getLong(offset + 40) != headerChecksum(slots, offset))
+                continue;
+
+            long slotVersion = slots.getLong(offset + 8), slotRoot = slots.getLong(offset + 16);
+            long slotSize = slots.getLong(offset + 24), slotPages = slots.getLong(offset + 32);
+            if (slotPages <= HEADER_SLOTS || slotPages > fileSize / PAGE_SIZE || slotRoot < HEADER_SLOTS ||
+                    slotRoot >= slotPages || slotSize < 0 || slotSize > Integer.MAX_VALUE)
+                continue;
+
+            if (!found || slotVersion > version) {
+                found = true;
+                version = slotVersion;
+                rootId = slotRoot;
+                size = (int) slotSize;
+                pageCount = slotPages;
+            }
+        }
+        if (!found)
+            return false;
+
+        // Map every committed page now, so that reading a page never has to touch the file.
+        openedRootId = rootId;
+        for (long id = 0; id < pageCount; id += PAGES_PER_SEGMENT)
+            segment(id);
+        return true;
+    }
+
+    /**
+     * Adds every page that the tree committed before the set was opened does not reach to the free list. Only
+     * internal pages are read: all leaves are at the same depth, so the leaves are known from their parents.
+     *
+     * @throws IOException if the tree refers to a page outside the file
+     */
+    private void reclaimFreePages() throws IOException {
+        // Count the internal levels along the leftmost path. A tree of valid pages is far shallower than the limit.
+        int internalLevels = 0;
+        for (long id = openedRootId; !isLeaf(id); internalLevels++) {
+            if (internalLevels == Long.SIZE)
+                throw new IOException("The file does not contain a valid set.");
+            id = childAt(id, 0);
+        }
+
+        BitSet reachable = new BitSet();
+        reachable.set(0, HEADER_SLOTS);
+        markReachable(openedRootId, internalLevels, reachable);
+
+        for (int id = reachable.nextClearBit(HEADER_SLOTS); id < pageCount; id = reachable.nextClearBit(id + 1))
+            freePages.add((long) id);
+    }
+
+    /**
+     * Marks a committed page and, if it has {@code internalLevels} levels of internal pages at and below it, the
+     * pages in its subtree as reachable.
+     */
+    private void markReachable(long id, int internalLevels, BitSet reachable) throws IOException {
+        if (id < HEADER_SLOTS || id >= pageCount || reachable.get((int) id))
+            throw new IOException("The file does not contain a valid set.");
+
+        reachable.set((int) id);
+        if (internalLevels == 0)
+            return;
+
+        int keys = segments.get(segmentIndex(id)).getInt(offset(id) + 4);
+        for (int i = 0; i <= keys; i++)
+            markReachable(childAt(id, i), internalLevels - 1, reachable);
+    }
+
+    /**
+     * Reads whether a committed page is a leaf directly from the file, without decoding or caching it.
+     */
+    private boolean isLeaf(long id) throws IOException {
+        if (id < HEADER_SLOTS || id >= pageCount)
+            throw new IOException("The file does not contain a valid set.");
+        return segments.get(segmentIndex(id)).getInt(offset(id)) != 0;
+    }
+
+    /**
+     * Reads child {@code i} of a committed internal page directly from the file, without decoding or caching it.
+     */
+    private long childAt(long id, int i) throws IOException {
+        MappedByteBuffer segment = segments.get(segmentIndex(id));
+        int offset = offset(id), keys = segment.getInt(offset + 4);
+        if (keys < 0 || keys > INTERNAL_CAPACITY)
+            throw new IOException("The file does not contain a valid set.");
+        return segment.getLong(offset + PAGE_HEADER + 8 * (keys + i));
+    }
+
+    /**
+     * Writes a header for a new version to the slot that does not hold the current version.
+     */
+    private void writeHeader(long newVersion) throws IOException {
+        MappedByteBuffer segment = segment(0);
+        int offset = (int) (newVersion % HEADER_SLOTS) * PAGE_SIZE;
+        segment.putLong(offset, MAGIC);
+        segment.putLong(offset + 8, newVersion);
+        segment.putLong(offset + 16, rootId);
+        segment.putLong(offset + 24, size);
+        segment.putLong(offset + 32, pageCount);
+        segment.putLong(offset + 40, headerChecksum(segment, offset));
+    }
+
+    private static long headerChecksum(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < 40; i++)
+            crc.update(buffer.get(offset + i));
+        return crc.getValue();
+    }
+
+    /**
+     * Returns the mapped segment of the file that contains a page, mapping it (and extending the file) if needed.
+     */
+    private MappedByteBuffer segment(long id) throws IOException {
+        int s = segmentIndex(id);
+        while (segments.size() <= s)
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * SEGMENT_SIZE, SEGMENT_SIZE));
+        touchedSegments.set(s);
+        return segments.get(s);
+    }
+
+    private static int segmentIndex(long id) {
+        return (int) (id / PAGES_PER_SEGMENT);
+    }
+
+    private static int offset(long id) {
+        return (int) (id % PAGES_PER_SEGMENT) * PAGE_SIZE;
+    }
+
+    /**
+     * Returns a page, decoding it from the file if it is not dirty or cached.
+     */
+    private Page page(long id) {
+        if (id < 0)
+            return dirty.get(id);
+
+        Page node = cache.get(id);
+        if (node != null)
+            return node;
+
+        MappedByteBuffer segment = segments.get(segmentIndex(id));
+        int offset = offset(id);
+        node = new Page(id, segment.getInt(offset) != 0);
+        node.size = segment.getInt(offset + 4);
+        offset += PAGE_HEADER;
+        for (int i = 0; i < node.size; i++, offset += 8)
+            node.keys[i] = segment.getLong(offset);
+        if (!node.leaf) {
+            for (int i = 0; i <= node.size; i++, offset += 8)
+                node.children[i] = segment.getLong(offset);
+        }
+
+        cache.put(id, node);
+        return node;
+    }
+
+    /**
+     * Creates an empty dirty page.
+     */
+    private Page newPage(boolean leaf) {
+        Page node = new Page(nextTemporaryId--, leaf);
+        dirty.put(node.id, node);
+        return node;
+    }
+
+    /**
+     * Returns a dirty copy of a committed page, which replaces the page at the next commit. Dirty pages are
+     * returned as they are.
+     */
+    private Page mutable(Page node) {
+        if (node.id < 0)
+            return node;
+
+        Page copy = newPage(node.leaf);
+        copy.size = node.size;
+        System.arraycopy(node.keys, 0, copy.keys, 0, node.size);
+        if (!node.leaf)
+            System.arraycopy(node.children, 0, copy.children, 0, node.size + 1);
+
+        release(node);
+        return copy;
+    }
+
+    private Page mutableRoot() {
+        ensureOpen();
+        Page root = mutable(page(rootId));
+        rootId = root.id;
+        return root;
+    }
+
+    /**
+     * Returns a dirty version of child {@code c} of a dirty page, pointing the parent to it.
+     */
+    private Page mutableChild(Page parent, int c) {
+        Page child = mutable(page(parent.children[c]));
+        parent.children[c] = child.id;
+        return child;
+    }
+
+    /**
+     * Marks a page that is no longer part of the tree as free once the next commit is durable.
+     */
+    private void release(Page node) {
+        if (node.id < 0) {
+            dirty.remove(node.id);
+        } else {
+            cache.remove(node.id);
+            freedPages.add(node.id);
+        }
+    }
+
+    private static int capacity(Page node) {
+        return node.leaf ? LEAF_CAPACITY : INTERNAL_CAPACITY;
+    }
+
+    private static int minKeys(Page node) {
+        return (capacity(node) - 1) / 2;
+    }
+
+    /**
+     * Finds the child of an internal node that covers a key. Child {@code i} holds the keys greater than or equal
+     * to separator {@code i - 1} and less than separator {@code i}.
+     */
+    private static int childIndex(Page node, long key) {
+        int i = Arrays.binarySearch(node.keys, 0, node.size, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Splits the full, dirty child at index {@code c} of a dirty node that is not full, adding the new right half
+     * and its separator to the node.
+     */
+    private void splitChild(Page parent, int c) {
+        Page child = page(parent.children[c]);
+        Page right = newPage(child.leaf);
+        int capacity = capacity(child), mid = capacity / 2;
+        long separator;
+
+        if (child.leaf) {
+            right.size = capacity - mid;
+            System.arraycopy(child.keys, mid, right.keys, 0, right.size);
+            separator = right.keys[0];
+        } else {
+            // The middle key moves up to the parent rather than being copied.
+            right.size = capacity - mid - 1;
+            System.arraycopy(child.keys, mid + 1, right.keys, 0, right.size);
+            System.arraycopy(child.children, mid + 1, right.children, 0, right.size + 1);
+            separator = child.keys[mid];
+        }
+        child.size = mid;
+
+        System.arraycopy(parent.keys, c, parent.keys, c + 1, parent.size - c);
+        System.arraycopy(parent.children, c + 1, parent.children, c + 2, parent.size - c);
+        parent.keys[c] = separator;
+        parent.children[c + 1] = right.id;
+        parent.size++;
+    }
+
+    /**
+     * Gives the minimal, dirty child at index {@code c} of a dirty node at least one extra key, by borrowing from
+     * a sibling or, if both siblings are minimal too, by merging with one of them.
+     *
+     * @return the index of the child that now covers the range of the original child
+     */
+    private int refill(Page parent, int c) {
+        if (c > 0 && page(parent.children[c - 1]).size > minKeys(page(parent.children[c]))) {
+            borrowFromLeft(parent, c);
+            return c;
+        }
+        if (c < parent.size && page(parent.children[c + 1]).size > minKeys(page(parent.children[c]))) {
+            borrowFromRight(parent, c);
+            return c;
+        }
+        if (c > 0) {
+            merge(parent, c - 1);
+            return c - 1;
+        }
+        merge(parent, c);
+        return c;
+    }
+
+    /**
+     * Moves the last key of the left sibling of child {@code c} into the child.
+     */
+    private void borrowFromLeft(Page parent, int c) {
+        Page child = page(parent.children[c]), left = mutableChild(parent, c - 1);
+        System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+        int last = left.size - 1;
+
+        if (child.leaf) {
+            child.keys[0] = left.keys[last];
+            parent.keys[c - 1] = child.keys[0];
+        } else {
+            System.arraycopy(child.children, 0, child.children, 1, child.size + 1);
+            child.keys[0] = parent.keys[c - 1];
+            child.children[0] = left.children[left.size];
+            parent.keys[c - 1] = left.keys[last];
+        }
+
+        left.size--;
+        child.size++;
+    }
+
+    /**
+     * Moves the first key of the right sibling of child {@code c} into the child.
+     */
+    private void borrowFromRight(Page parent, int c) {
+        Page child = page(parent.children[c]), right = mutableChild(parent, c + 1);
+
+        if (child.leaf) {
+            child.keys[child.size] = right.keys[0];
+        } else {
+            child.keys[child.size] = parent.keys[c];
+            child.children[child.size + 1] = right.children[0];
+            parent.keys[c] = right.keys[0];
+            System.arraycopy(right.children, 1, right.children, 0, right.size);
+        }
+
+        System.arraycopy(right.keys, 1, right.keys, 0, right.size - 1);
+        right.size--;
+        child.size++;
+
+        if (child.leaf)
+            parent.keys[c] = right.keys[0];
+    }
+
+    /**
+     * Merges child {@code i + 1} into child {@code i} and removes their separator from the parent.
+     */
+    private void merge(Page parent, int i) {
+        Page left = mutableChild(parent, i), right = page(parent.children[i + 1]);
+
+        if (left.leaf) {
+            System.arraycopy(right.keys, 0, left.keys, left.size, right.size);
+            left.size += right.size;
+        } else {
+            // The separator comes back down between the two halves.
+            left.keys[left.size] = parent.keys[i];
+            System.arraycopy(right.keys, 0, left.keys, left.size + 1, right.size);
+            System.arraycopy(right.children, 0, left.children, left.size + 1, right.size + 1);
+            left.size += right.size + 1;
+        }
+        release(right);
+
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.size - i - 1);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.size - i - 1);
+        parent.size--;
+    }
+
+    /**
+     * A node of the tree, decoded from a page of the file. Committed pages are identified by their page number
+     * and never change; dirty pages have a negative temporary id until they are written.
+     */
+    private static final class Page {
+
+        long id;
+        final boolean leaf;
+        final long[] keys;
+        final long[] children;
+        int size;
+
+        Page(long id, boolean leaf) {
+            this.id = id;
+            this.leaf = leaf;
+            this.keys = new long[leaf ? LEAF_CAPACITY : INTERNAL_CAPACITY];
+            this.children = leaf ? null : new long[INTERNAL_CAPACITY + 1];
+        }
+
+    }
+
+}
@@ -6,11 +6,12 @@ package com.rystrauss.tree;
  * @param <E> the type of the data contained in the node
  * @author Ryan Strauss
  */
-class Node<E extends Comparable<E>> {
+class Node<E> {
 
     Node<E> parent, left, right;
     E data;
     int level;
+    int count;
 
     Node(E data) {
         this.data = data;
@@ -18,6 +19,145 @@ class Node<E extends Comparable<E>> {
         this.left = null;
         this.right = null;
         this.level = 0;
+        this.count = 1;
+    }
+
+    /**
+     * Recomputes any information that a subclass derives from the node's subtree, assuming that of its children
+     * is up to date. Balanced trees call this whenever the children of the node change.
+     */
+    void update() {
+    }
+
+    /**
+     * Returns the node with the least element in a (non-null) subtree.
+     *
+     * @param node the root of the subtree
+     * @param <E>  the type of the data contained in the nodes
+     * @return the leftmost node of the subtree
+     */
+    static <E> Node<E> leftmost(Node<E> node) {
+        while (node.left != null)
+            node = node.left;
+        return node;
+    }
+
+    /**
+     * Returns the node with the greatest element in a (non-null) subtree.
+     *
+     * @param node the root of the subtree
+     * @param <E>  the type of the data contained in the nodes
+     * @return the rightmost node of the subtree
+     */
+    static <E> Node<E> rightmost(Node<E> node) {
+        while (node.right != null)
+            node = node.right;
+        return node;
+    }
+
+    /**
+     * Returns the in-order successor of a node, by following child and parent pointers.
+     *
+     * @param node the node whose successor will be returned
+     * @param <E>  the type of the data contained in the nodes
+     * @return the node with the next larger element, or null if {@code node} holds the maximum
+     */
+    static <E> Node<E> successor(Node<E> node) {
+        if (node.right != null)
+            return leftmost(node.right);
+
+        Node<E> parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the in-order predecessor of a node, by following child and parent pointers.
+     *
+     * @param node the node whose predecessor will be returned
+     * @param <E>  the type of the data contained in the nodes
+     * @return the node with the next smaller element, or null if {@code node} holds the minimum
+     */
+    static <E> Node<E> predecessor(Node<E> node) {
+        if (node.left != null)
+            return rightmost(node.left);
+
+        Node<E> parent = node.parent;
+        while (parent != null && node == parent.left) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    /**
+     * Puts a node (or null) in the place of another node under the latter's parent.
+     *
+     * @param node        the node being replaced
+     * @param replacement the node that takes its place
+     * @param root        the root of the tree
+     * @param <E>         the type of the data contained in the nodes
+     * @return the root of the tree after the replacement
+     */
+    static <E> Node<E> replace(Node<E> node, Node<E> replacement, Node<E> root) {
+        if (replacement != null)
+            replacement.parent = node.parent;
+
+        if (node.parent == null)
+            return replacement;
+        if (node.parent.left == node)
+            node.parent.left = replacement;
+        else
+            node.parent.right = replacement;
+        return root;
+    }
+
+    /**
+     * Unlinks a node from a tree. If the node has two children, its in-order successor is relinked into its place
+     * and takes over its level and subtree size, so no other node changes its data; this keeps references to the
+     * remaining nodes (such as the entries of a map) valid.
+     * <p>
+     * On return, the unlinked node has no children, and its parent pointer refers to the lowest node whose
+     * subtree lost a node (i.e. the parent of the position that was vacated), or null if there is none. Balanced
+     * trees retrace from there.
+     *
+     * @param node the node to be unlinked
+     * @param root the root of the tree
+     * @param <E>  the type of the data contained in the nodes
+     * @return the root of the tree after the removal
+     */
+    static <E> Node<E> unlink(Node<E> node, Node<E> root) {
+        Node<E> lowest;
+        if (node.left != null && node.right != null) {
+            Node<E> successor = leftmost(node.right);
+            if (successor == node.right) {
+                lowest = successor;
+            } else {
+                // Detach the successor, which has no left child, and give it the node's right subtree.
+                lowest = successor.parent;
+                lowest.left = successor.right;
+                if (successor.right != null)
+                    successor.right.parent = lowest;
+                successor.right = node.right;
+                node.right.parent = successor;
+            }
+
+            successor.left = node.left;
+            node.left.parent = successor;
+            successor.level = node.level;
+            successor.count = node.count;
+            root = replace(node, successor, root);
+        } else {
+            lowest = node.parent;
+            root = replace(node, (node.left != null) ? node.left : node.right, root);
+        }
+
+        node.parent = lowest;
+        node.left = node.right = null;
+        return root;
     }
 
 }
@@ -0,0 +1,306 @@
+package com.rystrauss.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a persistent (immutable) Adelson-Velsky and Landis (AVL) self-balancing binary search tree.
+ * <p>
+ * A tree is never modified. {@link #add(Comparable)} and {@link #remove(Comparable)} return a new tree that copies
+ * only the O(log n) nodes on the path to the change and shares every other node with the original. As a result,
+ * any tree is a consistent point-in-time snapshot that costs nothing to take: a writer can publish each new
+ * version (for example through a volatile field or an {@code AtomicReference}) while readers keep iterating over
+ * whichever version they started with, without any locking.
+ *
+ * @param <E> the type of elements in the tree; must be comparable
+ * @author Ryan Strauss
+ */
+public class PersistentAVLTree<E extends Comparable<E>> implements Iterable<E> {
+
+    private final PNode<E> root;
+
+    /**
+     * Constructs an empty tree.
+     */
+    public PersistentAVLTree() {
+        this(null);
+    }
+
+    private PersistentAVLTree(PNode<E> root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a balanced tree from elements in ascending order, in O(n) time.
+     *
+     * @param sorted the elements of the tree, in strictly ascending order
+     * @param <E>    the type of elements in the tree
+     * @return a tree containing the given elements
+     * @throws IllegalArgumentException if the elements are not in strictly ascending order
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Comparable<E>> PersistentAVLTree<E> fromSorted(List<E> sorted)
+            throws IllegalArgumentException {
+        Object[] elements = sorted.toArray();
+        for (int i = 1; i < elements.length; i++) {
+            if (((E) elements[i - 1]).compareTo((E) elements[i]) >= 0)
+                throw new IllegalArgumentException("The elements must be in strictly ascending order.");
+        }
+        return new PersistentAVLTree<>(PersistentAVLTree.<E>build(elements, 0, elements.length));
+    }
+
+    /**
+     * Builds a perfectly balanced subtree from a range of a sorted array.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> PNode<E> build(Object[] elements, int from, int to) {
+        if (from >= to)
+            return null;
+
+        int mid = (from + to) >>> 1;
+        return new PNode<>(build(elements, from, mid), (E) elements[mid], build(elements, mid + 1, to));
+    }
+
+    /**
+     * Returns a tree with an element added.
+     *
+     * @param element the element to be added
+     * @return a tree containing the elements of this tree and {@code element}; this tree itself if it already
+     * contains the element
+     */
+    public PersistentAVLTree<E> add(E element) {
+        if (element == null)
+            throw new NullPointerException("Trying to add null pointer to tree.");
+
+        PNode<E> newRoot = add(root, element);
+        return newRoot == root ? this : new PersistentAVLTree<>(newRoot);
+    }
+
+    /**
+     * Adds an element to a subtree by copying the path to it.
+     *
+     * @return the new subtree, or {@code node} itself if the element was already present
+     */
+    private static <E extends Comparable<E>> PNode<E> add(PNode<E> node, E element) {
+        if (node == null)
+            return new PNode<>(null, element, null);
+
+        int cmp = element.compareTo(node.data);
+        if (cmp < 0) {
+            PNode<E> left = add(node.left, element);
+            return left == node.left ? node : balance(left, node.data, node.right);
+        } else if (cmp > 0) {
+            PNode<E> right = add(node.right, element);
+            return right == node.right ? node : balance(node.left, node.data, right);
+        }
+        return node;
+    }
+
+    /**
+     * Returns a tree with an element removed.
+     *
+     * @param element the element to be removed
+     * @return a tree containing the elements of this tree except {@code element}; this tree itself if it does not
+     * contain the element
+     */
+    public PersistentAVLTree<E> remove(E element) {
+        PNode<E> newRoot = remove(root, element);
+        return newRoot == root ? this : new PersistentAVLTree<>(newRoot);
+    }
+
+    /**
+     * Removes an element from a subtree by copying the path to it.
+     *
+     * @return the new subtree, or {@code node} itself if the element was not present
+     */
+    private static <E extends Comparable<E>> PNode<E> remove(PNode<E> node, E element) {
+        if (node == null)
+            return null;
+
+        int cmp = element.compareTo(node.data);
+        if (cmp < 0) {
+            PNode<E> left = remove(node.left, element);
+            return left == node.left ? node : balance(left, node.data, node.right);
+        } else if (cmp > 0) {
+            PNode<E> right = remove(node.right, element);
+            return right == node.right ? node : balance(node.left, node.data, right);
+        }
+
+        if (node.left == null)
+            return node.right;
+        if (node.right == null)
+            return node.left;
+
+        PNode<E> successor = node.right;
+        while (successor.left != null)
+            successor = successor.left;
+        return balance(node.left, successor.data, removeMinimum(node.right));
+    }
+
+    /**
+     * Removes the minimum element from a (non-null) subtree by copying the path to it.
+     */
+    private static <E> PNode<E> removeMinimum(PNode<E> node) {
+        if (node.left == null)
+            return node.right;
+        return balance(removeMinimum(node.left), node.data, node.right);
+    }
+
+    /**
+     * Creates a node from two subtrees whose heights differ by at most two, rotating if necessary so that the
+     * result is balanced.
+     */
+    private static <E> PNode<E> balance(PNode<E> left, E data, PNode<E> right) {
+        int leftHeight = height(left), rightHeight = height(right);
+
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right))
+                return new PNode<>(left.left, left.data, new PNode<>(left.right, data, right));
+            return new PNode<>(new PNode<>(left.left, left.data, left.right.left), left.right.data,
+                    new PNode<>(left.right.right, data, right));
+        } else if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left))
+                return new PNode<>(new PNode<>(left, data, right.left), right.data, right.right);
+            return new PNode<>(new PNode<>(left, data, right.left.left), right.left.data,
+                    new PNode<>(right.left.right, right.data, right.right));
+        }
+
+        return new PNode<>(left, data, right);
+    }
+
+    private static int height(PNode<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Determines whether or not an element is in the tree.
+     *
+     * @param element the element to check for
+     * @return true iff the element is in the tree
+     */
+    public boolean contains(E element) {
+        PNode<E> node = root;
+        while (node != null) {
+            int cmp = element.compareTo(node.data);
+            if (cmp == 0)
+                return true;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the minimum element of the tree.
+     *
+     * @return The minimum element of the tree, or null if the tree is empty.
+     */
+    public E minimumElement() {
+        if (root == null)
+            return null;
+
+        PNode<E> node = root;
+        while (node.left != null)
+            node = node.left;
+        return node.data;
+    }
+
+    /**
+     * Returns the maximum element of the tree.
+     *
+     * @return The maximum element of the tree, or null if the tree is empty.
+     */
+    public E maximumElement() {
+        if (root == null)
+            return null;
+
+        PNode<E> node = root;
+        while (node.right != null)
+            node = node.right;
+        return node.data;
+    }
+
+    /**
+     * Returns an iterator over the elements of the tree in ascending order. Since the tree never changes, the
+     * iterator is unaffected by later additions and removals, which produce other trees.
+     *
+     * @return an in-order iterator over the elements of the tree
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Deque<PNode<E>> stack = new ArrayDeque<>();
+        for (PNode<E> node = root; node != null; node = node.left)
+            stack.push(node);
+
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (stack.isEmpty())
+                    throw new NoSuchElementException();
+
+                PNode<E> node = stack.pop();
+                for (PNode<E> child = node.right; child != null; child = child.left)
+                    stack.push(child);
+                return node.data;
+            }
+        };
+    }
+
+    /**
+     * Performs an in-order traversal of the tree.
+     *
+     * @return an {@code ArrayList} containing the elements of the tree in in-order
+     */
+    public ArrayList<E> inOrder() {
+        ArrayList<E> elements = new ArrayList<>(size());
+        for (E e : this)
+            elements.add(e);
+        return elements;
+    }
+
+    /**
+     * Gets the size of the tree.
+     *
+     * @return the number of elements in the tree
+     */
+    public int size() {
+        return root == null ? 0 : root.count;
+    }
+
+    /**
+     * Determines whether or not the tree is empty.
+     *
+     * @return true iff the tree is empty
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * An immutable node, which may be shared by many trees.
+     */
+    private static final class PNode<E> {
+
+        final PNode<E> left, right;
+        final E data;
+        final int height, count;
+
+        PNode(PNode<E> left, E data, PNode<E> right) {
+            this.left = left;
+            this.data = data;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.count = 1 + (left == null ? 0 : left.count) + (right == null ? 0 : right.count);
+        }
+
+    }
+
+}
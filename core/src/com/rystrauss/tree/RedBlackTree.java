@@ -0,0 +1,206 @@
+package com.rystrauss.tree;
+
+/**
+ * Implementation of a red-black self-balancing binary search tree.
+ * <p>
+ * Every node is colored red or black such that no red node has a red child and every path from the root to a
+ * missing child passes through the same number of black nodes, which keeps the height below 2 log(n + 1). The
+ * balance is looser than that of {@link AVLTree}, so lookups may visit slightly more nodes, but an insertion
+ * performs at most two rotations and a removal at most three, and recoloring usually stops near the bottom of the
+ * tree. This makes the red-black tree a good choice for write-heavy workloads.
+ *
+ * @param <E> the type of elements in the tree; must be comparable
+ * @author Ryan Strauss
+ */
+public class RedBlackTree<E extends Comparable<E>> extends BinarySearchTree<E> {
+
+    private static final boolean RED = true, BLACK = false;
+
+    /**
+     * Constructs an empty red-black tree.
+     */
+    public RedBlackTree() {
+        super();
+    }
+
+    @Override
+    Node<E> newNode(E element) {
+        return new ColoredNode<>(element);
+    }
+
+    @Override
+    Node<E> insert(E element) {
+        Node<E> node = super.insert(element);
+        if (node != null)
+            fixAfterInsertion(node);
+        return node;
+    }
+
+    /**
+     * Removes a node by relinking, as {@link BinarySearchTree} does, so every other node keeps its element. If the
+     * node has two children, its successor takes over its color along with its place, and the color that leaves the
+     * tree is the successor's.
+     */
+    @Override
+    Node<E> removeNode(Node<E> node) {
+        Node<E> successor = (node.left != null && node.right != null) ? Node.leftmost(node.right) : null;
+        Node<E> child;
+        boolean removedColor;
+        if (successor != null) {
+            child = successor.right;
+            removedColor = colorOf(successor);
+        } else {
+            child = (node.left != null) ? node.left : node.right;
+            removedColor = colorOf(node);
+        }
+
+        Node<E> parent = super.removeNode(node);
+        if (successor != null)
+            setColor(successor, colorOf(node));
+        if (removedColor == BLACK)
+            fixAfterDeletion(child, parent);
+
+        return parent;
+    }
+
+    /**
+     * Restores the red-black properties after a red node has been added as a leaf.
+     *
+     * @param node the node that was added
+     */
+    private void fixAfterInsertion(Node<E> node) {
+        while (node != this.root && colorOf(node.parent) == RED) {
+            Node<E> parent = node.parent, grandparent = parent.parent;
+
+            if (parent == grandparent.left) {
+                Node<E> uncle = grandparent.right;
+                if (colorOf(uncle) == RED) {
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    if (node == parent.right) {
+                        node = parent;
+                        rotateLeft(node);
+                    }
+                    setColor(node.parent, BLACK);
+                    setColor(grandparent, RED);
+                    rotateRight(grandparent);
+                }
+            } else {
+                Node<E> uncle = grandparent.left;
+                if (colorOf(uncle) == RED) {
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    if (node == parent.left) {
+                        node = parent;
+                        rotateRight(node);
+                    }
+                    setColor(node.parent, BLACK);
+                    setColor(grandparent, RED);
+                    rotateLeft(grandparent);
+                }
+            }
+        }
+
+        setColor(this.root, BLACK);
+    }
+
+    /**
+     * Restores the red-black properties after a black node has been removed, where {@code node} is the node that
+     * took its place and carries an extra black.
+     *
+     * @param node   the node carrying the extra black, or null if the removed node had no children
+     * @param parent the parent of {@code node}'s position
+     */
+    private void fixAfterDeletion(Node<E> node, Node<E> parent) {
+        while (node != this.root && colorOf(node) == BLACK) {
+            // A missing node's sibling cannot also be missing, so comparing with parent.left tells the sides apart.
+            if (node == parent.left) {
+                Node<E> sibling = parent.right;
+                if (colorOf(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(parent, RED);
+                    rotateLeft(parent);
+                    sibling = parent.right;
+                }
+
+                if (colorOf(sibling.left) == BLACK && colorOf(sibling.right) == BLACK) {
+                    setColor(sibling, RED);
+                    node = parent;
+                    parent = node.parent;
+                } else {
+                    if (colorOf(sibling.right) == BLACK) {
+                        setColor(sibling.left, BLACK);
+                        setColor(sibling, RED);
+                        rotateRight(sibling);
+                        sibling = parent.right;
+                    }
+                    setColor(sibling, colorOf(parent));
+                    setColor(parent, BLACK);
+                    setColor(sibling.right, BLACK);
+                    rotateLeft(parent);
+                    node = this.root;
+                }
+            } else {
+                Node<E> sibling = parent.left;
+                if (colorOf(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(parent, RED);
+                    rotateRight(parent);
+                    sibling = parent.left;
+                }
+
+                if (colorOf(sibling.right) == BLACK && colorOf(sibling.left) == BLACK) {
+                    setColor(sibling, RED);
+                    node = parent;
+                    parent = node.parent;
+                } else {
+                    if (colorOf(sibling.left) == BLACK) {
+                        setColor(sibling.right, BLACK);
+                        setColor(sibling, RED);
+                        rotateLeft(sibling);
+                        sibling = parent.left;
+                    }
+                    setColor(sibling, colorOf(parent));
+                    setColor(parent, BLACK);
+                    setColor(sibling.left, BLACK);
+                    rotateRight(parent);
+                    node = this.root;
+                }
+            }
+        }
+
+        setColor(node, BLACK);
+    }
+
+    /**
+     * Returns the color of a node, treating missing nodes as black.
+     */
+    private static boolean colorOf(Node<?> node) {
+        return node != null && ((ColoredNode<?>) node).red;
+    }
+
+    private static void setColor(Node<?> node, boolean color) {
+        if (node != null)
+            ((ColoredNode<?>) node).red = color;
+    }
+
+    /**
+     * A node that records its color; new nodes are red.
+     */
+    static final class ColoredNode<E> extends Node<E> {
+
+        boolean red = RED;
+
+        ColoredNode(E data) {
+            super(data);
+        }
+
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.rystrauss.tree;
+
+/**
+ * Implementation of a splay tree, a self-adjusting binary search tree.
+ * <p>
+ * Every access moves the node that was accessed (or, if the element was not found, the last node visited) to the
+ * root by a sequence of rotations called a splay. No balance information is stored, and any sequence of m
+ * operations takes O(m log n) time, although a single operation can take O(n). Since recently accessed elements
+ * stay near the root, splay trees do particularly well on skewed workloads, where a small set of elements receives
+ * most of the accesses.
+ * <p>
+ * Note that because lookups restructure the tree, {@link #contains(Comparable)} modifies the tree.
+ *
+ * @param <E> the type of elements in the tree; must be comparable
+ * @author Ryan Strauss
+ */
+public class SplayTree<E extends Comparable<E>> extends BinarySearchTree<E> {
+
+    /**
+     * Constructs an empty splay tree.
+     */
+    public SplayTree() {
+        super();
+    }
+
+    @Override
+    Node<E> insert(E element) {
+        if (element == null)
+            throw new NullPointerException("Trying to add null pointer to tree.");
+
+        Node<E> node = this.root, parent = null;
+        int cmp = 0;
+        while (node != null) {
+            cmp = element.compareTo(node.data);
+            if (cmp == 0) {
+                splay(node);
+                return null;
+            }
+            parent = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+
+        node = newNode(element);
+        node.parent = parent;
+        if (parent == null)
+            this.root = node;
+        else if (cmp < 0)
+            parent.left = node;
+        else
+            parent.right = node;
+        this.size++;
+
+        splay(node);
+        return node;
+    }
+
+    @Override
+    Node<E> findNode(E element) {
+        Node<E> node = this.root, last = null;
+        while (node != null) {
+            last = node;
+            int cmp = element.compareTo(node.data);
+            if (cmp == 0)
+                break;
+            node = cmp < 0 ? node.left : node.right;
+        }
+
+        if (last != null)
+            splay(last);
+        return node;
+    }
+
+    @Override
+    Node<E> removeNode(Node<E> node) {
+        splay(node);
+
+        Node<E> left = node.left, right = node.right;
+        node.left = node.right = null;
+        this.size--;
+
+        if (left == null) {
+            this.root = right;
+            if (right != null)
+                right.parent = null;
+            return null;
+        }
+
+        // Splay the maximum of the left subtree to its root; having no right child, it can adopt the right subtree.
+        left.parent = null;
+        this.root = left;
+        Node<E> max = maximumNode(left);
+        splay(max);
+        max.right = right;
+        if (right != null)
+            right.parent = max;
+
+        return null;
+    }
+
+    /**
+     * Moves a node to the root of the tree.
+     *
+     * @param node the node to be moved
+     */
+    private void splay(Node<E> node) {
+        while (node.parent != null) {
+            Node<E> parent = node.parent, grandparent = parent.parent;
+            if (grandparent != null) {
+                if ((node == parent.left) == (parent == grandparent.left))
+                    rotateUp(parent);  // zig-zig
+                else
+                    rotateUp(node);    // zig-zag
+            }
+            rotateUp(node);
+        }
+    }
+
+    /**
+     * Rotates a node above its parent.
+     */
+    private void rotateUp(Node<E> node) {
+        if (node == node.parent.left)
+            rotateRight(node.parent);
+        else
+            rotateLeft(node.parent);
+    }
+
+}
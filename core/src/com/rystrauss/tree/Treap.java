@@ -0,0 +1,82 @@
+package com.rystrauss.tree;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementation of a treap, a binary search tree balanced by random priorities.
+ * <p>
+ * Every node is given a random priority when it is inserted, and the tree is kept in heap order by priority
+ * (no node has a higher priority than its parent). The shape of the tree is then that of a binary search tree
+ * built by inserting the elements in random order, so its expected height is O(log n) regardless of the order of
+ * the operations. No balance information has to be maintained beyond the priorities, and an update performs only
+ * two rotations on average.
+ *
+ * @param <E> the type of elements in the tree; must be comparable
+ * @author Ryan Strauss
+ */
+public class Treap<E extends Comparable<E>> extends BinarySearchTree<E> {
+
+    /**
+     * Constructs an empty treap.
+     */
+    public Treap() {
+        super();
+    }
+
+    @Override
+    Node<E> newNode(E element) {
+        return new PrioritizedNode<>(element, ThreadLocalRandom.current().nextInt());
+    }
+
+    @Override
+    Node<E> insert(E element) {
+        Node<E> node = super.insert(element);
+        if (node == null)
+            return null;
+
+        // Rotate the new leaf up until its parent has a higher priority.
+        while (node.parent != null && priority(node) > priority(node.parent)) {
+            if (node == node.parent.left)
+                rotateRight(node.parent);
+            else
+                rotateLeft(node.parent);
+        }
+
+        return node;
+    }
+
+    @Override
+    Node<E> removeNode(Node<E> node) {
+        // Rotate the node down, lifting its higher-priority child each time, until it has at most one child.
+        while (node.left != null && node.right != null) {
+            if (priority(node.left) > priority(node.right))
+                rotateRight(node);
+            else
+                rotateLeft(node);
+        }
+
+        replace(node, (node.left != null) ? node.left : node.right);
+        this.size--;
+
+        return node.parent;
+    }
+
+    private static int priority(Node<?> node) {
+        return ((PrioritizedNode<?>) node).priority;
+    }
+
+    /**
+     * A node that records its random priority.
+     */
+    private static final class PrioritizedNode<E> extends Node<E> {
+
+        final int priority;
+
+        PrioritizedNode(E data, int priority) {
+            super(data);
+            this.priority = priority;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.rystrauss.disjointset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentIntDisjointSetTest {
+
+    static final int NUM_ELEMENTS = 2000;
+    static final int NUM_THREADS = 8;
+    static final int NUM_TRIALS = 20;
+
+    @Test
+    void invalidArgumentsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentIntDisjointSet(-1));
+
+        ConcurrentIntDisjointSet set = new ConcurrentIntDisjointSet(NUM_ELEMENTS);
+        assertThrows(IndexOutOfBoundsException.class, () -> set.find(NUM_ELEMENTS));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.union(0, -1));
+    }
+
+    @Test
+    void sequentialUsageMatchesIntDisjointSet() {
+        Random random = new Random(48);
+        IntDisjointSet expected = new IntDisjointSet(NUM_ELEMENTS);
+        ConcurrentIntDisjointSet set = new ConcurrentIntDisjointSet(NUM_ELEMENTS);
+
+        assertEquals(NUM_ELEMENTS, set.size());
+        for (int i = 0; i < 3 * NUM_ELEMENTS; i++) {
+            int u = random.nextInt(NUM_ELEMENTS), v = random.nextInt(NUM_ELEMENTS);
+            if (random.nextBoolean())
+                assertEquals(expected.union(u, v), set.union(u, v));
+            else
+                assertEquals(expected.connected(u, v), set.connected(u, v));
+            assertEquals(expected.getNumSubsets(), set.getNumSubsets());
+        }
+    }
+
+    @Test
+    void concurrentUnionsMatchIntDisjointSet() throws InterruptedException {
+        Random random = new Random(49);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            int m = NUM_ELEMENTS / 2 + random.nextInt(NUM_ELEMENTS);
+            int[] us = new int[m], vs = new int[m];
+            IntDisjointSet expected = new IntDisjointSet(NUM_ELEMENTS);
+            for (int i = 0; i < m; i++) {
+                us[i] = random.nextInt(NUM_ELEMENTS);
+                vs[i] = random.nextInt(NUM_ELEMENTS);
+                expected.union(us[i], vs[i]);
+            }
+
+            // Each thread takes every NUM_THREADS-th pair, interleaving queries with its unions.
+            ConcurrentIntDisjointSet set = new ConcurrentIntDisjointSet(NUM_ELEMENTS);
+            AtomicInteger merges = new AtomicInteger();
+            Thread[] threads = new Thread[NUM_THREADS];
+            for (int t = 0; t < NUM_THREADS; t++) {
+                int first = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = first; i < m; i += NUM_THREADS) {
+                        if (set.union(us[i], vs[i]))
+                            merges.incrementAndGet();
+                        set.connected(us[(i * 7) % m], vs[i]);
+                        set.find(vs[(i * 3) % m]);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads)
+                thread.join();
+
+            assertEquals(expected.getNumSubsets(), set.getNumSubsets());
+            assertEquals(expected.getNumSubsets(), NUM_ELEMENTS - merges.get());
+            for (int u = 0; u < NUM_ELEMENTS; u++) {
+                int v = random.nextInt(NUM_ELEMENTS);
+                assertEquals(expected.connected(u, v), set.connected(u, v));
+                assertEquals(expected.find(u) == expected.find(v), set.find(u) == set.find(v));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.rystrauss.disjointset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DisjointSetForestTest {
+
+    static final int NUM_ELEMENTS = 300;
+    static final int NUM_OPERATIONS = 3000;
+
+    /**
+     * Collects the members of every label, as the subsets the forest should have.
+     */
+    private static Set<Set<String>> expectedSubsets(Map<String, Integer> label) {
+        Map<Integer, Set<String>> subsets = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : label.entrySet())
+            subsets.computeIfAbsent(entry.getValue(), l -> new HashSet<>()).add(entry.getKey());
+        return new HashSet<>(subsets.values());
+    }
+
+    @Test
+    void matchesNaiveLabeling() {
+        Random random = new Random(49);
+        List<String> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_ELEMENTS / 2; i++)
+            elements.add("e" + i);
+        DisjointSetForest<String> forest = new DisjointSetForest<>(elements);
+        // The label of every element; two elements are in the same subset iff their labels are equal.
+        Map<String, Integer> label = new HashMap<>();
+        for (String e : elements)
+            label.put(e, label.size());
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            if (elements.size() < NUM_ELEMENTS && random.nextInt(10) == 0) {
+                String e = "e" + elements.size();
+                assertTrue(forest.add(e));
+                elements.add(e);
+                label.put(e, label.size());
+            }
+
+            String u = elements.get(random.nextInt(elements.size())), v = elements.get(random.nextInt(elements.size()));
+            boolean merged = !label.get(u).equals(label.get(v));
+            assertEquals(!merged, forest.connected(u, v));
+            assertEquals(merged, forest.union(u, v));
+            if (merged) {
+                int from = label.get(v), to = label.get(u);
+                label.replaceAll((e, l) -> l == from ? to : l);
+            }
+
+            String w = elements.get(random.nextInt(elements.size()));
+            Set<String> subset = new HashSet<>();
+            for (String e : forest.subsetOf(w))
+                assertTrue(subset.add(e));
+            for (String e : elements)
+                assertEquals(label.get(e).equals(label.get(w)), subset.contains(e));
+            assertEquals(subset.size(), forest.sizeOf(w));
+            assertEquals(w, forest.subsetOf(w).iterator().next());
+        }
+
+        Set<Set<String>> expected = expectedSubsets(label);
+        assertEquals(expected.size(), forest.getNumSubsets());
+        assertEquals(elements.size(), forest.size());
+
+        Map<String, List<String>> subsets = forest.getSubsets();
+        Set<Set<String>> actual = new HashSet<>();
+        for (Map.Entry<String, List<String>> entry : subsets.entrySet()) {
+            Set<String> subset = new HashSet<>(entry.getValue());
+            assertEquals(entry.getValue().size(), subset.size());
+            assertTrue(subset.contains(entry.getKey()));
+            assertEquals(entry.getKey(), forest.find(entry.getKey()));
+            actual.add(subset);
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void duplicatesAndMissingElements() {
+        DisjointSetForest<String> forest = new DisjointSetForest<>(Arrays.asList("a", "b", "a"));
+        assertEquals(2, forest.size());
+        assertFalse(forest.add("b"));
+        assertEquals(1, forest.sizeOf("a"));
+
+        assertThrows(NullPointerException.class, () -> forest.add(null));
+        assertThrows(IllegalStateException.class, () -> forest.find("c"));
+        assertThrows(IllegalStateException.class, () -> forest.union("a", "c"));
+        assertThrows(IllegalStateException.class, () -> forest.sizeOf("c"));
+        assertThrows(IllegalStateException.class, () -> forest.subsetOf("c"));
+    }
+
+}
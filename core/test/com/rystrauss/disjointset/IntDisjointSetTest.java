@@ -0,0 +1,76 @@
+package com.rystrauss.disjointset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntDisjointSetTest {
+
+    static final int NUM_ELEMENTS = 500;
+    static final int NUM_OPERATIONS = 5000;
+
+    @Test
+    void matchesNaiveLabeling() {
+        Random random = new Random(47);
+        IntDisjointSet set = new IntDisjointSet(NUM_ELEMENTS / 2);
+        // The label of every element; two elements are in the same subset iff their labels are equal.
+        int[] label = new int[NUM_ELEMENTS];
+        int size = NUM_ELEMENTS / 2, numSubsets = size;
+        for (int i = 0; i < NUM_ELEMENTS; i++)
+            label[i] = i;
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            if (size < NUM_ELEMENTS && random.nextInt(10) == 0) {
+                assertEquals(size, set.add());
+                size++;
+                numSubsets++;
+            }
+
+            int u = random.nextInt(size), v = random.nextInt(size);
+            if (random.nextBoolean()) {
+                boolean merged = label[u] != label[v];
+                assertEquals(merged, set.union(u, v));
+                if (merged) {
+                    int from = label[v];
+                    for (int w = 0; w < size; w++) {
+                        if (label[w] == from)
+                            label[w] = label[u];
+                    }
+                    numSubsets--;
+                }
+            } else {
+                assertEquals(label[u] == label[v], set.connected(u, v));
+            }
+
+            assertEquals(size, set.size());
+            assertEquals(numSubsets, set.getNumSubsets());
+        }
+
+        for (int u = 0; u < size; u++) {
+            int representative = set.find(u);
+            assertEquals(label[u], label[representative]);
+            assertTrue(set.isRepresentative(representative));
+            for (int v = 0; v < size; v++)
+                assertEquals(label[u] == label[v], set.find(v) == representative);
+        }
+    }
+
+    @Test
+    void invalidElementsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new IntDisjointSet(-1));
+
+        IntDisjointSet set = new IntDisjointSet(3);
+        assertThrows(IndexOutOfBoundsException.class, () -> set.find(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.union(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.connected(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.isRepresentative(3));
+
+        assertEquals(3, set.add());
+        assertEquals(3, set.find(3));
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AllPairsShortestPathsTest {
+
+    static final int NUM_VERTICES = 200;
+    static final int NUM_EDGES = 1000;
+
+    @Test
+    void algorithmsAgree() {
+        Random random = new Random(29);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+        for (int i = 0; i < NUM_EDGES; i++)
+            graph.addEdge(random.nextInt(NUM_VERTICES), random.nextInt(NUM_VERTICES), random.nextInt(50));
+
+        CompactGraph<Integer> g = CompactGraph.of(graph);
+        List<Integer> vertices = new ArrayList<>(graph.vertexSet());
+        double[][] manyToMany = AllPairsShortestPaths.manyToMany(g, vertices, vertices, ForkJoinPool.commonPool());
+        double[][] floydWarshall = AllPairsShortestPaths.floydWarshall(g);
+
+        for (int i = 0; i < vertices.size(); i++) {
+            Map<Integer, Double> dist = graph.shortestPaths(vertices.get(i));
+            for (int j = 0; j < vertices.size(); j++) {
+                double expected = dist.get(vertices.get(j));
+                assertEquals(expected, manyToMany[i][j]);
+                assertEquals(expected, floydWarshall[g.indexOf(vertices.get(i))][g.indexOf(vertices.get(j))]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CentralityTest {
+
+    static final int NUM_VERTICES = 50;
+    static final double EPSILON = 1e-9;
+
+    private static double[] pageRank(CompactGraph<?> graph) {
+        return Centrality.pageRank(graph, Centrality.DEFAULT_DAMPING, 1e-13, 1000);
+    }
+
+    @Test
+    void exactBetweennessOnPath() {
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+        for (int i = 1; i < NUM_VERTICES; i++)
+            graph.addEdge(i - 1, i);
+
+        CompactGraph<Integer> g = CompactGraph.of(graph);
+        double[] expected = new double[NUM_VERTICES];
+        for (int i = 0; i < NUM_VERTICES; i++)
+            expected[g.indexOf(i)] = 2.0 * i * (NUM_VERTICES - 1 - i);
+
+        // Repeated calls must not see state left over from earlier ones.
+        for (int trial = 0; trial < 3; trial++)
+            assertArrayEquals(expected, Centrality.betweenness(g, NUM_VERTICES, trial), EPSILON);
+    }
+
+    @Test
+    void betweennessRejectsNonPositiveWeights() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b", 0);
+
+        assertThrows(IllegalArgumentException.class, () -> Centrality.betweenness(CompactGraph.of(graph), 2, 0));
+    }
+
+    @Test
+    void pageRankOfKnownGraph() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addVertex("c");
+        graph.addEdge("a", "b");
+        graph.addEdge("a", "c");
+        graph.addEdge("b", "c");
+        graph.addEdge("c", "a");
+
+        // Solutions of r = 0.15 / 3 + 0.85 * (the rank flowing in along edges).
+        CompactGraph<String> g = CompactGraph.of(graph);
+        double[] rank = pageRank(g);
+        assertEquals(686.0 / 1769, rank[g.indexOf("a")], EPSILON);
+        assertEquals(380.0 / 1769, rank[g.indexOf("b")], EPSILON);
+        assertEquals(703.0 / 1769, rank[g.indexOf("c")], EPSILON);
+
+        // The rank of a vertex with no outgoing edges is spread over every vertex.
+        graph.removeVertex("c");
+        g = CompactGraph.of(graph);
+        rank = pageRank(g);
+        assertEquals(20.0 / 57, rank[g.indexOf("a")], EPSILON);
+        assertEquals(37.0 / 57, rank[g.indexOf("b")], EPSILON);
+    }
+
+    @Test
+    void pageRanksSumToOne() {
+        Random random = new Random(34);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+        // Vertices 0 to 9 have no outgoing edges.
+        for (int i = 0; i < 3 * NUM_VERTICES; i++)
+            graph.addEdge(10 + random.nextInt(NUM_VERTICES - 10), random.nextInt(NUM_VERTICES));
+
+        for (double damping : new double[]{0.0, 0.5, Centrality.DEFAULT_DAMPING, 1.0}) {
+            double[] rank = Centrality.pageRank(CompactGraph.of(graph), damping, Centrality.DEFAULT_TOLERANCE, 100);
+            double sum = 0.0;
+            for (double r : rank)
+                sum += r;
+            assertEquals(1.0, sum, EPSILON);
+        }
+
+        double sum = 0.0;
+        Map<Integer, Double> ranks = Centrality.pageRank(graph);
+        for (double r : ranks.values())
+            sum += r;
+        assertEquals(NUM_VERTICES, ranks.size());
+        assertEquals(1.0, sum, EPSILON);
+
+        assertArrayEquals(new double[0], Centrality.pageRank(CompactGraph.of(new DirectedGraph<>()), 0.85, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Centrality.pageRank(CompactGraph.of(graph), 1.5, Centrality.DEFAULT_TOLERANCE, 100));
+    }
+
+    @Test
+    void degreeCentralityOfStar() {
+        DirectedGraph<Integer> directed = new DirectedGraph<>();
+        UndirectedGraph<Integer> undirected = new UndirectedGraph<>();
+        for (int i = 0; i < 5; i++) {
+            directed.addVertex(i);
+            undirected.addVertex(i);
+        }
+        for (int i = 1; i < 5; i++) {
+            directed.addEdge(0, i);
+            undirected.addEdge(0, i);
+        }
+
+        CompactGraph<Integer> g = CompactGraph.of(directed);
+        double[] centrality = Centrality.degreeCentrality(g);
+        assertEquals(1.0, centrality[g.indexOf(0)]);
+        for (int i = 1; i < 5; i++)
+            assertEquals(0.0, centrality[g.indexOf(i)]);
+
+        g = CompactGraph.of(undirected);
+        centrality = Centrality.degreeCentrality(g);
+        assertEquals(1.0, centrality[g.indexOf(0)]);
+        for (int i = 1; i < 5; i++)
+            assertEquals(0.25, centrality[g.indexOf(i)]);
+
+        DirectedGraph<Integer> single = new DirectedGraph<>();
+        single.addVertex(0);
+        assertArrayEquals(new double[]{0.0}, Centrality.degreeCentrality(CompactGraph.of(single)), 0.0);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentGraphTest {
+
+    static final int NUM_VERTICES = 8;
+    static final int NUM_THREADS = 4;
+    static final int NUM_OPERATIONS = 20000;
+
+    @Test
+    void nullVerticesRejected() {
+        ConcurrentGraph<String> graph = new ConcurrentGraph<>();
+        graph.addVertex("a");
+
+        assertFalse(graph.containsVertex(null));
+        assertFalse(graph.containsEdge(null, "a"));
+        assertFalse(graph.containsEdge(new Edge(null, "a")));
+        assertNull(graph.getEdge("a", null));
+        assertFalse(graph.removeEdge(null, "a"));
+        assertFalse(graph.removeEdge(new Edge("a", null)));
+        assertFalse(graph.removeVertex(null));
+        assertFalse(graph.edgeSet().contains(new Edge("a", null)));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(null, "a"));
+        assertThrows(IllegalArgumentException.class, () -> graph.outgoingEdgesOf(null));
+        assertThrows(IllegalArgumentException.class, () -> graph.incomingEdgesOf(null));
+        assertThrows(IllegalArgumentException.class, () -> graph.shortestPaths(null));
+        assertThrows(NullPointerException.class, () -> graph.addVertex(null));
+    }
+
+    @Test
+    void concurrentAddsAndRemovesStayConsistent() throws InterruptedException {
+        ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+
+        // A few threads race to add and remove the same small set of edges.
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < NUM_THREADS; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < NUM_OPERATIONS; i++) {
+                    int u = random.nextInt(NUM_VERTICES), v = random.nextInt(NUM_VERTICES);
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            graph.addEdge(u, v);
+                            break;
+                        case 1:
+                            graph.removeEdge(new Edge(u, v));
+                            break;
+                        default:
+                            graph.removeEdge(u, v);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        int count = 0;
+        for (int u = 0; u < NUM_VERTICES; u++) {
+            Set<Edge> out = graph.outgoingEdgesOf(u);
+            for (Edge e : out)
+                assertTrue(graph.incomingEdgesOf((Integer) e.getTarget()).contains(e));
+            for (Edge e : graph.incomingEdgesOf(u))
+                assertTrue(graph.outgoingEdgesOf((Integer) e.getSource()).contains(e));
+            count += out.size();
+        }
+        assertEquals(count, graph.edgeSet().size());
+        assertEquals(count, graph.snapshot().edgeCount());
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectivityTest {
+
+    static final int NUM_VERTICES = 500;
+    static final int NUM_EDGES = 400;
+    static final int NUM_TRIALS = 20;
+    static final int CHAIN_LENGTH = 200_000;
+    static final int NUM_SMALL_VERTICES = 60;
+
+    private static DirectedGraph<Integer> randomDirectedGraph(int n, int m, Random random) {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < n; i++)
+            graph.addVertex(i);
+        for (int i = 0; i < m; i++)
+            graph.addEdge(random.nextInt(n), random.nextInt(n));
+        return graph;
+    }
+
+    /**
+     * Computes which vertices every vertex can reach, by a breadth-first search from each one.
+     */
+    private static boolean[][] reachability(CompactGraph<?> graph) {
+        int n = graph.vertexCount();
+        boolean[][] reaches = new boolean[n][n];
+        int[] queue = new int[n];
+        for (int s = 0; s < n; s++) {
+            reaches[s][s] = true;
+            queue[0] = s;
+            for (int head = 0, tail = 1; head < tail; head++) {
+                int u = queue[head];
+                for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                    if (!reaches[s][graph.targets[j]]) {
+                        reaches[s][graph.targets[j]] = true;
+                        queue[tail++] = graph.targets[j];
+                    }
+                }
+            }
+        }
+        return reaches;
+    }
+
+    @Test
+    void stronglyConnectedComponentsOfKnownGraph() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        for (String v : new String[]{"a", "b", "c", "d", "e", "f", "g", "h"})
+            graph.addVertex(v);
+        // The components {a, b, e}, {f, g}, {c, d} and {h} are joined by edges in that order.
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "e");
+        graph.addEdge("e", "a");
+        graph.addEdge("b", "c");
+        graph.addEdge("b", "f");
+        graph.addEdge("e", "f");
+        graph.addEdge("c", "d");
+        graph.addEdge("d", "c");
+        graph.addEdge("d", "h");
+        graph.addEdge("h", "h");
+        graph.addEdge("f", "g");
+        graph.addEdge("g", "f");
+        graph.addEdge("g", "c");
+
+        Set<Set<String>> components = new HashSet<>();
+        for (List<String> component : Connectivity.stronglyConnectedComponents(graph))
+            components.add(new HashSet<>(component));
+
+        Set<Set<String>> expected = new HashSet<>(Arrays.asList(new HashSet<>(Arrays.asList("a", "b", "e")),
+                new HashSet<>(Arrays.asList("c", "d")), new HashSet<>(Arrays.asList("f", "g")),
+                new HashSet<>(Arrays.asList("h"))));
+        assertEquals(expected, components);
+    }
+
+    @Test
+    void stronglyConnectedComponentsMatchReachability() {
+        Random random = new Random(31);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            CompactGraph<Integer> graph = CompactGraph.of(randomDirectedGraph(NUM_SMALL_VERTICES,
+                    NUM_SMALL_VERTICES + random.nextInt(NUM_SMALL_VERTICES), random));
+            int[] component = Connectivity.stronglyConnectedComponents(graph);
+            boolean[][] reaches = reachability(graph);
+
+            for (int u = 0; u < NUM_SMALL_VERTICES; u++) {
+                for (int v = 0; v < NUM_SMALL_VERTICES; v++)
+                    assertEquals(reaches[u][v] && reaches[v][u], component[u] == component[v]);
+                // Components are numbered in reverse topological order.
+                for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++)
+                    assertTrue(component[u] >= component[graph.targets[j]]);
+            }
+        }
+    }
+
+    @Test
+    void topologicalSortOrdersEveryEdge() {
+        Random random = new Random(32);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            // Edges only go from a lower to a higher label, so the graph is acyclic.
+            int[] label = new int[NUM_SMALL_VERTICES];
+            for (int i = 0; i < NUM_SMALL_VERTICES; i++)
+                label[i] = random.nextInt(1000);
+            DirectedGraph<Integer> graph = new DirectedGraph<>();
+            for (int i = 0; i < NUM_SMALL_VERTICES; i++)
+                graph.addVertex(i);
+            for (int i = 0; i < 3 * NUM_SMALL_VERTICES; i++) {
+                int u = random.nextInt(NUM_SMALL_VERTICES), v = random.nextInt(NUM_SMALL_VERTICES);
+                if (label[u] < label[v])
+                    graph.addEdge(u, v);
+            }
+
+            List<Integer> order = Connectivity.topologicalSort(graph);
+            assertEquals(NUM_SMALL_VERTICES, new HashSet<>(order).size());
+            int[] position = new int[NUM_SMALL_VERTICES];
+            for (int i = 0; i < order.size(); i++)
+                position[order.get(i)] = i;
+            for (Edge e : graph.edgeSet())
+                assertTrue(position[(Integer) e.getSource()] < position[(Integer) e.getTarget()]);
+        }
+    }
+
+    @Test
+    void topologicalSortRejectsCycles() {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < 4; i++)
+            graph.addVertex(i);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        assertEquals(Arrays.asList(0, 1, 2, 3), Connectivity.topologicalSort(graph));
+
+        graph.addEdge(3, 1);
+        assertThrows(IllegalArgumentException.class, () -> Connectivity.topologicalSort(graph));
+
+        graph.removeEdge(3, 1);
+        graph.addEdge(2, 2);
+        assertThrows(IllegalArgumentException.class, () -> Connectivity.topologicalSort(graph));
+    }
+
+    @Test
+    void longChainDoesNotOverflowStack() {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < CHAIN_LENGTH; i++)
+            graph.addVertex(i);
+        for (int i = 0; i + 1 < CHAIN_LENGTH; i++)
+            graph.addEdge(i, i + 1);
+
+        List<Integer> expected = new ArrayList<>(CHAIN_LENGTH);
+        for (int i = 0; i < CHAIN_LENGTH; i++)
+            expected.add(i);
+        assertEquals(expected, Connectivity.topologicalSort(graph));
+        assertEquals(CHAIN_LENGTH, Connectivity.stronglyConnectedComponents(graph).size());
+
+        // Closing the chain into a cycle makes a single component as deep as the whole graph.
+        graph.addEdge(CHAIN_LENGTH - 1, 0);
+        assertEquals(1, Connectivity.stronglyConnectedComponents(graph).size());
+        assertThrows(IllegalArgumentException.class, () -> Connectivity.topologicalSort(graph));
+    }
+
+    @Test
+    void parallelWeaklyConnectedComponentsMatchSequential() {
+        Random random = new Random(48);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            UndirectedGraph<Integer> undirected = new UndirectedGraph<>();
+            DirectedGraph<Integer> directed = new DirectedGraph<>();
+            for (int i = 0; i < NUM_VERTICES; i++) {
+                undirected.addVertex(i);
+                directed.addVertex(i);
+            }
+            for (int i = 0; i < NUM_EDGES; i++) {
+                int u = random.nextInt(NUM_VERTICES), v = random.nextInt(NUM_VERTICES);
+                undirected.addEdge(u, v);
+                directed.addEdge(u, v);
+            }
+
+            CompactGraph<Integer> compact = CompactGraph.of(undirected);
+            assertArrayEquals(Connectivity.weaklyConnectedComponents(compact),
+                    Connectivity.parallelWeaklyConnectedComponents(compact));
+            assertEquals(Connectivity.weaklyConnectedComponents(directed),
+                    Connectivity.parallelWeaklyConnectedComponents(directed));
+        }
+    }
+
+}
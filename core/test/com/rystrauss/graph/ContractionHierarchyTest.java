@@ -0,0 +1,100 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContractionHierarchyTest {
+
+    static final int NUM_VERTICES = 200;
+    static final int NUM_TRIALS = 5;
+
+    @TempDir
+    Path dir;
+
+    private static AbstractGraph<Integer> randomGraph(boolean directed, int numEdges, long seed) {
+        Random random = new Random(seed);
+        AbstractGraph<Integer> graph = directed ? new DirectedGraph<>() : new UndirectedGraph<>();
+
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+        // Integer weights keep every sum exact; zero weights and self-loops are included.
+        for (int i = 0; i < numEdges; i++)
+            graph.addEdge(random.nextInt(NUM_VERTICES), random.nextInt(NUM_VERTICES), random.nextInt(20));
+
+        return graph;
+    }
+
+    private static void assertMatchesDijkstra(AbstractGraph<Integer> graph, ContractionHierarchy<Integer> hierarchy) {
+        assertEquals(NUM_VERTICES, hierarchy.size());
+        for (int source = 0; source < NUM_VERTICES; source += 3) {
+            Map<Integer, Double> dist = graph.shortestPaths(source);
+            for (int target = 0; target < NUM_VERTICES; target++)
+                assertEquals((double) dist.get(target), hierarchy.shortestDistance(source, target));
+        }
+    }
+
+    @Test
+    void matchesDijkstra() {
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            // Sparse graphs leave some pairs unreachable; denser ones need many shortcuts.
+            for (int numEdges : new int[]{NUM_VERTICES, 4 * NUM_VERTICES}) {
+                AbstractGraph<Integer> directed = randomGraph(true, numEdges, trial);
+                assertMatchesDijkstra(directed, new ContractionHierarchy<>(directed));
+
+                AbstractGraph<Integer> undirected = randomGraph(false, numEdges, trial);
+                assertMatchesDijkstra(undirected, new ContractionHierarchy<>(undirected));
+            }
+        }
+    }
+
+    @Test
+    void concurrentQueriesMatchDijkstra() {
+        AbstractGraph<Integer> graph = randomGraph(true, 4 * NUM_VERTICES, 28);
+        ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph);
+        Map<Integer, Double> dist = graph.shortestPaths(0);
+
+        IntStream.range(0, 20 * NUM_VERTICES).parallel().forEach(i -> {
+            int target = i % NUM_VERTICES;
+            assertEquals((double) dist.get(target), hierarchy.shortestDistance(0, target));
+        });
+    }
+
+    @Test
+    void saveAndLoad() throws IOException {
+        AbstractGraph<Integer> graph = randomGraph(true, 4 * NUM_VERTICES, 29);
+        Path file = dir.resolve("hierarchy.ch");
+        new ContractionHierarchy<>(graph).save(file);
+
+        ContractionHierarchy<Integer> loaded = ContractionHierarchy.load(file);
+        assertMatchesDijkstra(graph, loaded);
+
+        Path other = dir.resolve("other.ch");
+        Files.write(other, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> ContractionHierarchy.load(other));
+    }
+
+    @Test
+    void invalidArgumentsRejected() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b", -1);
+        assertThrows(IllegalArgumentException.class, () -> new ContractionHierarchy<>(graph));
+
+        graph.removeEdge("a", "b");
+        ContractionHierarchy<String> hierarchy = new ContractionHierarchy<>(graph);
+        assertEquals(Double.MAX_VALUE, hierarchy.shortestDistance("a", "b"));
+        assertThrows(IllegalArgumentException.class, () -> hierarchy.shortestDistance("a", "c"));
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.rystrauss.graph;
+
+import java.util.Random;
+
+/**
+ * Standalone timing harness comparing {@link FlowNetwork#dinic(Object, Object)} and
+ * {@link FlowNetwork#pushRelabel(Object, Object)} on two kinds of network: a square grid with edges in both
+ * directions between neighbors, flowing from one corner to the opposite one, and a sparse random network with
+ * four edges per vertex. This is not a test; run its {@code main} method directly, optionally passing the side of
+ * the grid. The first round warms up the JIT and is not reported.
+ */
+class FlowNetworkBenchmark {
+
+    static final int GRID_SIZE = 300;
+    static final int EDGES_PER_VERTEX = 4;
+    static final int NUM_ROUNDS = 2;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : GRID_SIZE;
+        int n = size * size;
+        Random random = new Random(35);
+
+        DirectedGraph<Integer> grid = new DirectedGraph<>();
+        for (int v = 0; v < n; v++)
+            grid.addVertex(v);
+        for (int v = 0; v < n; v++) {
+            if (v % size + 1 < size) {
+                grid.addEdge(v, v + 1, 1 + random.nextInt(100));
+                grid.addEdge(v + 1, v, 1 + random.nextInt(100));
+            }
+            if (v + size < n) {
+                grid.addEdge(v, v + size, 1 + random.nextInt(100));
+                grid.addEdge(v + size, v, 1 + random.nextInt(100));
+            }
+        }
+
+        DirectedGraph<Integer> sparse = new DirectedGraph<>();
+        for (int v = 0; v < n; v++)
+            sparse.addVertex(v);
+        for (int i = 0; i < EDGES_PER_VERTEX * n; i++)
+            sparse.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(100));
+
+        FlowNetwork<Integer> gridNetwork = new FlowNetwork<>(grid), sparseNetwork = new FlowNetwork<>(sparse);
+
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            long start = System.nanoTime();
+            double flow = gridNetwork.dinic(0, n - 1);
+            long dinic = System.nanoTime() - start;
+            start = System.nanoTime();
+            gridNetwork.pushRelabel(0, n - 1);
+            long pushRelabel = System.nanoTime() - start;
+            if (round > 0)
+                report("grid", n, flow, dinic, pushRelabel);
+
+            start = System.nanoTime();
+            flow = sparseNetwork.dinic(0, n - 1);
+            dinic = System.nanoTime() - start;
+            start = System.nanoTime();
+            sparseNetwork.pushRelabel(0, n - 1);
+            pushRelabel = System.nanoTime() - start;
+            if (round > 0)
+                report("random", n, flow, dinic, pushRelabel);
+        }
+    }
+
+    private static void report(String name, int n, double flow, long dinic, long pushRelabel) {
+        System.out.printf("%-7s %8d vertices  dinic %6d ms  push-relabel %6d ms  (flow %.0f)%n", name, n,
+                dinic / 1_000_000, pushRelabel / 1_000_000, flow);
+    }
+
+}
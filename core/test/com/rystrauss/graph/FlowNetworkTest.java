@@ -0,0 +1,153 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlowNetworkTest {
+
+    static final int NUM_VERTICES = 100;
+    static final int NUM_EDGES = 600;
+    static final int GRID_SIZE = 15;
+    static final int NUM_TRIALS = 20;
+
+    private static DirectedGraph<Integer> randomNetwork(long seed) {
+        Random random = new Random(seed);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+        // Integer capacities keep every flow value exact.
+        for (int i = 0; i < NUM_EDGES; i++)
+            graph.addEdge(random.nextInt(NUM_VERTICES), random.nextInt(NUM_VERTICES), random.nextInt(50));
+
+        return graph;
+    }
+
+    /**
+     * Builds a square grid in which every pair of neighbors is joined in both directions.
+     */
+    static DirectedGraph<Integer> gridNetwork(int size, long seed) {
+        Random random = new Random(seed);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        for (int i = 0; i < size * size; i++)
+            graph.addVertex(i);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int v = r * size + c;
+                if (c + 1 < size) {
+                    graph.addEdge(v, v + 1, 1 + random.nextInt(20));
+                    graph.addEdge(v + 1, v, 1 + random.nextInt(20));
+                }
+                if (r + 1 < size) {
+                    graph.addEdge(v, v + size, 1 + random.nextInt(20));
+                    graph.addEdge(v + size, v, 1 + random.nextInt(20));
+                }
+            }
+        }
+
+        return graph;
+    }
+
+    private static void assertMinCut(FlowNetwork<Integer> network, int source, int sink, double flow) {
+        double capacity = 0.0;
+        for (Edge edge : network.minCutEdges())
+            capacity += edge.getWeight();
+        assertEquals(flow, capacity);
+
+        Set<Integer> cut = network.minCut();
+        assertTrue(cut.contains(source));
+        assertFalse(cut.contains(sink));
+        for (Edge edge : network.minCutEdges()) {
+            assertTrue(cut.contains((Integer) edge.getSource()));
+            assertFalse(cut.contains((Integer) edge.getTarget()));
+        }
+    }
+
+    private static void assertAlgorithmsAgree(AbstractGraph<Integer> graph, int source, int sink) {
+        FlowNetwork<Integer> network = new FlowNetwork<>(graph);
+
+        double flow = network.dinic(source, sink);
+        assertMinCut(network, source, sink, flow);
+
+        assertEquals(flow, network.pushRelabel(source, sink));
+        assertMinCut(network, source, sink, flow);
+    }
+
+    @Test
+    void knownNetwork() {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < 6; i++)
+            graph.addVertex(i);
+        graph.addEdge(0, 1, 16);
+        graph.addEdge(0, 2, 13);
+        graph.addEdge(2, 1, 4);
+        graph.addEdge(1, 3, 12);
+        graph.addEdge(3, 2, 9);
+        graph.addEdge(2, 4, 14);
+        graph.addEdge(4, 3, 7);
+        graph.addEdge(3, 5, 20);
+        graph.addEdge(4, 5, 4);
+
+        FlowNetwork<Integer> network = new FlowNetwork<>(graph);
+        assertEquals(23.0, network.dinic(0, 5));
+        assertEquals(23.0, network.pushRelabel(0, 5));
+        assertMinCut(network, 0, 5, 23.0);
+        assertEquals(0.0, network.dinic(5, 0));
+    }
+
+    @Test
+    void randomNetworksAgree() {
+        Random random = new Random(35);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            DirectedGraph<Integer> graph = randomNetwork(trial);
+            int source = random.nextInt(NUM_VERTICES);
+            int sink = (source + 1 + random.nextInt(NUM_VERTICES - 1)) % NUM_VERTICES;
+            assertAlgorithmsAgree(graph, source, sink);
+        }
+    }
+
+    @Test
+    void gridNetworksAgree() {
+        for (int trial = 0; trial < NUM_TRIALS; trial++)
+            assertAlgorithmsAgree(gridNetwork(GRID_SIZE, trial), 0, GRID_SIZE * GRID_SIZE - 1);
+    }
+
+    @Test
+    void undirectedNetworksAgree() {
+        Random random = new Random(36);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+            for (int i = 0; i < NUM_VERTICES; i++)
+                graph.addVertex(i);
+            for (int i = 0; i < NUM_EDGES / 2; i++)
+                graph.addEdge(random.nextInt(NUM_VERTICES), random.nextInt(NUM_VERTICES), random.nextInt(50));
+            assertAlgorithmsAgree(graph, 0, NUM_VERTICES - 1);
+        }
+    }
+
+    @Test
+    void invalidArgumentsRejected() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b", 1);
+
+        FlowNetwork<String> network = new FlowNetwork<>(graph);
+        assertThrows(IllegalStateException.class, network::minCut);
+        assertThrows(IllegalStateException.class, network::minCutEdges);
+        assertThrows(IllegalArgumentException.class, () -> network.dinic("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> network.pushRelabel("a", "c"));
+
+        graph.addEdge("b", "a", -1);
+        assertThrows(IllegalArgumentException.class, () -> new FlowNetwork<>(graph));
+    }
+
+}
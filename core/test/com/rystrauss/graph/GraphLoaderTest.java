@@ -0,0 +1,125 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GraphLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Describes every edge of a graph by the ids of its endpoints and its weight, independently of the indices.
+     */
+    private static Set<String> edges(CompactGraph<Long> graph) {
+        Set<String> edges = new HashSet<>();
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++)
+                edges.add(graph.vertexAt(u) + " " + graph.vertexAt(graph.targets[j]) + " " + graph.weights[j]);
+        }
+        return edges;
+    }
+
+    @Test
+    void roundTripUnsortedIds() throws IOException {
+        DirectedGraph<Long> graph = new DirectedGraph<>();
+        long[] ids = {1000000, 3, 77, 5, 123456789, 42};
+        for (long id : ids)
+            graph.addVertex(id);
+        for (int i = 0; i < ids.length; i++) {
+            graph.addEdge(ids[i], ids[(i + 1) % ids.length], i + 0.5);
+            graph.addEdge(ids[i], ids[(i + 3) % ids.length], -i);
+        }
+
+        CompactGraph<Long> original = CompactGraph.of(graph);
+        Path file = dir.resolve("graph.bin");
+        GraphLoader.save(original, file);
+        CompactGraph<Long> loaded = GraphLoader.load(file);
+
+        assertEquals(original.vertexCount(), loaded.vertexCount());
+        assertEquals(original.edgeCount(), loaded.edgeCount());
+        assertEquals(edges(original), edges(loaded));
+        for (long id : ids)
+            assertEquals(id, (long) loaded.vertexAt(loaded.indexOf(id)));
+    }
+
+    @Test
+    void roundTripEdgeList() throws IOException {
+        Path text = dir.resolve("edges.txt");
+        Files.write(text, "# comment\n1 2 0.5\n2,3\n-9223372036854775808 9223372036854775807 1e3\n".getBytes());
+
+        CompactGraph<Long> graph = GraphLoader.loadEdgeList(text, true);
+        assertEquals(5, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+
+        Path file = dir.resolve("graph.bin");
+        GraphLoader.save(graph, file);
+        assertEquals(edges(graph), edges(GraphLoader.load(file)));
+    }
+
+    @Test
+    void malformedEdgeListsRejected() throws IOException {
+        Path overflow = dir.resolve("overflow.txt");
+        Files.write(overflow, "9223372036854775808 1\n".getBytes());
+        assertThrows(IOException.class, () -> GraphLoader.loadEdgeList(overflow, true));
+
+        Path loneMinus = dir.resolve("minus.txt");
+        Files.write(loneMinus, "1 2 -\n".getBytes());
+        assertThrows(IOException.class, () -> GraphLoader.loadEdgeList(loneMinus, true));
+    }
+
+    @Test
+    void corruptFilesRejected() throws IOException {
+        Path text = dir.resolve("edges.txt");
+        Files.write(text, "1 2\n2 3\n3 1\n".getBytes());
+        Path file = dir.resolve("graph.bin");
+        GraphLoader.save(GraphLoader.loadEdgeList(text, false), file);
+
+        // A vertex count that does not match the size of the file.
+        Path badHeader = dir.resolve("header.bin");
+        Files.copy(file, badHeader);
+        overwriteInt(badHeader, Integer.BYTES, 1 << 30);
+        assertThrows(IOException.class, () -> GraphLoader.load(badHeader));
+
+        // An edge target outside the graph.
+        Path badTarget = dir.resolve("target.bin");
+        Files.copy(file, badTarget);
+        overwriteInt(badTarget, 3 * Integer.BYTES + 3 * Long.BYTES + 4 * Integer.BYTES, 99);
+        assertThrows(IOException.class, () -> GraphLoader.load(badTarget));
+
+        // Vertex ids out of order, which save never writes.
+        Path unsorted = dir.resolve("unsorted.bin");
+        Files.copy(file, unsorted);
+        overwriteInt(unsorted, 3 * Integer.BYTES + Long.BYTES, 1);
+        assertThrows(IOException.class, () -> GraphLoader.load(unsorted));
+
+        // Truncated.
+        Path truncated = dir.resolve("truncated.bin");
+        Files.write(truncated, Files.readAllBytes(file), StandardOpenOption.CREATE);
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> GraphLoader.load(truncated));
+    }
+
+    private static void overwriteInt(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).putInt(value);
+            buffer.flip();
+            channel.write(buffer, position);
+        }
+    }
+
+}
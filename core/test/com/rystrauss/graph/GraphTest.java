@@ -0,0 +1,164 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphTest {
+
+    static final int NUM_VERTICES = 30;
+    static final int NUM_OPERATIONS = 5000;
+
+    /**
+     * Checks that the edge set, its size and the incoming and outgoing sets of every vertex agree, and that an
+     * undirected graph holds every edge in both directions.
+     */
+    private static void assertConsistent(AbstractGraph<Integer> graph) {
+        Set<Edge> edges = new HashSet<>();
+        for (Edge e : graph.edgeSet())
+            assertTrue(edges.add(e));
+        assertEquals(edges.size(), graph.edgeSet().size());
+        assertEquals(edges.size(), graph.edgeCount());
+
+        Set<Edge> outgoing = new HashSet<>(), incoming = new HashSet<>();
+        for (Integer v : graph) {
+            for (Edge e : graph.outgoingEdgesOf(v)) {
+                assertEquals(v, e.getSource());
+                assertTrue(graph.containsVertex((Integer) e.getTarget()));
+                outgoing.add(e);
+            }
+            for (Edge e : graph.incomingEdgesOf(v)) {
+                assertEquals(v, e.getTarget());
+                incoming.add(e);
+            }
+        }
+        assertEquals(edges, outgoing);
+        assertEquals(edges, incoming);
+        for (Edge e : edges) {
+            assertTrue(graph.edgeSet().contains(e));
+            if (graph instanceof UndirectedGraph)
+                assertTrue(edges.contains(new Edge(e.getTarget(), e.getSource(), e.getWeight())));
+        }
+    }
+
+    @Test
+    void undirectedRemovalDeletesBothDirections() {
+        UndirectedGraph<String> graph = new UndirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b", 2);
+        assertEquals(2, graph.edgeCount());
+        assertTrue(graph.containsEdge("b", "a"));
+
+        assertTrue(graph.removeEdge("b", "a"));
+        assertFalse(graph.containsEdge("a", "b"));
+        assertFalse(graph.containsEdge("b", "a"));
+        assertEquals(0, graph.edgeSet().size());
+        assertFalse(graph.removeEdge("a", "b"));
+
+        graph.addEdge("a", "b", 2);
+        assertTrue(graph.removeEdge(new Edge("b", "a", 2)));
+        assertEquals(0, graph.edgeCount());
+        assertTrue(graph.outgoingEdgesOf("a").isEmpty());
+        assertTrue(graph.incomingEdgesOf("a").isEmpty());
+    }
+
+    @Test
+    void selfLoopCountedOnce() {
+        for (AbstractGraph<String> graph : Arrays.<AbstractGraph<String>>asList(new DirectedGraph<>(),
+                new UndirectedGraph<>())) {
+            graph.addVertex("a");
+            graph.addEdge("a", "a");
+            assertEquals(1, graph.edgeCount());
+            assertEquals(1, graph.edgeSet().size());
+            assertEquals(1, graph.outgoingEdgesOf("a").size());
+            assertEquals(1, graph.incomingEdgesOf("a").size());
+
+            assertTrue(graph.removeVertex("a"));
+            assertEquals(0, graph.edgeCount());
+            assertTrue(graph.edgeSet().isEmpty());
+        }
+    }
+
+    @Test
+    void removeVertexDropsIncidentEdges() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        for (String v : new String[]{"a", "b", "c"})
+            graph.addVertex(v);
+        graph.addEdge("a", "b");
+        graph.addEdge("c", "b");
+        graph.addEdge("b", "c");
+        graph.addEdge("a", "c");
+        assertEquals(4, graph.edgeCount());
+
+        assertTrue(graph.removeVertex("b"));
+        assertFalse(graph.removeVertex("b"));
+        assertEquals(1, graph.edgeCount());
+        assertEquals(1, graph.edgeSet().size());
+        assertTrue(graph.containsEdge("a", "c"));
+        assertEquals(1, graph.outgoingEdgesOf("a").size());
+        assertTrue(graph.outgoingEdgesOf("c").isEmpty());
+        assertNull(graph.getEdge("a", "b"));
+    }
+
+    @Test
+    void addEdgesIsAllOrNothing() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> graph.addEdges(Arrays.asList(new Edge("a", "b", 1), new Edge("b", "c", 1))));
+        assertEquals(0, graph.edgeCount());
+
+        assertTrue(graph.addEdges(Arrays.asList(new Edge("a", "b", 1), new Edge("b", "a", 1))));
+        assertFalse(graph.addEdges(Arrays.asList(new Edge("a", "b", 1))));
+        assertEquals(2, graph.edgeCount());
+
+        UndirectedGraph<String> undirected = new UndirectedGraph<>();
+        undirected.addVertex("a");
+        undirected.addVertex("b");
+        assertTrue(undirected.addEdges(Arrays.asList(new Edge("a", "b", 1))));
+        assertEquals(2, undirected.edgeCount());
+        assertTrue(undirected.containsEdge("b", "a"));
+    }
+
+    @Test
+    void randomOperationsKeepBookkeepingConsistent() {
+        Random random = new Random(33);
+        for (AbstractGraph<Integer> graph : Arrays.<AbstractGraph<Integer>>asList(new DirectedGraph<>(),
+                new UndirectedGraph<>())) {
+            for (int i = 0; i < NUM_OPERATIONS; i++) {
+                int u = random.nextInt(NUM_VERTICES), v = random.nextInt(NUM_VERTICES);
+                int op = random.nextInt(10);
+                if (op == 0)
+                    graph.removeVertex(u);
+                else if (op < 3)
+                    graph.removeEdge(u, v);
+                else if (op == 3)
+                    graph.removeEdge(new Edge(u, v, random.nextInt(3)));
+                else if (!graph.containsVertex(u) || !graph.containsVertex(v)) {
+                    graph.addVertex(u);
+                    graph.addVertex(v);
+                } else if (op < 8)
+                    graph.addEdge(u, v, random.nextInt(3));
+                else
+                    graph.addEdges(Arrays.asList(new Edge(u, v, random.nextInt(3)), new Edge(v, u, 1)));
+
+                if (i % 100 == 0)
+                    assertConsistent(graph);
+            }
+            assertConsistent(graph);
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.rystrauss.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Standalone timing harness comparing {@link MinimumSpanningTree#kruskal(UndirectedGraph)},
+ * {@link MinimumSpanningTree#prim(UndirectedGraph)} and {@link MinimumSpanningTree#boruvka(UndirectedGraph)} on a
+ * sparse graph (four edges per vertex) and a dense one (about a fifth of all possible edges). This is not a test;
+ * run its {@code main} method directly, optionally passing the number of vertices of the sparse graph. The first
+ * round warms up the JIT and is not reported.
+ */
+class MinimumSpanningTreeBenchmark {
+
+    static final int NUM_SPARSE_VERTICES = 200_000;
+    static final int NUM_DENSE_VERTICES = 2000;
+    static final int EDGES_PER_VERTEX = 4;
+    static final int NUM_ROUNDS = 2;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : NUM_SPARSE_VERTICES;
+        Random random = new Random(26);
+        UndirectedGraph<Integer> sparse = randomGraph(n, (long) EDGES_PER_VERTEX * n, random);
+        UndirectedGraph<Integer> dense = randomGraph(NUM_DENSE_VERTICES,
+                (long) NUM_DENSE_VERTICES * NUM_DENSE_VERTICES / 10, random);
+
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            for (UndirectedGraph<Integer> graph : Arrays.asList(sparse, dense)) {
+                String name = graph == sparse ? "sparse" : "dense";
+                time(round, name, "kruskal", graph, MinimumSpanningTree::kruskal);
+                time(round, name, "prim", graph, MinimumSpanningTree::prim);
+                time(round, name, "boruvka", graph, MinimumSpanningTree::boruvka);
+            }
+        }
+    }
+
+    private static UndirectedGraph<Integer> randomGraph(int n, long m, Random random) {
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+        for (int v = 0; v < n; v++)
+            graph.addVertex(v);
+        for (long i = 0; i < m; i++)
+            graph.addEdge(random.nextInt(n), random.nextInt(n), random.nextDouble());
+        return graph;
+    }
+
+    private static void time(int round, String name, String algorithm, UndirectedGraph<Integer> graph,
+                             Function<UndirectedGraph<Integer>, Set<Edge>> mst) {
+        long start = System.nanoTime();
+        Set<Edge> edges = mst.apply(graph);
+        long elapsed = System.nanoTime() - start;
+
+        double total = 0.0;
+        for (Edge edge : edges)
+            total += edge.getWeight();
+        if (round > 0)
+            System.out.printf("%-7s %-8s %6d ms  (%d edges, weight %.3f)%n", name, algorithm, elapsed / 1_000_000,
+                    edges.size(), total);
+    }
+
+}
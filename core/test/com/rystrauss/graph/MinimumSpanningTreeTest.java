@@ -0,0 +1,68 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinimumSpanningTreeTest {
+
+    static final int NUM_VERTICES = 500;
+    static final int NUM_EDGES = 5000;
+
+    /**
+     * Builds a random weighted undirected graph with small integer weights, so that many edges tie.
+     */
+    private static UndirectedGraph<Integer> randomGraph(long seed) {
+        Random random = new Random(seed);
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+        for (int i = 0; i < NUM_EDGES; i++)
+            graph.addEdge(random.nextInt(NUM_VERTICES), random.nextInt(NUM_VERTICES), random.nextInt(10));
+
+        return graph;
+    }
+
+    private static double totalWeight(Set<Edge> edges) {
+        double total = 0;
+        for (Edge e : edges)
+            total += e.getWeight();
+        return total;
+    }
+
+    @Test
+    void algorithmsAgree() {
+        UndirectedGraph<Integer> graph = randomGraph(42);
+
+        Set<Edge> kruskal = MinimumSpanningTree.kruskal(graph);
+        Set<Edge> prim = MinimumSpanningTree.prim(graph);
+        Set<Edge> boruvka = MinimumSpanningTree.boruvka(graph);
+
+        assertEquals(kruskal.size(), prim.size());
+        assertEquals(kruskal.size(), boruvka.size());
+        assertEquals(totalWeight(kruskal), totalWeight(prim));
+        assertEquals(totalWeight(kruskal), totalWeight(boruvka));
+    }
+
+    @Test
+    void spanningForest() {
+        UndirectedGraph<String> graph = new UndirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addVertex("c");
+        graph.addVertex("d");
+        graph.addEdge("a", "b", 3);
+        graph.addEdge("b", "c", 1);
+        graph.addEdge("a", "c", 2);
+
+        Set<Edge> tree = MinimumSpanningTree.kruskal(graph);
+
+        assertEquals(2, tree.size());
+        assertEquals(3.0, totalWeight(tree));
+    }
+
+}
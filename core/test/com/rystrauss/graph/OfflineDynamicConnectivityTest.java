@@ -0,0 +1,89 @@
+package com.rystrauss.graph;
+
+import com.rystrauss.disjointset.IntDisjointSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OfflineDynamicConnectivityTest {
+
+    static final int NUM_VERTICES = 30;
+    static final int NUM_EVENTS = 200;
+    static final int NUM_TRIALS = 100;
+
+    /**
+     * Recomputes the components of the live edges from scratch.
+     */
+    private static IntDisjointSet components(List<int[]> edges) {
+        IntDisjointSet forest = new IntDisjointSet(NUM_VERTICES);
+        for (int[] edge : edges)
+            forest.union(edge[0], edge[1]);
+        return forest;
+    }
+
+    @Test
+    void invalidArgumentsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OfflineDynamicConnectivity(-1));
+
+        OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(3);
+        assertThrows(IllegalArgumentException.class, () -> connectivity.addEdge(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> connectivity.connected(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> connectivity.removeEdge(0, 1));
+
+        connectivity.addEdge(0, 1);
+        connectivity.removeEdge(1, 0);
+        assertThrows(IllegalArgumentException.class, () -> connectivity.removeEdge(0, 1));
+    }
+
+    @Test
+    void noQueries() {
+        OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(NUM_VERTICES);
+        connectivity.addEdge(0, 1);
+        assertArrayEquals(new int[0], connectivity.solve());
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(50);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(NUM_VERTICES);
+            List<int[]> live = new ArrayList<>();
+            List<Integer> expected = new ArrayList<>();
+
+            for (int i = 0; i < NUM_EVENTS; i++) {
+                int event = random.nextInt(5);
+                if (event < 2) {
+                    // Vertices are drawn independently, so there are self-loops and parallel edges.
+                    int u = random.nextInt(NUM_VERTICES), v = random.nextInt(NUM_VERTICES);
+                    connectivity.addEdge(u, v);
+                    live.add(new int[]{u, v});
+                } else if (event == 2 && !live.isEmpty()) {
+                    int[] edge = live.remove(random.nextInt(live.size()));
+                    if (random.nextBoolean())
+                        connectivity.removeEdge(edge[0], edge[1]);
+                    else
+                        connectivity.removeEdge(edge[1], edge[0]);
+                } else if (event == 3) {
+                    int u = random.nextInt(NUM_VERTICES), v = random.nextInt(NUM_VERTICES);
+                    assertEquals(expected.size(), connectivity.connected(u, v));
+                    expected.add(components(live).connected(u, v) ? 1 : 0);
+                } else {
+                    assertEquals(expected.size(), connectivity.countComponents());
+                    expected.add(components(live).getNumSubsets());
+                }
+            }
+
+            int[] answers = connectivity.solve();
+            assertEquals(expected.size(), answers.length);
+            for (int i = 0; i < answers.length; i++)
+                assertEquals((int) expected.get(i), answers[i]);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShortestPathsTest {
+
+    static final int NUM_VERTICES = 300;
+    static final int NUM_EDGES = 1500;
+
+    private static DirectedGraph<Integer> randomGraph(long seed) {
+        Random random = new Random(seed);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        for (int i = 0; i < NUM_VERTICES; i++)
+            graph.addVertex(i);
+        for (int i = 0; i < NUM_EDGES; i++)
+            graph.addEdge(random.nextInt(NUM_VERTICES), random.nextInt(NUM_VERTICES), random.nextInt(100));
+
+        return graph;
+    }
+
+    @Test
+    void pointToPointMatchesDijkstra() {
+        DirectedGraph<Integer> graph = randomGraph(7);
+        Random random = new Random(8);
+
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextInt(NUM_VERTICES);
+            Map<Integer, Double> dist = graph.shortestPaths(source);
+
+            for (int target = 0; target < NUM_VERTICES; target += 7) {
+                double expected = dist.get(target);
+                assertEquals(expected, graph.shortestDistance(source, target));
+                assertEquals(expected, graph.shortestDistance(source, target, (v, t) -> 0.0));
+            }
+        }
+    }
+
+    @Test
+    void negativeWeightsRejected() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addVertex("c");
+        graph.addEdge("a", "b", 2);
+        graph.addEdge("b", "c", -1);
+
+        assertThrows(IllegalArgumentException.class, () -> graph.shortestPaths("a"));
+        assertThrows(IllegalArgumentException.class, () -> graph.shortestDistance("a", "c"));
+        assertThrows(IllegalArgumentException.class, () -> graph.shortestDistance("a", "c", (v, t) -> 0.0));
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.rystrauss.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleSourceShortestPathsTest {
+
+    static final int NUM_VERTICES = 300;
+    static final int NUM_EDGES = 1500;
+    static final int NUM_TRIALS = 10;
+
+    /**
+     * Builds a random graph. If {@code potentials} is true, every weight w(u, v) is shifted by p(u) - p(v) for a
+     * random potential p; this makes some weights negative, but leaves every cycle with a non-negative length.
+     */
+    private static DirectedGraph<Integer> randomGraph(long seed, boolean potentials) {
+        Random random = new Random(seed);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        int[] p = new int[NUM_VERTICES];
+        for (int i = 0; i < NUM_VERTICES; i++) {
+            graph.addVertex(i);
+            p[i] = potentials ? random.nextInt(50) : 0;
+        }
+        // Integer weights keep every sum exact, whatever order the edges are relaxed in.
+        for (int i = 0; i < NUM_EDGES; i++) {
+            int u = random.nextInt(NUM_VERTICES), v = random.nextInt(NUM_VERTICES);
+            graph.addEdge(u, v, random.nextInt(100) + p[u] - p[v]);
+        }
+
+        return graph;
+    }
+
+    private static double[] toArray(CompactGraph<Integer> graph, Map<Integer, Double> distances) {
+        double[] dist = new double[graph.vertexCount()];
+        for (int v = 0; v < dist.length; v++)
+            dist[v] = distances.get(graph.vertexAt(v));
+        return dist;
+    }
+
+    /**
+     * The textbook Bellman-Ford algorithm, relaxing every edge V - 1 times.
+     */
+    private static double[] naiveBellmanFord(CompactGraph<Integer> graph, int source) {
+        int n = graph.vertexCount();
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        dist[source] = 0.0;
+
+        for (int round = 1; round < n; round++) {
+            for (int u = 0; u < n; u++) {
+                if (dist[u] == Double.MAX_VALUE)
+                    continue;
+                for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++)
+                    dist[graph.targets[j]] = Math.min(dist[graph.targets[j]], dist[u] + graph.weights[j]);
+            }
+        }
+
+        return dist;
+    }
+
+    @Test
+    void nonNegativeWeightsMatchDijkstra() {
+        Random random = new Random(30);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            DirectedGraph<Integer> graph = randomGraph(trial, false);
+            CompactGraph<Integer> g = CompactGraph.of(graph);
+            int source = random.nextInt(NUM_VERTICES);
+            double[] expected = toArray(g, graph.shortestPaths(source));
+
+            assertArrayEquals(expected, SingleSourceShortestPaths.bellmanFord(g, g.indexOf(source)), 0.0);
+            assertEquals(graph.shortestPaths(source), SingleSourceShortestPaths.bellmanFord(graph, source));
+            assertArrayEquals(expected, SingleSourceShortestPaths.deltaStepping(g, g.indexOf(source)), 0.0);
+            for (double delta : new double[]{1.0, 7.5, 1000.0})
+                assertArrayEquals(expected, SingleSourceShortestPaths.deltaStepping(g, g.indexOf(source), delta), 0.0);
+        }
+    }
+
+    @Test
+    void negativeWeightsMatchNaiveBellmanFord() {
+        Random random = new Random(31);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            CompactGraph<Integer> g = CompactGraph.of(randomGraph(trial, true));
+            int source = random.nextInt(NUM_VERTICES);
+            assertArrayEquals(naiveBellmanFord(g, source), SingleSourceShortestPaths.bellmanFord(g, source), 0.0);
+        }
+    }
+
+    @Test
+    void negativeCycles() {
+        DirectedGraph<String> graph = new DirectedGraph<>();
+        for (String v : new String[]{"s", "a", "b", "x", "y"})
+            graph.addVertex(v);
+        graph.addEdge("s", "a", 1);
+        graph.addEdge("a", "b", 2);
+        // The only negative cycle cannot be reached from s.
+        graph.addEdge("x", "y", -3);
+        graph.addEdge("y", "x", 1);
+        graph.addEdge("x", "s", 1);
+
+        Map<String, Double> dist = SingleSourceShortestPaths.bellmanFord(graph, "s");
+        assertEquals(3.0, (double) dist.get("b"));
+        assertEquals(Double.MAX_VALUE, (double) dist.get("x"));
+        assertThrows(IllegalArgumentException.class, () -> SingleSourceShortestPaths.bellmanFord(graph, "x"));
+
+        // Now it can.
+        graph.addEdge("b", "y", 1);
+        assertThrows(IllegalArgumentException.class, () -> SingleSourceShortestPaths.bellmanFord(graph, "s"));
+    }
+
+    @Test
+    void invalidArgumentsRejected() {
+        DirectedGraph<Integer> graph = randomGraph(32, true);
+        CompactGraph<Integer> g = CompactGraph.of(graph);
+
+        assertThrows(IllegalArgumentException.class, () -> SingleSourceShortestPaths.bellmanFord(graph, -1));
+        assertThrows(IllegalArgumentException.class, () -> SingleSourceShortestPaths.deltaStepping(g, 0));
+        CompactGraph<Integer> nonNegative = CompactGraph.of(randomGraph(32, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> SingleSourceShortestPaths.deltaStepping(nonNegative, 0, 0.0));
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AVLTreeMapTest {
+
+    static final int KEY_RANGE = 2000;
+    static final int NUM_OPERATIONS = 50000;
+
+    private static <K, V> List<Map.Entry<K, V>> entries(Iterable<Map.Entry<K, V>> map) {
+        List<Map.Entry<K, V>> entries = new ArrayList<>();
+        for (Map.Entry<K, V> e : map)
+            entries.add(new AbstractMap.SimpleEntry<>(e));
+        return entries;
+    }
+
+    @Test
+    void matchesTreeMap() {
+        Random random = new Random(40);
+        AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>(Comparator.reverseOrder());
+        TreeMap<Integer, Integer> expected = new TreeMap<>(Comparator.reverseOrder());
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            int key = random.nextInt(KEY_RANGE);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.computeIfAbsent(key, k -> -k), map.computeIfAbsent(key, k -> -k));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        assertEquals(new ArrayList<>(expected.entrySet()), entries(map));
+        assertEquals(expected.firstKey(), map.firstKey());
+        assertEquals(expected.lastKey(), map.lastKey());
+    }
+
+    @Test
+    void entriesSurviveRemovalOfOtherKeys() {
+        AVLTreeMap<Integer, String> map = new AVLTreeMap<>();
+        for (int i = 0; i < 100; i++)
+            map.put(i, "v" + i);
+
+        List<Map.Entry<Integer, String>> held = new ArrayList<>();
+        for (Map.Entry<Integer, String> e : map)
+            held.add(e);
+
+        // Removing keys with two children must not move other keys or values between entries.
+        for (int i = 0; i < 100; i += 3)
+            map.remove(i);
+        for (Map.Entry<Integer, String> e : held)
+            assertEquals("v" + e.getKey(), e.getValue());
+
+        held.get(1).setValue("changed");
+        assertEquals("changed", map.get(1));
+    }
+
+    @Test
+    void entriesFollowMapEntryContract() {
+        AVLTreeMap<String, Integer> map = new AVLTreeMap<>();
+        map.put("a", 1);
+        map.put("b", null);
+
+        Iterator<Map.Entry<String, Integer>> it = map.iterator();
+        Map.Entry<String, Integer> a = it.next(), b = it.next();
+        Map.Entry<String, Integer> expectedA = new AbstractMap.SimpleEntry<>("a", 1);
+        Map.Entry<String, Integer> expectedB = new AbstractMap.SimpleEntry<>("b", null);
+
+        assertEquals(expectedA, a);
+        assertEquals(a, expectedA);
+        assertEquals(expectedA.hashCode(), a.hashCode());
+        assertEquals(expectedB, b);
+        assertEquals(expectedB.hashCode(), b.hashCode());
+    }
+
+    @Test
+    void iteratorFailsFast() {
+        AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+        for (int i = 0; i < 10; i++)
+            map.put(i, i);
+
+        Iterator<Map.Entry<Integer, Integer>> it = map.iterator();
+        it.next();
+        map.remove(5);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AVLTreeTest {
+
+    static final int NUM_ELEMENTS = 5000;
+    static final int KEY_RANGE = 10000;
+    static final int NUM_TRIALS = 300;
+
+    /**
+     * Checks the parent pointers, ordering, balance, heights and subtree counts of every node below {@code node},
+     * and returns the number of nodes.
+     */
+    static int checkStructure(Node<Integer> node, Node<Integer> parent, Integer low, Integer high) {
+        if (node == null)
+            return 0;
+
+        assertEquals(parent, node.parent);
+        if (low != null && node.data <= low || high != null && node.data >= high)
+            throw new AssertionError("Element " + node.data + " is out of order.");
+
+        int left = checkStructure(node.left, node, low, node.data);
+        int right = checkStructure(node.right, node, node.data, high);
+        int leftHeight = AVLBalance.height(node.left), rightHeight = AVLBalance.height(node.right);
+        if (Math.abs(leftHeight - rightHeight) > 1)
+            throw new AssertionError("Node " + node.data + " is unbalanced.");
+        assertEquals(Math.max(leftHeight, rightHeight), node.level);
+        assertEquals(left + right + 1, node.count);
+
+        return left + right + 1;
+    }
+
+    /**
+     * Builds a tree containing the given elements, either in bulk or by inserting them in random order.
+     */
+    private static AVLTree<Integer> build(TreeSet<Integer> elements, Random random) {
+        if (random.nextBoolean())
+            return AVLTree.fromSorted(new ArrayList<>(elements));
+
+        List<Integer> shuffled = new ArrayList<>(elements);
+        Collections.shuffle(shuffled, random);
+        AVLTree<Integer> tree = new AVLTree<>();
+        for (int x : shuffled)
+            tree.add(x);
+        return tree;
+    }
+
+    private static TreeSet<Integer> randomSet(Random random, int range) {
+        TreeSet<Integer> set = new TreeSet<>();
+        int n = random.nextInt(2 * range);
+        for (int i = 0; i < n; i++)
+            set.add(random.nextInt(range));
+        return set;
+    }
+
+    private static void assertContents(TreeSet<Integer> expected, AVLTree<Integer> tree) {
+        assertEquals(expected.size(), checkStructure(tree.root, null, null, null));
+        assertEquals(expected.size(), tree.size());
+        assertEquals(new ArrayList<>(expected), tree.inOrder());
+    }
+
+    @Test
+    void fromSortedRejectsUnsortedInput() {
+        assertContents(new TreeSet<>(), AVLTree.fromSorted(Collections.<Integer>emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> AVLTree.fromSorted(Arrays.asList(1, 3, 2)));
+        assertThrows(IllegalArgumentException.class, () -> AVLTree.fromSorted(Arrays.asList(1, 1)));
+    }
+
+    @Test
+    void setOperationsMatchTreeSet() {
+        Random random = new Random(43);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            int range = 1 + random.nextInt(trial % 10 == 0 ? KEY_RANGE : 200);
+            TreeSet<Integer> a = randomSet(random, range), b = randomSet(random, range);
+
+            TreeSet<Integer> union = new TreeSet<>(a);
+            union.addAll(b);
+            TreeSet<Integer> intersection = new TreeSet<>(a);
+            intersection.retainAll(b);
+            TreeSet<Integer> difference = new TreeSet<>(a);
+            difference.removeAll(b);
+
+            AVLTree<Integer> left = build(a, random), right = build(b, random);
+            AVLTree<Integer> result = AVLTree.union(left, right);
+            assertContents(union, result);
+            assertEquals(0, left.size());
+            assertEquals(0, right.size());
+
+            assertContents(intersection, AVLTree.intersection(build(a, random), build(b, random)));
+            assertContents(difference, AVLTree.difference(build(a, random), build(b, random)));
+
+            // The result is an ordinary tree that can still be modified.
+            result.add(-1);
+            result.remove(-1);
+            assertContents(union, result);
+        }
+
+        AVLTree<Integer> self = AVLTree.fromSorted(Arrays.asList(1, 2, 3));
+        assertContents(new TreeSet<>(Arrays.asList(1, 2, 3)), AVLTree.union(self, self));
+    }
+
+    @Test
+    void splitMatchesTreeSet() {
+        Random random = new Random(44);
+        for (int trial = 0; trial < NUM_TRIALS; trial++) {
+            int range = 1 + random.nextInt(500);
+            TreeSet<Integer> elements = randomSet(random, range);
+            int pivot = random.nextInt(range + 2) - 1;
+
+            AVLTree<Integer> lower = build(elements, random);
+            AVLTree<Integer> upper = lower.split(pivot);
+            assertContents(new TreeSet<>(elements.headSet(pivot)), lower);
+            assertContents(new TreeSet<>(elements.tailSet(pivot)), upper);
+
+            assertContents(elements, AVLTree.union(lower, upper));
+        }
+    }
+
+    @Test
+    void navigationMatchesTreeSet() {
+        Random random = new Random(39);
+        AVLTree<Integer> tree = new AVLTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            int x = random.nextInt(KEY_RANGE);
+            tree.add(x);
+            expected.add(x);
+        }
+        for (int i = 0; i < NUM_ELEMENTS / 2; i++) {
+            int x = random.nextInt(KEY_RANGE);
+            assertEquals(expected.remove(x), tree.remove(x));
+        }
+        assertEquals(expected.size(), checkStructure(tree.root, null, null, null));
+
+        for (int x = -1; x <= KEY_RANGE; x++) {
+            assertEquals(expected.floor(x), tree.floor(x));
+            assertEquals(expected.ceiling(x), tree.ceiling(x));
+            assertEquals(expected.higher(x), tree.higher(x));
+            assertEquals(expected.lower(x), tree.lower(x));
+            assertEquals(expected.headSet(x).size(), tree.rank(x));
+        }
+
+        List<Integer> elements = new ArrayList<>(expected);
+        for (int k = 0; k < elements.size(); k++)
+            assertEquals(elements.get(k), tree.select(k));
+        assertThrows(IllegalArgumentException.class, () -> tree.select(-1));
+        assertThrows(IllegalArgumentException.class, () -> tree.select(tree.size()));
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.rystrauss.tree;
+
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+/**
+ * Standalone timing harness comparing {@link BPlusTreeMap} and {@link LongBPlusTreeMap} against {@link AVLTree}
+ * for random insertions, lookups and full in-order scans. This is not a test; run its {@code main} method directly.
+ * The first round warms up the JIT and should be ignored.
+ */
+class BPlusTreeBenchmark {
+
+    static final int NUM_KEYS = 5_000_000;
+    static final int NUM_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : NUM_KEYS;
+        Random random = new Random(38);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = random.nextInt();
+
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            AVLTree<Integer> avl = new AVLTree<>();
+            BPlusTreeMap<Integer, Integer> bPlus = new BPlusTreeMap<>();
+            LongBPlusTreeMap<Integer> longBPlus = new LongBPlusTreeMap<>();
+            long checksum = 0;
+
+            long start = System.nanoTime();
+            for (int key : keys)
+                avl.add(key);
+            long avlInsert = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys)
+                bPlus.put(key, key);
+            long bPlusInsert = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys)
+                longBPlus.put(key, key);
+            long longInsert = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                if (avl.contains(key))
+                    checksum++;
+            }
+            long avlLookup = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                if (bPlus.get(key) != null)
+                    checksum++;
+            }
+            long bPlusLookup = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                if (longBPlus.get(key) != null)
+                    checksum++;
+            }
+            long longLookup = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : avl)
+                checksum += key;
+            long avlScan = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : bPlus)
+                checksum += key;
+            long bPlusScan = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (PrimitiveIterator.OfLong it = longBPlus.keyIterator(); it.hasNext(); )
+                checksum += it.nextLong();
+            long longScan = System.nanoTime() - start;
+
+            System.out.printf("round %d (checksum %d)%n", round, checksum);
+            print("insert", avlInsert, bPlusInsert, longInsert);
+            print("lookup", avlLookup, bPlusLookup, longLookup);
+            print("scan", avlScan, bPlusScan, longScan);
+        }
+    }
+
+    private static void print(String operation, long avl, long bPlus, long longBPlus) {
+        System.out.printf("  %-6s  AVLTree %6d ms  BPlusTreeMap %6d ms  LongBPlusTreeMap %6d ms%n", operation,
+                avl / 1_000_000, bPlus / 1_000_000, longBPlus / 1_000_000);
+    }
+
+}
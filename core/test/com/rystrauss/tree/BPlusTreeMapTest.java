@@ -0,0 +1,106 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BPlusTreeMapTest {
+
+    static final int[] NODE_CAPACITIES = {3, 4, 5, 8, 64};
+    static final int KEY_RANGE = 3000;
+    static final int NUM_OPERATIONS = 100000;
+    static final int CHECK_INTERVAL = 5000;
+
+    @Test
+    void matchesTreeMap() {
+        Random random = new Random(38);
+        for (int capacity : NODE_CAPACITIES) {
+            BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(capacity);
+            LongBPlusTreeMap<Integer> longMap = new LongBPlusTreeMap<>(capacity);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+
+            for (int i = 0; i < NUM_OPERATIONS; i++) {
+                int key = random.nextInt(KEY_RANGE);
+                int op = random.nextInt(5);
+                if (op < 2) {
+                    assertEquals(expected.get(key), map.put(key, i));
+                    assertEquals(expected.get(key), longMap.put(key, i));
+                    expected.put(key, i);
+                } else if (op < 4) {
+                    Integer removed = expected.remove(key);
+                    assertEquals(removed, map.remove(key));
+                    assertEquals(removed, longMap.remove(key));
+                } else {
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.get(key), longMap.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                }
+                assertEquals(expected.size(), map.size());
+                assertEquals(expected.size(), longMap.size());
+
+                if (i % CHECK_INTERVAL == 0)
+                    checkOrder(expected, map, longMap, random);
+            }
+
+            for (int key : new ArrayList<>(expected.keySet())) {
+                map.remove(key);
+                longMap.remove(key);
+            }
+            assertTrue(map.isEmpty());
+            assertNull(map.firstKey());
+            assertFalse(map.iterator().hasNext());
+            assertFalse(longMap.keyIterator().hasNext());
+        }
+    }
+
+    private static void checkOrder(TreeMap<Integer, Integer> expected, BPlusTreeMap<Integer, Integer> map,
+                                   LongBPlusTreeMap<Integer> longMap, Random random) {
+        List<Integer> keys = new ArrayList<>();
+        for (int key : map)
+            keys.add(key);
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+
+        List<Integer> longKeys = new ArrayList<>();
+        PrimitiveIterator.OfLong it = longMap.keyIterator();
+        while (it.hasNext())
+            longKeys.add((int) it.nextLong());
+        assertEquals(keys, longKeys);
+
+        if (!expected.isEmpty()) {
+            assertEquals(expected.firstKey(), map.firstKey());
+            assertEquals(expected.lastKey(), map.lastKey());
+            assertEquals((long) expected.firstKey(), longMap.firstKey());
+            assertEquals((long) expected.lastKey(), longMap.lastKey());
+        }
+
+        int from = random.nextInt(KEY_RANGE), to = from + random.nextInt(500);
+        List<Integer> range = new ArrayList<>(), longRange = new ArrayList<>(), expectedRange = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> e : expected.subMap(from, to).entrySet()) {
+            expectedRange.add(e.getKey());
+            expectedRange.add(e.getValue());
+        }
+        for (Iterator<Map.Entry<Integer, Integer>> entries = map.range(from, to); entries.hasNext(); ) {
+            Map.Entry<Integer, Integer> e = entries.next();
+            range.add(e.getKey());
+            range.add(e.getValue());
+        }
+        longMap.forEachInRange(from, to, (key, value) -> {
+            longRange.add((int) key);
+            longRange.add(value);
+        });
+        assertEquals(expectedRange, range);
+        assertEquals(expectedRange, longRange);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.rystrauss.tree;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Standalone timing harness comparing {@link AVLTree}, {@link RedBlackTree}, {@link Treap} and {@link SplayTree} on
+ * three workloads: insert-heavy (adds, then removing and re-adding half of the keys), read-heavy (lookups spread
+ * uniformly over the keys) and skewed (90% of lookups hit a small set of hot keys). This is not a test; run its
+ * {@code main} method directly, optionally passing the number of keys. The first round warms up the JIT and is
+ * not reported.
+ */
+class BalancedTreeBenchmark {
+
+    static final int NUM_KEYS = 1_000_000;
+    static final int NUM_HOT_KEYS = 1000;
+    static final int NUM_ROUNDS = 2;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : NUM_KEYS;
+        Random random = new Random(44);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = random.nextInt(4 * n);
+        int hot = Math.min(n, NUM_HOT_KEYS);
+        int[] skewed = new int[3 * n];
+        for (int i = 0; i < skewed.length; i++)
+            skewed[i] = random.nextInt(10) < 9 ? keys[random.nextInt(hot)] : keys[random.nextInt(n)];
+
+        List<Supplier<BinarySearchTree<Integer>>> factories = Arrays.asList(AVLTree::new, RedBlackTree::new,
+                Treap::new, SplayTree::new);
+
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            for (Supplier<BinarySearchTree<Integer>> factory : factories) {
+                BinarySearchTree<Integer> tree = factory.get();
+                long found = 0;
+
+                long start = System.nanoTime();
+                for (int key : keys)
+                    tree.add(key);
+                for (int i = 0; i < n / 2; i++)
+                    tree.remove(keys[i]);
+                for (int i = 0; i < n / 2; i++)
+                    tree.add(keys[i]);
+                long insertHeavy = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int offset = 0; offset < 3; offset++) {
+                    for (int key : keys) {
+                        if (tree.contains(key + offset))
+                            found++;
+                    }
+                }
+                long readHeavy = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int key : skewed) {
+                    if (tree.contains(key))
+                        found++;
+                }
+                long skew = System.nanoTime() - start;
+
+                if (round > 0) {
+                    System.out.printf("%-13s insert-heavy %6d ms  read-heavy %6d ms  skewed %6d ms  (%d found)%n",
+                            tree.getClass().getSimpleName(), insertHeavy / 1_000_000, readHeavy / 1_000_000,
+                            skew / 1_000_000, found);
+                }
+            }
+        }
+    }
+
+}
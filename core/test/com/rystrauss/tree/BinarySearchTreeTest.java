@@ -0,0 +1,73 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinarySearchTreeTest {
+
+    static final int NUM_ELEMENTS = 2000;
+
+    private static List<BinarySearchTree<Integer>> trees() {
+        return Arrays.asList(new BinarySearchTree<>(), new AVLTree<>(), new RedBlackTree<>(), new SplayTree<>(),
+                new Treap<>());
+    }
+
+    @Test
+    void matchesTreeSet() {
+        for (BinarySearchTree<Integer> tree : trees()) {
+            Random random = new Random(37);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                int x = random.nextInt(NUM_ELEMENTS);
+                if (random.nextBoolean())
+                    assertEquals(expected.add(x), tree.add(x));
+                else
+                    assertEquals(expected.remove(x), tree.remove(x));
+            }
+
+            assertEquals(new ArrayList<>(expected), tree.inOrder());
+            List<Integer> range = new ArrayList<>();
+            for (int x : tree.subSet(100, 900))
+                range.add(x);
+            assertEquals(new ArrayList<>(expected.subSet(100, 900)), range);
+        }
+    }
+
+    @Test
+    void iteratorsFailFast() {
+        for (BinarySearchTree<Integer> tree : trees()) {
+            for (int i = 0; i < 10; i++)
+                tree.add(i);
+
+            Iterator<Integer> it = tree.iterator();
+            it.next();
+            tree.add(100);
+            assertThrows(ConcurrentModificationException.class, it::next);
+
+            Iterator<Integer> range = tree.subSet(2, 8).iterator();
+            range.next();
+            tree.remove(5);
+            assertThrows(ConcurrentModificationException.class, range::next);
+
+            // Lookups do not invalidate iterators, even in a splay tree.
+            Iterator<Integer> lookups = tree.iterator();
+            List<Integer> seen = new ArrayList<>();
+            while (lookups.hasNext()) {
+                seen.add(lookups.next());
+                tree.contains(7);
+            }
+            assertEquals(tree.inOrder(), seen);
+        }
+    }
+
+}
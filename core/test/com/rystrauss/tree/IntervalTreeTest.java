@@ -0,0 +1,100 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+
+    static final int RANGE = 1000;
+    static final int MAX_LENGTH = 50;
+    static final int NUM_OPERATIONS = 20000;
+
+    private static Interval<Integer> randomInterval(Random random) {
+        int low = random.nextInt(RANGE);
+        return new Interval<>(low, low + random.nextInt(MAX_LENGTH));
+    }
+
+    private static List<Interval<Integer>> bruteForce(TreeSet<Interval<Integer>> intervals, int low, int high) {
+        List<Interval<Integer>> overlapping = new ArrayList<>();
+        for (Interval<Integer> interval : intervals) {
+            if (interval.getLow() <= high && interval.getHigh() >= low)
+                overlapping.add(interval);
+        }
+        return overlapping;
+    }
+
+    /**
+     * Checks that every node records the maximum high endpoint of its subtree, and returns that maximum.
+     */
+    private static int checkMaximum(Node<Interval<Integer>> node) {
+        int max = node.data.getHigh();
+        if (node.left != null)
+            max = Math.max(max, checkMaximum(node.left));
+        if (node.right != null)
+            max = Math.max(max, checkMaximum(node.right));
+        assertEquals(max, (int) ((IntervalTree.IntervalNode<Integer>) node).max);
+        return max;
+    }
+
+    @Test
+    void queriesMatchBruteForce() {
+        Random random = new Random(45);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        TreeSet<Interval<Integer>> expected = new TreeSet<>();
+        List<Interval<Integer>> added = new ArrayList<>();
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            // Removals are interleaved with additions, so the maximum endpoints must survive both kinds of rebalancing.
+            if (random.nextInt(3) > 0 || added.isEmpty()) {
+                Interval<Integer> interval = randomInterval(random);
+                assertEquals(expected.add(interval), tree.add(interval));
+                added.add(interval);
+            } else {
+                Interval<Integer> interval = added.get(random.nextInt(added.size()));
+                assertEquals(expected.remove(interval), tree.remove(interval));
+            }
+
+            if (tree.root != null)
+                checkMaximum(tree.root);
+
+            int point = random.nextInt(RANGE + 2 * MAX_LENGTH) - MAX_LENGTH;
+            assertEquals(bruteForce(expected, point, point), tree.stab(point));
+
+            Interval<Integer> query = randomInterval(random);
+            List<Interval<Integer>> overlapping = bruteForce(expected, query.getLow(), query.getHigh());
+            assertEquals(overlapping, tree.overlapping(query.getLow(), query.getHigh()));
+
+            Interval<Integer> found = tree.findOverlapping(query.getLow(), query.getHigh());
+            if (overlapping.isEmpty()) {
+                assertNull(found);
+            } else {
+                assertTrue(expected.contains(found));
+                assertTrue(found.overlaps(query));
+            }
+        }
+
+        assertEquals(new ArrayList<>(expected), tree.inOrder());
+    }
+
+    @Test
+    void invalidQueriesRejected() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.add(new Interval<>(1, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> new Interval<>(5, 1));
+        assertThrows(IllegalArgumentException.class, () -> tree.overlapping(5, 1));
+        assertThrows(IllegalArgumentException.class, () -> tree.findOverlapping(5, 1));
+        assertEquals(1, tree.stab(5).size());
+        assertTrue(tree.stab(6).isEmpty());
+    }
+
+}
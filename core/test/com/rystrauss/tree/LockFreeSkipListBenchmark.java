@@ -0,0 +1,84 @@
+package com.rystrauss.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Standalone harness measuring the throughput of {@link LockFreeSkipList} under a mixed workload (10% adds, 10%
+ * removes, 80% lookups) as the number of threads grows, with {@link ConcurrentSkipListSet} as a baseline. This is
+ * not a test; run its {@code main} method directly, optionally passing the number of seconds for each measurement.
+ */
+class LockFreeSkipListBenchmark {
+
+    static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    static final int INITIAL_SIZE = 100000;
+    static final int KEY_RANGE = 2 * INITIAL_SIZE;
+    static final int BATCH_SIZE = 100;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1_000_000_000L;
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        for (int threads : THREAD_COUNTS) {
+            LockFreeSkipList<Integer> list = new LockFreeSkipList<>();
+            ConcurrentSkipListSet<Integer> baseline = new ConcurrentSkipListSet<>();
+            for (int i = 0; i < INITIAL_SIZE; i++) {
+                list.add(2 * i);
+                baseline.add(2 * i);
+            }
+
+            double listRate = run(executor, threads, nanos, list::add, list::remove, list::contains);
+            double baselineRate = run(executor, threads, nanos, baseline::add, baseline::remove,
+                    baseline::contains);
+            System.out.printf("threads %d  LockFreeSkipList %7.2f Mops/s  ConcurrentSkipListSet %7.2f Mops/s%n",
+                    threads, listRate / 1e6, baselineRate / 1e6);
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the mixed workload on the given number of threads for the given time, and returns the number of
+     * operations completed per second.
+     */
+    private static double run(ExecutorService executor, int threads, long nanos, IntPredicate add,
+                              IntPredicate remove, IntPredicate contains)
+            throws InterruptedException, ExecutionException {
+        LongAdder operations = new LongAdder();
+        long end = System.nanoTime() + nanos;
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (System.nanoTime() < end) {
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        int key = random.nextInt(KEY_RANGE), op = random.nextInt(10);
+                        if (op == 0)
+                            add.test(key);
+                        else if (op == 1)
+                            remove.test(key);
+                        else
+                            contains.test(key);
+                    }
+                    count += BATCH_SIZE;
+                }
+                operations.add(count);
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get();
+
+        return operations.sum() / (nanos / 1e9);
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LockFreeSkipListTest {
+
+    static final int KEY_RANGE = 2000;
+    static final int NUM_OPERATIONS = 100000;
+    static final int NUM_THREADS = 4;
+    static final int OPERATIONS_PER_THREAD = 50000;
+
+    @Test
+    void matchesTreeSet() {
+        Random random = new Random(41);
+        LockFreeSkipList<Integer> list = new LockFreeSkipList<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            int x = random.nextInt(KEY_RANGE);
+            if (random.nextBoolean())
+                assertEquals(expected.add(x), list.add(x));
+            else
+                assertEquals(expected.remove(x), list.remove(x));
+
+            int q = random.nextInt(KEY_RANGE + 100) - 50;
+            assertEquals(expected.contains(q), list.contains(q));
+            assertEquals(expected.floor(q), list.floor(q));
+            assertEquals(expected.ceiling(q), list.ceiling(q));
+            assertEquals(expected.higher(q), list.higher(q));
+            assertEquals(expected.lower(q), list.lower(q));
+            assertEquals(expected.size(), list.size());
+
+            if (i % 1000 == 0) {
+                assertEquals(new ArrayList<>(expected), list.inOrder());
+                int from = random.nextInt(KEY_RANGE), to = from + random.nextInt(300);
+                List<Integer> range = new ArrayList<>();
+                for (int x2 : list.subSet(from, to))
+                    range.add(x2);
+                assertEquals(new ArrayList<>(expected.subSet(from, to)), range);
+                if (!expected.isEmpty()) {
+                    assertEquals(expected.first(), list.minimumElement());
+                    assertEquals(expected.last(), list.maximumElement());
+                }
+            }
+        }
+    }
+
+    @Test
+    void concurrentDisjointKeys() throws InterruptedException, ExecutionException {
+        // Each thread owns the keys congruent to its id, so it knows exactly what every operation should return.
+        LockFreeSkipList<Integer> list = new LockFreeSkipList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        List<Future<Set<Integer>>> futures = new ArrayList<>();
+        LongAdder failures = new LongAdder();
+
+        for (int id = 0; id < NUM_THREADS; id++) {
+            int thread = id;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(thread);
+                Set<Integer> mine = new HashSet<>();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int key = random.nextInt(KEY_RANGE) * NUM_THREADS + thread;
+                    boolean ok = random.nextBoolean() ? list.add(key) == mine.add(key)
+                            : list.remove(key) == mine.remove(key);
+                    if (!ok || list.contains(key) != mine.contains(key))
+                        failures.increment();
+                }
+                return mine;
+            }));
+        }
+
+        Set<Integer> expected = new TreeSet<>();
+        for (Future<Set<Integer>> future : futures)
+            expected.addAll(future.get());
+        executor.shutdown();
+
+        assertEquals(0, failures.sum());
+        assertEquals(new ArrayList<>(expected), list.inOrder());
+        assertEquals(expected.size(), list.size());
+    }
+
+    @Test
+    void concurrentSharedKeys() throws InterruptedException, ExecutionException {
+        // Every thread works on the same keys; the successful adds minus removes must match the final contents.
+        LockFreeSkipList<Integer> list = new LockFreeSkipList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        LongAdder net = new LongAdder();
+
+        for (int id = 0; id < NUM_THREADS; id++) {
+            Random random = new Random(100 + id);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int key = random.nextInt(KEY_RANGE / 2);
+                    if (random.nextBoolean()) {
+                        if (list.add(key))
+                            net.increment();
+                    } else if (list.remove(key))
+                        net.decrement();
+                }
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        List<Integer> elements = list.inOrder();
+        for (int i = 1; i < elements.size(); i++)
+            assertTrue(elements.get(i - 1) < elements.get(i));
+        assertEquals(net.sum(), elements.size());
+        assertEquals(net.sum(), list.size());
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedLongBPlusTreeSetTest {
+
+    static final int KEY_RANGE = 20000;
+    static final int NUM_OPERATIONS = 60000;
+    static final int NUM_KEYS = 100000;
+    static final int NUM_SESSIONS = 30;
+
+    // The file is extended one mapped segment of 4096 pages at a time.
+    static final long SEGMENT_SIZE = 4096L * MappedLongBPlusTreeSet.PAGE_SIZE;
+
+    @TempDir
+    Path dir;
+
+    private static List<Long> keys(MappedLongBPlusTreeSet set) {
+        List<Long> keys = new ArrayList<>();
+        for (long key : set)
+            keys.add(key);
+        return keys;
+    }
+
+    @Test
+    void matchesTreeSetAcrossCommitsAndReopens() throws IOException {
+        Path file = dir.resolve("set.db");
+        Random random = new Random(46);
+        TreeSet<Long> expected = new TreeSet<>();
+        MappedLongBPlusTreeSet set = new MappedLongBPlusTreeSet(file, 16);
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            long key = random.nextInt(KEY_RANGE);
+            if (random.nextInt(3) > 0)
+                assertEquals(expected.add(key), set.add(key));
+            else
+                assertEquals(expected.remove(key), set.remove(key));
+
+            long q = random.nextInt(KEY_RANGE + 20) - 10;
+            assertEquals(expected.contains(q), set.contains(q));
+            assertEquals(expected.floor(q), set.floor(q));
+            assertEquals(expected.ceiling(q), set.ceiling(q));
+            assertEquals(expected.higher(q), set.higher(q));
+            assertEquals(expected.lower(q), set.lower(q));
+
+            if (i % 5000 == 0)
+                set.commit();
+            if (i % 15000 == 0) {
+                set.close();
+                set = new MappedLongBPlusTreeSet(file, 16);
+                assertEquals(expected.size(), set.size());
+                assertEquals(new ArrayList<>(expected), keys(set));
+            }
+        }
+
+        set.close();
+        try (MappedLongBPlusTreeSet reopened = new MappedLongBPlusTreeSet(file)) {
+            assertEquals(new ArrayList<>(expected), keys(reopened));
+            assertEquals((long) expected.first(), reopened.first());
+            assertEquals((long) expected.last(), reopened.last());
+        }
+    }
+
+    @Test
+    void uncommittedChangesAreLostOnCrash() throws IOException {
+        Path file = dir.resolve("set.db");
+        MappedLongBPlusTreeSet set = new MappedLongBPlusTreeSet(file);
+        for (long key = 0; key < NUM_KEYS; key++)
+            set.add(key);
+        set.commit();
+        for (long key = 0; key < NUM_KEYS; key += 2)
+            set.remove(key);
+
+        // Copying the file without closing the set simulates a crash before the next commit.
+        Path copy = dir.resolve("copy.db");
+        Files.copy(file, copy);
+        set.close();
+
+        try (MappedLongBPlusTreeSet crashed = new MappedLongBPlusTreeSet(copy)) {
+            assertEquals(NUM_KEYS, crashed.size());
+            assertEquals(NUM_KEYS, keys(crashed).size());
+        }
+    }
+
+    @Test
+    void tornHeaderFallsBackToOtherSlot() throws IOException {
+        Path file = dir.resolve("set.db");
+        try (MappedLongBPlusTreeSet set = new MappedLongBPlusTreeSet(file)) {
+            for (long key = 0; key < NUM_KEYS; key++)
+                set.add(key);
+            set.commit();
+            for (long key = 0; key < NUM_KEYS; key += 2)
+                set.remove(key);
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+        for (int slot = 0; slot < 2; slot++) {
+            Path torn = dir.resolve("torn" + slot + ".db");
+            Files.copy(file, torn, StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(torn, StandardOpenOption.WRITE)) {
+                long position = slot * (long) MappedLongBPlusTreeSet.PAGE_SIZE + 20;
+                channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), position);
+            }
+
+            try (MappedLongBPlusTreeSet set = new MappedLongBPlusTreeSet(torn)) {
+                assertEquals(set.size(), keys(set).size());
+                sizes.add(set.size());
+            }
+        }
+
+        // Tearing the newest header leaves the previous commit; tearing the other one leaves the newest.
+        sizes.sort(null);
+        assertEquals(NUM_KEYS / 2, (int) sizes.get(0));
+        assertEquals(NUM_KEYS, (int) sizes.get(1));
+    }
+
+    @Test
+    void otherFilesRejectedWithoutBeingModified() throws IOException {
+        Path small = dir.resolve("small.db");
+        byte[] text = "not a set".getBytes();
+        Files.write(small, text);
+        assertThrows(IOException.class, () -> new MappedLongBPlusTreeSet(small));
+        assertArrayEquals(text, Files.readAllBytes(small));
+
+        Path junk = dir.resolve("junk.db");
+        byte[] bytes = new byte[3 * MappedLongBPlusTreeSet.PAGE_SIZE];
+        new Random(47).nextBytes(bytes);
+        Files.write(junk, bytes);
+        assertThrows(IOException.class, () -> new MappedLongBPlusTreeSet(junk));
+        assertArrayEquals(bytes, Files.readAllBytes(junk));
+    }
+
+    @Test
+    void freedPagesReusedAfterReopen() throws IOException {
+        // Every session replaces every leaf, so without reclaiming the pages freed by earlier sessions the file
+        // would outgrow its first segment.
+        Path file = dir.resolve("set.db");
+        for (int session = 0; session < NUM_SESSIONS; session++) {
+            try (MappedLongBPlusTreeSet set = new MappedLongBPlusTreeSet(file)) {
+                for (long key = 0; key < NUM_KEYS; key++) {
+                    if (session % 2 == 0)
+                        set.add(key);
+                    else
+                        set.remove(key);
+                }
+            }
+        }
+
+        assertEquals(SEGMENT_SIZE, Files.size(file));
+    }
+
+}
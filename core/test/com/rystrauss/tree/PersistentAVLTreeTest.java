@@ -0,0 +1,104 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentAVLTreeTest {
+
+    static final int NUM_ELEMENTS = 1000;
+    static final int NUM_OPERATIONS = 20000;
+    static final int SNAPSHOT_INTERVAL = 500;
+
+    private static void assertMatches(TreeSet<Integer> expected, PersistentAVLTree<Integer> tree) {
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected.isEmpty(), tree.isEmpty());
+        assertEquals(new ArrayList<>(expected), tree.inOrder());
+        assertEquals(expected.isEmpty() ? null : expected.first(), tree.minimumElement());
+        assertEquals(expected.isEmpty() ? null : expected.last(), tree.maximumElement());
+        for (int x = -1; x <= NUM_ELEMENTS; x += 7)
+            assertEquals(expected.contains(x), tree.contains(x));
+    }
+
+    @Test
+    void matchesTreeSetAndKeepsSnapshots() {
+        Random random = new Random(42);
+        PersistentAVLTree<Integer> tree = new PersistentAVLTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        List<PersistentAVLTree<Integer>> snapshots = new ArrayList<>();
+        List<TreeSet<Integer>> snapshotContents = new ArrayList<>();
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            int x = random.nextInt(NUM_ELEMENTS);
+            PersistentAVLTree<Integer> previous = tree;
+            boolean changed;
+            if (random.nextInt(3) > 0) {
+                changed = expected.add(x);
+                tree = tree.add(x);
+            } else {
+                changed = expected.remove(x);
+                tree = tree.remove(x);
+            }
+            // An update that changes nothing returns the same tree.
+            if (!changed)
+                assertSame(previous, tree);
+            assertEquals(expected.size(), tree.size());
+
+            if (i % SNAPSHOT_INTERVAL == 0) {
+                snapshots.add(tree);
+                snapshotContents.add(new TreeSet<>(expected));
+            }
+        }
+
+        assertMatches(expected, tree);
+        for (int i = 0; i < snapshots.size(); i++)
+            assertMatches(snapshotContents.get(i), snapshots.get(i));
+    }
+
+    @Test
+    void iteratorUnaffectedByLaterUpdates() {
+        PersistentAVLTree<Integer> tree = PersistentAVLTree.fromSorted(Arrays.asList(1, 2, 3, 4, 5));
+        Iterator<Integer> it = tree.iterator();
+        assertEquals(1, (int) it.next());
+
+        PersistentAVLTree<Integer> updated = tree.remove(3).remove(4).add(0).add(6);
+        List<Integer> rest = new ArrayList<>();
+        it.forEachRemaining(rest::add);
+        assertEquals(Arrays.asList(2, 3, 4, 5), rest);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), tree.inOrder());
+        assertEquals(Arrays.asList(0, 1, 2, 5, 6), updated.inOrder());
+    }
+
+    @Test
+    void fromSorted() {
+        List<Integer> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_ELEMENTS; i++)
+            elements.add(2 * i);
+
+        PersistentAVLTree<Integer> tree = PersistentAVLTree.fromSorted(elements);
+        assertEquals(elements, tree.inOrder());
+        assertTrue(tree.contains(2 * (NUM_ELEMENTS - 1)));
+        assertEquals(elements.size() + 1, tree.add(1).size());
+
+        PersistentAVLTree<Integer> empty = PersistentAVLTree.fromSorted(new ArrayList<Integer>());
+        assertTrue(empty.isEmpty());
+        assertNull(empty.minimumElement());
+        assertSame(empty, empty.remove(1));
+
+        assertThrows(IllegalArgumentException.class, () -> PersistentAVLTree.fromSorted(Arrays.asList(1, 3, 2)));
+        assertThrows(IllegalArgumentException.class, () -> PersistentAVLTree.fromSorted(Arrays.asList(1, 1)));
+        assertThrows(NullPointerException.class, () -> tree.add(null));
+    }
+
+}
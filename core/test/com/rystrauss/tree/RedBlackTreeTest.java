@@ -0,0 +1,107 @@
+package com.rystrauss.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedBlackTreeTest {
+
+    static final int NUM_ELEMENTS = 2000;
+    static final int NUM_OPERATIONS = 20000;
+
+    private static boolean isRed(Node<?> node) {
+        return node != null && ((RedBlackTree.ColoredNode<?>) node).red;
+    }
+
+    /**
+     * Checks the parent pointers, ordering and coloring of a subtree.
+     *
+     * @return the number of black nodes on every path from the subtree's root to a missing child
+     */
+    private static int checkStructure(Node<Integer> node, Node<Integer> parent, Integer min, Integer max) {
+        if (node == null)
+            return 1;
+
+        assertSame(parent, node.parent);
+        assertTrue(min == null || node.data > min);
+        assertTrue(max == null || node.data < max);
+        if (isRed(node)) {
+            assertFalse(isRed(node.left));
+            assertFalse(isRed(node.right));
+        }
+
+        int left = checkStructure(node.left, node, min, node.data);
+        int right = checkStructure(node.right, node, node.data, max);
+        assertEquals(left, right);
+        return left + (isRed(node) ? 0 : 1);
+    }
+
+    @Test
+    void matchesTreeSetAndStaysBalanced() {
+        Random random = new Random(44);
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            int x = random.nextInt(NUM_ELEMENTS);
+            if (random.nextInt(3) > 0)
+                assertEquals(expected.add(x), tree.add(x));
+            else
+                assertEquals(expected.remove(x), tree.remove(x));
+
+            if (i % 100 == 0) {
+                checkStructure(tree.root, null, null, null);
+                assertFalse(isRed(tree.root));
+            }
+        }
+
+        checkStructure(tree.root, null, null, null);
+        assertEquals(expected.size(), tree.size());
+        assertEquals(new ArrayList<>(expected), tree.inOrder());
+
+        for (int x : new ArrayList<>(expected)) {
+            assertTrue(tree.remove(x));
+            checkStructure(tree.root, null, null, null);
+        }
+        assertNull(tree.root);
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void removalKeepsOtherNodes() {
+        Random random = new Random(45);
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int i = 0; i < NUM_ELEMENTS; i++)
+            tree.add(i);
+
+        Map<Integer, Node<Integer>> nodes = new HashMap<>();
+        for (int i = 0; i < NUM_ELEMENTS; i++)
+            nodes.put(i, tree.findNode(i));
+
+        // Removing elements with two children relinks their successors rather than moving elements between nodes.
+        for (int i = 0; i < NUM_ELEMENTS / 2; i++) {
+            int x = random.nextInt(NUM_ELEMENTS);
+            if (nodes.containsKey(x)) {
+                assertTrue(tree.remove(x));
+                nodes.remove(x);
+            }
+        }
+
+        for (Map.Entry<Integer, Node<Integer>> entry : nodes.entrySet()) {
+            assertSame(entry.getValue(), tree.findNode(entry.getKey()));
+            assertEquals(entry.getKey(), entry.getValue().data);
+        }
+        checkStructure(tree.root, null, null, null);
+    }
+
+}